@@ -26,6 +26,20 @@ MAX_TAGS_PER_CERTIFICATE = 3
 MIN_CERTIFICATES_PER_ORDER = 1
 MAX_CERTIFICATES_PER_ORDER = 3
 
+# aggregates of explicitly inserted orders
+USER_STATS_REBUILD = (
+    'INSERT INTO user_stats (id_user, order_count, total_cost, last_purchase_date) '
+    'SELECT id_user, COUNT(*), SUM(cost), MAX(purchase_date) FROM app_order GROUP BY id_user;'
+)
+
+USER_TAG_USAGE_REBUILD = (
+    'INSERT INTO user_tag_usage (id_user, id_tag, usage_count) '
+    'SELECT o.id_user, ct.id_tag, COUNT(*) FROM app_order AS o '
+    'INNER JOIN certificate_order AS co ON co.id_order = o.id '
+    'INNER JOIN certificate_tag AS ct ON ct.id_certificate = co.id_certificate '
+    'GROUP BY o.id_user, ct.id_tag;'
+)
+
 def fetch_word(min_length, max_length):
     ''' 
     Fetch a word that matches specified length boundaries 
@@ -77,6 +91,13 @@ def generate_insert(table_name, cols_vals):
         values=values_statement
     )
 
+def generate_sequence_restart(table_name, last_id):
+    '''
+    Generate statement that makes id sequence of the table start after explicitly inserted ids
+    '''
+
+    return f'ALTER SEQUENCE {table_name}_id_seq RESTART WITH {last_id + 1};'
+
 def dump(file_name, lines):
     with open(file_name, 'w') as file:
         file.writelines(lines)
@@ -97,6 +118,7 @@ def generate_data(file_name, certificates_total, tags_total, users_total, orders
             create_date = last_update_date = generate_date(MIN_DATE, MAX_DATE)
 
             certificate_statement = generate_insert('gift_certificate', {
+                'id': i + 1,
                 'name': name, 
                 'description': description, 
                 'price': price, 
@@ -110,32 +132,42 @@ def generate_data(file_name, certificates_total, tags_total, users_total, orders
 
         # tags
         tags_generated = 0
+        tag_names = set()
         for i in range(tags_total):
             name = fetch_word(MIN_NAME_LENGTH, MAX_NAME_LENGTH)
 
-            tag_statement = generate_insert('tag', {
-                'name': name
-            })
-
-            if lines.add(tag_statement + '\n') == len(lines) - 1:
+            if name not in tag_names:
+                tag_names.add(name)
                 tags_generated += 1
+
+                tag_statement = generate_insert('tag', {
+                    'id': tags_generated,
+                    'name': name
+                })
+
+                lines.add(tag_statement + '\n')
                 print('Tags generated: ', tags_generated)
 
         # users
         users_generated = 0
+        usernames = set()
         for i in range(users_total):
             username = fetch_word(MIN_USERNAME_LENGTH, MAX_USERNAME_LENGTH)
             password = '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S'
             role = 0
 
-            user_statement = generate_insert('app_user', {
-                'username': username,
-                'password': password,
-                'role': role
-            })
-
-            if lines.add(user_statement + '\n') == len(lines) - 1:
+            if username not in usernames:
+                usernames.add(username)
                 users_generated += 1
+
+                user_statement = generate_insert('app_user', {
+                    'id': users_generated,
+                    'username': username,
+                    'password': password,
+                    'role': role
+                })
+
+                lines.add(user_statement + '\n')
                 print('Users generated: ', users_generated)
 
         # orders
@@ -145,6 +177,7 @@ def generate_data(file_name, certificates_total, tags_total, users_total, orders
             user_id = random.randrange(0, users_generated) + 1
 
             order_statement = generate_insert('app_order', {
+                'id': i + 1,
                 'cost': cost,
                 'purchase_date': purchase_date,
                 'id_user': user_id,
@@ -188,6 +221,16 @@ def generate_data(file_name, certificates_total, tags_total, users_total, orders
                 lines.add(certificate_order_statement + '\n')
 
         print('Certificates successfully linked to orders')
+
+        # ids are inserted explicitly, so sequences have to start after them
+        lines.add(generate_sequence_restart('gift_certificate', certificates_total) + '\n')
+        lines.add(generate_sequence_restart('tag', tags_generated) + '\n')
+        lines.add(generate_sequence_restart('app_user', users_generated) + '\n')
+        lines.add(generate_sequence_restart('app_order', orders_total) + '\n')
+
+        # orders are inserted explicitly, so their aggregates are computed from them
+        lines.add(USER_STATS_REBUILD + '\n')
+        lines.add(USER_TAG_USAGE_REBUILD + '\n')
     except:
         pass
     finally:
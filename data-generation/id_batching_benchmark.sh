@@ -0,0 +1,102 @@
+#!/bin/bash
+# Benchmark of bulk certificate and order creation: ids generated per row (BIGSERIAL, one INSERT ... RETURNING
+# round trip per row, which is what IDENTITY generation forces on Hibernate) vs ids taken from a pooled sequence
+# block (one nextval per 50 rows, rows sent together like a JDBC batch).
+# Runs in a separate schema, so application data is not touched.
+# Usage: PGHOST=localhost PGUSER=postgres ./id_batching_benchmark.sh
+set -e
+
+ROWS_PER_TRANSACTION=50
+TRANSACTIONS=200
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+psql -q <<SQL
+DROP SCHEMA IF EXISTS id_benchmark CASCADE;
+CREATE SCHEMA id_benchmark;
+SET search_path TO id_benchmark;
+
+CREATE TABLE identity_certificate (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL,
+    price DECIMAL(10, 2) NOT NULL
+);
+
+CREATE TABLE identity_order (
+    id BIGSERIAL PRIMARY KEY,
+    cost DECIMAL(10, 2) NOT NULL
+);
+
+CREATE TABLE identity_certificate_order (
+    id_certificate BIGINT NOT NULL,
+    id_order BIGINT NOT NULL
+);
+
+CREATE SEQUENCE pooled_certificate_id_seq START WITH 1 INCREMENT BY $ROWS_PER_TRANSACTION;
+CREATE SEQUENCE pooled_order_id_seq START WITH 1 INCREMENT BY $ROWS_PER_TRANSACTION;
+
+CREATE TABLE pooled_certificate (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(50) NOT NULL,
+    price DECIMAL(10, 2) NOT NULL
+);
+
+CREATE TABLE pooled_order (
+    id BIGINT PRIMARY KEY,
+    cost DECIMAL(10, 2) NOT NULL
+);
+
+CREATE TABLE pooled_certificate_order (
+    id_certificate BIGINT NOT NULL,
+    id_order BIGINT NOT NULL
+);
+
+-- every order refers to one of these certificates
+INSERT INTO identity_certificate (name, price) SELECT 'ordered', 10 FROM generate_series(1, 10);
+SQL
+
+# identity: a statement (and a round trip) per certificate, the id is returned by each insert
+{
+    echo "BEGIN;"
+    for ((i = 1; i <= ROWS_PER_TRANSACTION; i++)); do
+        echo "INSERT INTO id_benchmark.identity_certificate (name, price) VALUES ('certificate', 10) RETURNING id;"
+    done
+    echo "END;"
+} > "$WORK_DIR/identity_certificates.sql"
+
+# pooled: ids of the whole block are known after one nextval, rows are inserted with a single statement
+{
+    echo "BEGIN;"
+    echo "SELECT nextval('id_benchmark.pooled_certificate_id_seq') AS first_id \\gset"
+    echo "INSERT INTO id_benchmark.pooled_certificate (id, name, price)"
+    echo "    SELECT :first_id + i, 'certificate', 10 FROM generate_series(0, $((ROWS_PER_TRANSACTION - 1))) AS i;"
+    echo "END;"
+} > "$WORK_DIR/pooled_certificates.sql"
+
+# identity: the order id has to be returned before its certificate links can be inserted
+{
+    echo "BEGIN;"
+    for ((i = 1; i <= ROWS_PER_TRANSACTION; i++)); do
+        echo "INSERT INTO id_benchmark.identity_order (cost) VALUES (10) RETURNING id \\gset order_"
+        echo "INSERT INTO id_benchmark.identity_certificate_order (id_certificate, id_order) VALUES (1, :order_id);"
+    done
+    echo "END;"
+} > "$WORK_DIR/identity_orders.sql"
+
+# pooled: orders and their links are sent as two batches
+{
+    echo "BEGIN;"
+    echo "SELECT nextval('id_benchmark.pooled_order_id_seq') AS first_id \\gset"
+    echo "INSERT INTO id_benchmark.pooled_order (id, cost)"
+    echo "    SELECT :first_id + i, 10 FROM generate_series(0, $((ROWS_PER_TRANSACTION - 1))) AS i;"
+    echo "INSERT INTO id_benchmark.pooled_certificate_order (id_certificate, id_order)"
+    echo "    SELECT 1, :first_id + i FROM generate_series(0, $((ROWS_PER_TRANSACTION - 1))) AS i;"
+    echo "END;"
+} > "$WORK_DIR/pooled_orders.sql"
+
+for script in identity_certificates pooled_certificates identity_orders pooled_orders; do
+    echo "=== $script ($ROWS_PER_TRANSACTION rows per transaction) ==="
+    pgbench -n -t "$TRANSACTIONS" -f "$WORK_DIR/$script.sql" | grep -E "latency average|tps"
+done
+
+psql -q -c "DROP SCHEMA id_benchmark CASCADE;"
@@ -0,0 +1,60 @@
+-- Benchmark of substring search on gift_certificate: sequential LIKE '%x%' scan vs pg_trgm GIN indexes.
+-- Runs in a separate schema, so application data is not touched.
+-- Usage: psql -h localhost -U postgres -f trigram_benchmark.sql
+\set rows 1000000
+\timing on
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+DROP SCHEMA IF EXISTS trigram_benchmark CASCADE;
+CREATE SCHEMA trigram_benchmark;
+SET search_path TO trigram_benchmark, public;
+
+CREATE TABLE gift_certificate (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(50) NOT NULL,
+    description VARCHAR(100) NOT NULL,
+    price DECIMAL(10, 2) NOT NULL,
+    duration INT NOT NULL,
+    create_date TIMESTAMP NOT NULL,
+    last_update_date TIMESTAMP NOT NULL
+);
+
+-- pseudo-random words: md5 hex digits mapped to letters, with a rare marker word in about 0.1% of rows
+INSERT INTO gift_certificate (name, description, price, duration, create_date, last_update_date)
+SELECT
+    CASE WHEN i % 1000 = 0 THEN 'Spa weekend ' ELSE '' END
+        || translate(left(md5(i::text), 12), '0123456789', 'ghijklmnop'),
+    translate(md5((i * 31)::text) || ' ' || left(md5((i * 17)::text), 30), '0123456789', 'qrstuvwxyz'),
+    (random() * 100)::DECIMAL(10, 2),
+    1 + (random() * 59)::INT,
+    now() - random() * INTERVAL '730 days',
+    now()
+FROM generate_series(1, :rows) AS i;
+
+ANALYZE gift_certificate;
+
+\echo '=== without trigram indexes ==='
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM gift_certificate WHERE name LIKE '%Spa week%';
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM gift_certificate WHERE lower(name) LIKE lower('%SPA WEEK%');
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM gift_certificate WHERE description LIKE '%qrsab%';
+
+-- the same definitions as in web/src/main/resources/schema-postgresql.sql
+CREATE INDEX gift_certificate_name_trgm_idx ON gift_certificate USING GIN (name gin_trgm_ops);
+CREATE INDEX gift_certificate_description_trgm_idx ON gift_certificate USING GIN (description gin_trgm_ops);
+CREATE INDEX gift_certificate_name_lower_trgm_idx ON gift_certificate USING GIN (lower(name) gin_trgm_ops);
+CREATE INDEX gift_certificate_description_lower_trgm_idx
+    ON gift_certificate USING GIN (lower(description) gin_trgm_ops);
+
+ANALYZE gift_certificate;
+
+\echo '=== with trigram indexes ==='
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM gift_certificate WHERE name LIKE '%Spa week%';
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM gift_certificate WHERE lower(name) LIKE lower('%SPA WEEK%');
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM gift_certificate WHERE description LIKE '%qrsab%';
+
+-- patterns shorter than 3 characters have no trigrams, so the planner falls back to a sequential scan
+EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM gift_certificate WHERE name LIKE '%Sp%';
+
+RESET search_path;
+DROP SCHEMA trigram_benchmark CASCADE;
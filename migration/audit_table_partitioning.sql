@@ -0,0 +1,61 @@
+-- Migrates a database created with plain audit_table to audit_table partitioned by day
+-- (see web/src/main/resources/schema-postgresql.sql) and creates audit_rollup table.
+-- Existing rows are copied to daily partitions, rollups of their days are created by the rollup job
+-- (days older than retention period are rolled up and dropped by its first run).
+-- Usage: psql -h localhost -U postgres -f audit_table_partitioning.sql
+BEGIN;
+
+LOCK TABLE audit_table IN EXCLUSIVE MODE;
+
+-- sequence of BIGSERIAL column would be dropped together with the old table
+ALTER SEQUENCE audit_table_id_seq OWNED BY NONE;
+ALTER TABLE audit_table RENAME TO audit_table_unpartitioned;
+ALTER INDEX IF EXISTS audit_table_pkey RENAME TO audit_table_unpartitioned_pkey;
+
+CREATE TABLE audit_table (
+    id BIGINT DEFAULT nextval('audit_table_id_seq'),
+    operation VARCHAR(20),
+    entity_name VARCHAR(50),
+    timestamp TIMESTAMP NOT NULL,
+
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE audit_table_default PARTITION OF audit_table DEFAULT;
+
+CREATE INDEX audit_table_entity_name_timestamp_idx ON audit_table (entity_name, timestamp);
+
+-- partitions of existing days and of the next week
+DO $$
+DECLARE
+    day DATE;
+BEGIN
+    FOR day IN
+        SELECT generate_series(
+            COALESCE((SELECT MIN(timestamp) FROM audit_table_unpartitioned), now())::DATE,
+            (now() + INTERVAL '7 days')::DATE,
+            INTERVAL '1 day')::DATE
+    LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF audit_table FOR VALUES FROM (%L) TO (%L)',
+            'audit_table_p' || to_char(day, 'YYYYMMDD'), day, day + 1);
+    END LOOP;
+END $$;
+
+-- rows without timestamp can not be placed into any partition
+INSERT INTO audit_table (id, operation, entity_name, timestamp)
+SELECT id, operation, entity_name, timestamp
+FROM audit_table_unpartitioned
+WHERE timestamp IS NOT NULL;
+
+DROP TABLE audit_table_unpartitioned;
+
+CREATE TABLE IF NOT EXISTS audit_rollup (
+    event_date DATE NOT NULL,
+    entity_name VARCHAR(50) NOT NULL,
+    operation VARCHAR(20) NOT NULL,
+    event_count BIGINT NOT NULL,
+
+    PRIMARY KEY (event_date, entity_name, operation)
+);
+
+COMMIT;
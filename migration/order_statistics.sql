@@ -0,0 +1,52 @@
+-- Creates aggregates of orders (user_stats and user_tag_usage tables, see web/src/main/resources/schema.sql)
+-- or brings tables created by a previous version of this script up to date, and computes aggregates
+-- from existing orders. Orders cannot be made until the script is finished.
+-- The same aggregates are recomputed by POST /api/tags/most_used_tag/rebuild.
+-- Usage: psql -h localhost -U postgres -f order_statistics.sql
+BEGIN;
+
+LOCK TABLE app_order IN SHARE ROW EXCLUSIVE MODE;
+
+CREATE TABLE IF NOT EXISTS user_stats (
+    id_user BIGINT PRIMARY KEY,
+    total_cost DECIMAL(12, 2) NOT NULL,
+
+    CONSTRAINT us_user_fk FOREIGN KEY (id_user) REFERENCES app_user (id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS user_tag_usage (
+    id_user BIGINT NOT NULL,
+    id_tag BIGINT NOT NULL,
+    usage_count BIGINT NOT NULL,
+
+    PRIMARY KEY (id_user, id_tag),
+    CONSTRAINT utu_user_fk FOREIGN KEY (id_user) REFERENCES app_user (id) ON DELETE CASCADE,
+    CONSTRAINT utu_tag_fk FOREIGN KEY (id_tag) REFERENCES tag (id) ON DELETE CASCADE
+);
+
+DELETE FROM user_tag_usage;
+DELETE FROM user_stats;
+
+ALTER TABLE user_stats ADD COLUMN IF NOT EXISTS order_count BIGINT NOT NULL;
+ALTER TABLE user_stats ADD COLUMN IF NOT EXISTS last_purchase_date TIMESTAMP NOT NULL;
+
+INSERT INTO user_stats (id_user, order_count, total_cost, last_purchase_date)
+SELECT id_user, COUNT(*), SUM(cost), MAX(purchase_date)
+FROM app_order
+GROUP BY id_user;
+
+INSERT INTO user_tag_usage (id_user, id_tag, usage_count)
+SELECT o.id_user, ct.id_tag, COUNT(*)
+FROM app_order AS o
+INNER JOIN certificate_order AS co ON co.id_order = o.id
+INNER JOIN certificate_tag AS ct ON ct.id_certificate = co.id_certificate
+GROUP BY o.id_user, ct.id_tag;
+
+-- indexes are built after the tables are filled
+DROP INDEX IF EXISTS user_stats_total_cost_idx;
+CREATE INDEX user_stats_total_cost_idx ON user_stats (total_cost, id_user);
+CREATE INDEX IF NOT EXISTS user_stats_order_count_idx ON user_stats (order_count, id_user);
+CREATE INDEX IF NOT EXISTS user_stats_last_purchase_date_idx ON user_stats (last_purchase_date, id_user);
+CREATE INDEX IF NOT EXISTS user_tag_usage_count_idx ON user_tag_usage (id_user, usage_count DESC, id_tag);
+
+COMMIT;
@@ -0,0 +1,21 @@
+-- Migrates a database created with BIGSERIAL ids to pooled sequence ids (see web/src/main/resources/schema.sql).
+-- BIGSERIAL columns already own sequences named <table>_id_seq, so only their increment has to match
+-- allocation size of entities (50) and their next value has to follow the greatest existing id.
+-- Usage: psql -h localhost -U postgres -f pooled_id_sequences.sql
+BEGIN;
+
+LOCK TABLE gift_certificate, tag, app_user, app_order, audit_table IN EXCLUSIVE MODE;
+
+ALTER SEQUENCE gift_certificate_id_seq INCREMENT BY 50;
+ALTER SEQUENCE tag_id_seq INCREMENT BY 50;
+ALTER SEQUENCE app_user_id_seq INCREMENT BY 50;
+ALTER SEQUENCE app_order_id_seq INCREMENT BY 50;
+ALTER SEQUENCE audit_table_id_seq INCREMENT BY 50;
+
+SELECT setval('gift_certificate_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM gift_certificate), false);
+SELECT setval('tag_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM tag), false);
+SELECT setval('app_user_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM app_user), false);
+SELECT setval('app_order_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM app_order), false);
+SELECT setval('audit_table_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM audit_table), false);
+
+COMMIT;
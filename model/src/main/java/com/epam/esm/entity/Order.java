@@ -1,10 +1,12 @@
 package com.epam.esm.entity;
 
 import com.epam.esm.entity.audit.AuditListener;
+import com.epam.esm.entity.audit.AuditedEntity;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
@@ -15,6 +17,7 @@ import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -25,9 +28,10 @@ import java.util.List;
 @Entity
 @Table(name = "app_order")
 @EntityListeners(AuditListener.class)
-public class Order {
+public class Order implements AuditedEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_order_id_generator")
+    @SequenceGenerator(name = "app_order_id_generator", sequenceName = "app_order_id_seq", allocationSize = 50)
     private long id;
 
     private BigDecimal cost;
@@ -39,7 +43,9 @@ public class Order {
     @EqualsAndHashCode.Exclude
     private User user;
 
+    // certificates of a whole page are loaded with one IN query, see GiftCertificate#tags
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(
             name = "certificate_order",
             joinColumns = @JoinColumn(name = "id_order"),
@@ -1,6 +1,8 @@
 package com.epam.esm.entity;
 
 import com.epam.esm.entity.audit.AuditListener;
+import com.epam.esm.entity.audit.AuditedEntity;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -10,16 +12,19 @@ import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
 @Data
 @NoArgsConstructor
+@AllArgsConstructor
 @Entity
 @Table(name = "tag")
 @EntityListeners(AuditListener.class)
-public class Tag {
+public class Tag implements AuditedEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_id_generator")
+    @SequenceGenerator(name = "tag_id_generator", sequenceName = "tag_id_seq", allocationSize = 50)
     private long id;
 
     @Column(unique = true)
@@ -1,8 +1,10 @@
 package com.epam.esm.entity;
 
 import com.epam.esm.entity.audit.AuditListener;
+import com.epam.esm.entity.audit.AuditedEntity;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 
@@ -11,9 +13,12 @@ import javax.persistence.*;
 @Entity
 @Table(name = "app_user")
 @EntityListeners(AuditListener.class)
-public class User {
+// users referenced by a page of orders are loaded in batches too
+@BatchSize(size = 50)
+public class User implements AuditedEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_user_id_generator")
+    @SequenceGenerator(name = "app_user_id_generator", sequenceName = "app_user_id_seq", allocationSize = 50)
     private long id;
 
     @Column(unique = true)
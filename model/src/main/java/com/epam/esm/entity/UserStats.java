@@ -0,0 +1,34 @@
+package com.epam.esm.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Aggregates of orders of a user, they are updated in the same transaction as orders are made.
+ * A row exists only for users that have made at least one order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_stats")
+public class UserStats {
+    @Id
+    @Column(name = "id_user")
+    private long userId;
+
+    private long orderCount;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal totalCost;
+
+    private LocalDateTime lastPurchaseDate;
+}
@@ -0,0 +1,42 @@
+package com.epam.esm.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+/**
+ * Amount of times certificates with a tag were ordered by a user (a certificate ordered several times is counted
+ * every time), it is updated in the same transaction as orders are made.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_tag_usage")
+@IdClass(UserTagUsage.Key.class)
+public class UserTagUsage {
+    @Id
+    @Column(name = "id_user")
+    private long userId;
+
+    @Id
+    @Column(name = "id_tag")
+    private long tagId;
+
+    private long usageCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private long userId;
+        private long tagId;
+    }
+}
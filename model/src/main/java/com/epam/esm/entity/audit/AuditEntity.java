@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 @Table(name = "audit_table")
 public class AuditEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_table_id_generator")
+    @SequenceGenerator(name = "audit_table_id_generator", sequenceName = "audit_table_id_seq", allocationSize = 50)
     private long id;
 
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,35 @@
+package com.epam.esm.entity.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight immutable record of a single write operation, created by {@link AuditListener} and written
+ * to storage asynchronously by {@link AuditEventSink} implementation.
+ *
+ * @author Dmitry Karnyshov
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class AuditEvent {
+    private final AuditEntity.Operation operation;
+    private final String entityName;
+    // id of changed entity, is not stored in audit_table
+    private final long entityId;
+    private final LocalDateTime timestamp;
+
+    public AuditEntity toEntity() {
+        AuditEntity auditEntity = new AuditEntity();
+        auditEntity.setOperation(operation);
+        auditEntity.setEntityName(entityName);
+        auditEntity.setTimestamp(timestamp);
+
+        return auditEntity;
+    }
+}
@@ -0,0 +1,17 @@
+package com.epam.esm.entity.audit;
+
+/**
+ * Destination of {@link AuditEvent} objects. Implementations must not block the caller for long,
+ * since events are published by the thread that has just committed entity changes
+ * (see {@link TransactionalAuditEvents}).
+ *
+ * @author Dmitry Karnyshov
+ */
+public interface AuditEventSink {
+    /**
+     * Accept event for writing.
+     *
+     * @param event {@link AuditEvent} object
+     */
+    void publish(AuditEvent event);
+}
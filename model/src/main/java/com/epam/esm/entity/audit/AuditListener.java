@@ -3,10 +3,7 @@ package com.epam.esm.entity.audit;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
-import javax.persistence.EntityManager;
 import javax.persistence.PostPersist;
 import javax.persistence.PostRemove;
 import javax.persistence.PostUpdate;
@@ -16,50 +13,41 @@ import java.time.LocalDateTime;
 import static com.epam.esm.entity.audit.AuditEntity.Operation.*;
 import static java.time.ZoneOffset.UTC;
 
-@Transactional(propagation = Propagation.REQUIRES_NEW)
 public class AuditListener {
     private static final Logger logger = LogManager.getLogger();
 
-    private static final String CREATED_MESSAGE = "ENTITY CREATED: %s";
-    private static final String UPDATED_MESSAGE = "ENTITY UPDATED: %s";
-    private static final String DELETED_MESSAGE = "ENTITY DELETED: %s";
+    private static final String CREATED_MESSAGE = "ENTITY CREATED: {}";
+    private static final String UPDATED_MESSAGE = "ENTITY UPDATED: {}";
+    private static final String DELETED_MESSAGE = "ENTITY DELETED: {}";
 
-    private EntityManager entityManager;
+    private AuditEventSink eventSink;
 
-    public AuditListener(@Lazy EntityManager entityManager) {
-        this.entityManager = entityManager;
+    public AuditListener(@Lazy AuditEventSink eventSink) {
+        this.eventSink = eventSink;
     }
 
     @PostPersist
     public void postPersist(Object entity) {
-        String auditMessage = String.format(CREATED_MESSAGE, entity);
-        logger.info(auditMessage);
-
-        createRecord(entity, CREATE);
+        logger.debug(CREATED_MESSAGE, entity);
+        publishEvent(entity, CREATE);
     }
 
     @PostUpdate
     public void postUpdate(Object entity) {
-        String auditMessage = String.format(UPDATED_MESSAGE, entity);
-        logger.info(auditMessage);
-
-        createRecord(entity, UPDATE);
+        logger.debug(UPDATED_MESSAGE, entity);
+        publishEvent(entity, UPDATE);
     }
 
     @PostRemove
     public void postRemove(Object entity) {
-        String auditMessage = String.format(DELETED_MESSAGE, entity);
-        logger.info(auditMessage);
-
-        createRecord(entity, DELETE);
+        logger.debug(DELETED_MESSAGE, entity);
+        publishEvent(entity, DELETE);
     }
 
-    private void createRecord(Object entity, AuditEntity.Operation operation) {
-        AuditEntity auditEntity = new AuditEntity();
-        auditEntity.setEntityName(entity.getClass().getSimpleName());
-        auditEntity.setTimestamp(LocalDateTime.now(UTC));
-        auditEntity.setOperation(operation);
-
-        entityManager.persist(auditEntity);
+    private void publishEvent(Object entity, AuditEntity.Operation operation) {
+        // listeners are called on flush, events are handed to the background writer only after commit
+        long entityId = entity instanceof AuditedEntity auditedEntity ? auditedEntity.getId() : 0;
+        TransactionalAuditEvents.publish(eventSink, new AuditEvent(operation, entity.getClass().getSimpleName(),
+                entityId, LocalDateTime.now(UTC)));
     }
 }
@@ -0,0 +1,47 @@
+package com.epam.esm.entity.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Daily counter of audit events of one entity type and operation. Rollups outlive raw rows of {@code audit_table},
+ * which are removed after retention period.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "audit_rollup")
+@IdClass(AuditRollup.Key.class)
+public class AuditRollup {
+    @Id
+    private LocalDate eventDate;
+
+    @Id
+    private String entityName;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private AuditEntity.Operation operation;
+
+    private long eventCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate eventDate;
+        private String entityName;
+        private AuditEntity.Operation operation;
+    }
+}
@@ -0,0 +1,10 @@
+package com.epam.esm.entity.audit;
+
+/**
+ * Entity which changes are recorded by {@link AuditListener}.
+ *
+ * @author Dmitry Karnyshov
+ */
+public interface AuditedEntity {
+    long getId();
+}
@@ -0,0 +1,75 @@
+package com.epam.esm.entity.audit;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes {@link AuditEvent} objects to {@link AuditEventSink} only after the current transaction commits,
+ * so changes that are rolled back are never audited.
+ *
+ * Events of a transaction are kept in its synchronization and published in the order they were raised,
+ * events raised outside a transaction are published at once.
+ *
+ * @author Dmitry Karnyshov
+ */
+public final class TransactionalAuditEvents {
+    private static final Object RESOURCE_KEY = new Object();
+
+    private TransactionalAuditEvents() {
+    }
+
+    /**
+     * Publish the event after commit of the current transaction.
+     *
+     * @param eventSink {@link AuditEventSink} object
+     * @param event {@link AuditEvent} object
+     */
+    public static void publish(AuditEventSink eventSink, AuditEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventSink.publish(event);
+            return;
+        }
+
+        PendingEvents pendingEvents = (PendingEvents) TransactionSynchronizationManager.getResource(RESOURCE_KEY);
+
+        if (pendingEvents == null) {
+            pendingEvents = new PendingEvents();
+            TransactionSynchronizationManager.bindResource(RESOURCE_KEY, pendingEvents);
+            TransactionSynchronizationManager.registerSynchronization(pendingEvents);
+        }
+
+        pendingEvents.add(eventSink, event);
+    }
+
+    private static final class PendingEvents implements TransactionSynchronization {
+        private final List<Runnable> publications = new ArrayList<>();
+
+        void add(AuditEventSink eventSink, AuditEvent event) {
+            publications.add(() -> eventSink.publish(event));
+        }
+
+        // events of a suspended transaction are not mixed with events of the inner one
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(RESOURCE_KEY);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(RESOURCE_KEY, this);
+        }
+
+        @Override
+        public void afterCommit() {
+            publications.forEach(Runnable::run);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+        }
+    }
+}
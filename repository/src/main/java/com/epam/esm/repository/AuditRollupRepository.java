@@ -0,0 +1,22 @@
+package com.epam.esm.repository;
+
+import com.epam.esm.entity.audit.AuditRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AuditRollupRepository extends JpaRepository<AuditRollup, AuditRollup.Key>,
+        AuditRollupRepositoryCustom {
+    String SELECT_BY_DATE_RANGE = "SELECT r FROM AuditRollup r WHERE r.eventDate >= :from AND r.eventDate < :to";
+    String ORDER_BY_KEY = " ORDER BY r.eventDate, r.entityName, r.operation";
+
+    @Query(SELECT_BY_DATE_RANGE + ORDER_BY_KEY)
+    List<AuditRollup> findByDateRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(SELECT_BY_DATE_RANGE + " AND r.entityName = :entityName" + ORDER_BY_KEY)
+    List<AuditRollup> findByDateRangeAndEntityName(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("entityName") String entityName);
+}
@@ -0,0 +1,42 @@
+package com.epam.esm.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maintenance operations of {@code audit_table} and its daily rollups. In PostgreSQL {@code audit_table}
+ * is partitioned by day (see schema-postgresql.sql), so raw events of a day are removed by dropping its partition.
+ * In other databases the table is not partitioned and raw events are deleted.
+ */
+public interface AuditRollupRepositoryCustom {
+    /**
+     * Replace rollups of the day with counters of its raw events, grouped by entity name and operation.
+     * Calling it again for the same day recounts the rollups, so events written late are not lost.
+     *
+     * @param day day (UTC) to roll up
+     */
+    void rollUp(LocalDate day);
+
+    /**
+     * Create partition of {@code audit_table} for the day if it does not exist yet (does nothing
+     * if the table is not partitioned).
+     *
+     * @param day day (UTC) of the partition
+     */
+    void createPartition(LocalDate day);
+
+    /**
+     * Retrieve days before the specified one that still have raw events (or partitions).
+     *
+     * @param before first day (UTC) that is not retrieved
+     * @return sorted list of days
+     */
+    List<LocalDate> findRawEventDays(LocalDate before);
+
+    /**
+     * Remove raw events of the day, dropping its partition if the table is partitioned.
+     *
+     * @param day day (UTC) of events
+     */
+    void deleteRawEvents(LocalDate day);
+}
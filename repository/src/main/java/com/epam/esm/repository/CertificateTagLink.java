@@ -0,0 +1,9 @@
+package com.epam.esm.repository;
+
+/**
+ * Projection of a single row of {@code certificate_tag} table with resolved tag name.
+ */
+public interface CertificateTagLink {
+    long getCertificateId();
+    String getTagName();
+}
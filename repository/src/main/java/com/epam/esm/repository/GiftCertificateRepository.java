@@ -1,10 +1,43 @@
 package com.epam.esm.repository;
 
 import com.epam.esm.entity.GiftCertificate;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface GiftCertificateRepository extends JpaRepository<GiftCertificate, Long>,
-        JpaSpecificationExecutor<GiftCertificate> {
+        JpaSpecificationExecutor<GiftCertificate>, GiftCertificateRepositoryCustom {
+    // single certificate is loaded together with its tags in one query
+    @Override
+    @EntityGraph(attributePaths = "tags")
+    Optional<GiftCertificate> findById(Long id);
+
+    @Query("SELECT c.id AS certificateId, t.name AS tagName FROM GiftCertificate c JOIN c.tags t")
+    List<CertificateTagLink> findAllTagLinks();
+
+    @Query("SELECT c.id AS certificateId, t.name AS tagName FROM GiftCertificate c JOIN c.tags t WHERE c.id IN :ids")
+    List<CertificateTagLink> findTagLinksByCertificateIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.id AS certificateId, t.name AS tagName FROM GiftCertificate c JOIN c.tags t "
+            + "WHERE t.name = :tagName")
+    List<CertificateTagLink> findTagLinksByTagName(@Param("tagName") String tagName);
+
+    // validators of conditional requests are checked without loading the certificate and its tags
+    @Query("SELECT c.lastUpdateDate FROM GiftCertificate c WHERE c.id = :id")
+    Optional<LocalDateTime> findLastUpdateDateById(@Param("id") long id);
 
+    // links to a deleted tag are deleted by the database, so certificates having the tag are updated explicitly
+    @Modifying
+    @Query("UPDATE GiftCertificate c SET c.lastUpdateDate = :lastUpdateDate WHERE c.id IN "
+            + "(SELECT tc.id FROM GiftCertificate tc JOIN tc.tags t WHERE t.id = :tagId)")
+    int updateLastUpdateDateByTagId(@Param("tagId") long tagId,
+                @Param("lastUpdateDate") LocalDateTime lastUpdateDate);
 }
@@ -0,0 +1,52 @@
+package com.epam.esm.repository;
+
+import com.epam.esm.entity.GiftCertificate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface GiftCertificateRepositoryCustom {
+    /**
+     * Retrieve a range of certificates matching the specification without issuing a COUNT query.
+     *
+     * @param specification search specification (may define ordering)
+     * @param offset number of rows to skip
+     * @param limit maximum number of rows to retrieve
+     * @return list of {@link GiftCertificate} objects
+     */
+    List<GiftCertificate> findRange(Specification<GiftCertificate> specification, long offset, int limit);
+
+    /**
+     * Retrieve a range of certificates matching the specification as read-only views.
+     * Only columns are selected, no entities are loaded into persistence context. Tag names of all
+     * retrieved certificates are aggregated by the database with one additional query.
+     *
+     * @param specification search specification (may define ordering)
+     * @param offset number of rows to skip
+     * @param limit maximum number of rows to retrieve
+     * @return list of {@link GiftCertificateView} objects
+     */
+    List<GiftCertificateView> findViewRange(Specification<GiftCertificate> specification, long offset, int limit);
+
+    /**
+     * Read all certificates matching the specification as read-only views through a database cursor.
+     * Views are passed to the consumer in chunks of at most {@code fetchSize} elements, so memory consumption
+     * does not depend on the size of result. Must be called inside of a transaction.
+     *
+     * @param specification search specification (may define ordering)
+     * @param fetchSize number of rows fetched from the database at once
+     * @param chunkConsumer consumer of {@link GiftCertificateView} chunks
+     */
+    void streamViews(Specification<GiftCertificate> specification, int fetchSize,
+            Consumer<List<GiftCertificateView>> chunkConsumer);
+
+    /**
+     * Insert new certificates together with links to their tags using JDBC batches, bypassing persistence context.
+     * Generated ids are assigned to passed objects. Tags of certificates must already exist in the database.
+     * Audit records are written in the same way, since entity listeners are not invoked for batched rows.
+     *
+     * @param certificates list of new {@link GiftCertificate} objects
+     */
+    void insertAll(List<GiftCertificate> certificates);
+}
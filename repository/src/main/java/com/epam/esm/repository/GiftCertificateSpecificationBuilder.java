@@ -5,11 +5,15 @@ import com.epam.esm.entity.Tag;
 import org.springframework.data.jpa.domain.Specification;
 
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class GiftCertificateSpecificationBuilder {
@@ -25,6 +29,10 @@ public class GiftCertificateSpecificationBuilder {
 
     private Specification<GiftCertificate> composedSpecification;
 
+    // the last applied ordering wins, keyset pagination has to seek on the same attribute
+    private String orderingAttribute;
+    private OrderingType orderingType;
+
     public GiftCertificateSpecificationBuilder() {
         composedSpecification = Specification.where(null);
     }
@@ -34,16 +42,26 @@ public class GiftCertificateSpecificationBuilder {
     }
 
     public GiftCertificateSpecificationBuilder certificateName(String certificateName) {
+        return certificateName(certificateName, false);
+    }
+
+    public GiftCertificateSpecificationBuilder certificateName(String certificateName, boolean ignoreCase) {
         if (certificateName != null) {
-            composedSpecification = composedSpecification.and(byCertificateName(certificateName));
+            composedSpecification = composedSpecification.and(byCertificateName(certificateName, ignoreCase));
         }
 
         return this;
     }
 
     public GiftCertificateSpecificationBuilder certificateDescription(String certificateDescription) {
+        return certificateDescription(certificateDescription, false);
+    }
+
+    public GiftCertificateSpecificationBuilder certificateDescription(String certificateDescription,
+                boolean ignoreCase) {
         if (certificateDescription != null) {
-            composedSpecification = composedSpecification.and(byCertificateDescription(certificateDescription));
+            composedSpecification = composedSpecification.and(byCertificateDescription(certificateDescription,
+                    ignoreCase));
         }
 
         return this;
@@ -57,9 +75,18 @@ public class GiftCertificateSpecificationBuilder {
         return this;
     }
 
+    public GiftCertificateSpecificationBuilder certificateIds(Collection<Long> certificateIds) {
+        if (certificateIds != null) {
+            composedSpecification = composedSpecification.and(byIds(certificateIds));
+        }
+
+        return this;
+    }
+
     public GiftCertificateSpecificationBuilder orderByCertificateName(OrderingType orderingType) {
         if (orderingType != null) {
             composedSpecification = composedSpecification.and(orderBy(orderingType, NAME));
+            rememberOrdering(orderingType, NAME);
         }
 
         return this;
@@ -68,19 +95,47 @@ public class GiftCertificateSpecificationBuilder {
     public GiftCertificateSpecificationBuilder orderByCreateDate(OrderingType orderingType) {
         if (orderingType != null) {
             composedSpecification = composedSpecification.and(orderBy(orderingType, CREATE_DATE));
+            rememberOrdering(orderingType, CREATE_DATE);
+        }
+
+        return this;
+    }
+
+    /**
+     * Seek rows after (or before) the specified keyset position. Must be applied after ordering methods:
+     * it replaces the ordering with the active sort attribute followed by id as a unique tie-breaker.
+     *
+     * @param keyset {@link Keyset} position, {@link Keyset#first()} for the first page
+     * @return this builder
+     */
+    public GiftCertificateSpecificationBuilder keyset(Keyset keyset) {
+        if (keyset != null) {
+            composedSpecification = composedSpecification.and(bySeek(keyset, orderingAttribute, orderingType));
         }
 
         return this;
     }
 
-    private Specification<GiftCertificate> byCertificateName(String certificateName) {
+    private void rememberOrdering(OrderingType orderingType, String attributeName) {
+        this.orderingType = orderingType;
+        this.orderingAttribute = attributeName;
+    }
+
+    private Specification<GiftCertificate> byCertificateName(String certificateName, boolean ignoreCase) {
         return (certificateRoot, criteriaQuery, criteriaBuilder) ->
-                createPartialStringPredicate(certificateName, NAME, criteriaBuilder, certificateRoot);
+                createPartialStringPredicate(certificateName, NAME, ignoreCase, criteriaBuilder, certificateRoot);
     }
 
-    private Specification<GiftCertificate> byCertificateDescription(String description) {
+    private Specification<GiftCertificate> byCertificateDescription(String description, boolean ignoreCase) {
         return (certificateRoot, criteriaQuery, criteriaBuilder) ->
-                createPartialStringPredicate(description, DESCRIPTION, criteriaBuilder, certificateRoot);
+                createPartialStringPredicate(description, DESCRIPTION, ignoreCase, criteriaBuilder, certificateRoot);
+    }
+
+    private Specification<GiftCertificate> byIds(Collection<Long> certificateIds) {
+        return (certificateRoot, criteriaQuery, criteriaBuilder) -> !certificateIds.isEmpty()
+                ? certificateRoot.get(ID).in(certificateIds)
+                // empty IN clause is not valid SQL
+                : criteriaBuilder.disjunction();
     }
 
     private Specification<GiftCertificate> byTagNames(List<String> tagNames) {
@@ -89,8 +144,7 @@ public class GiftCertificateSpecificationBuilder {
             Join<GiftCertificate, Tag> join = certificateRoot.join(TAGS, JoinType.LEFT);
             Predicate inPredicate = join.get(NAME).in(tagNames);
 
-            criteriaQuery = criteriaQuery.distinct(true)
-                    .where(inPredicate)
+            criteriaQuery.distinct(true)
                     // group records by certificates
                     // we need all columns without aggregation function to be in GROUP BY clause
                     .groupBy(
@@ -110,8 +164,8 @@ public class GiftCertificateSpecificationBuilder {
                             )
                     );
 
-            return Specification.<GiftCertificate>where(null)
-                    .toPredicate(certificateRoot, criteriaQuery, criteriaBuilder);
+            // returned instead of being set via where() so it is not overwritten by other composed predicates
+            return inPredicate;
         };
     }
 
@@ -126,10 +180,69 @@ public class GiftCertificateSpecificationBuilder {
         };
     }
 
-    private Predicate createPartialStringPredicate(String initialString, String attributeName,
+    private Specification<GiftCertificate> bySeek(Keyset keyset, String attributeName, OrderingType orderingType) {
+        return (certificateRoot, criteriaQuery, criteriaBuilder) -> {
+            // scrolling backward reads rows in reversed order, they are reversed back by the caller
+            boolean ascending = (orderingType != OrderingType.DESC) ^ keyset.isBackward();
+            Path<Long> idPath = certificateRoot.get(ID);
+            List<Order> orders = new ArrayList<>();
+
+            if (attributeName != null) {
+                Path<?> sortPath = certificateRoot.get(attributeName);
+                orders.add(ascending ? criteriaBuilder.asc(sortPath) : criteriaBuilder.desc(sortPath));
+            }
+
+            orders.add(ascending ? criteriaBuilder.asc(idPath) : criteriaBuilder.desc(idPath));
+            criteriaQuery.orderBy(orders);
+
+            if (keyset.isFirst()) {
+                return null;
+            }
+
+            Predicate idPredicate = ascending
+                    ? criteriaBuilder.greaterThan(idPath, keyset.getId())
+                    : criteriaBuilder.lessThan(idPath, keyset.getId());
+
+            if (attributeName == null) {
+                return idPredicate;
+            }
+
+            // (sort, id) > (:sort, :id) expanded to sort > :sort OR (sort = :sort AND id > :id)
+            Path<Comparable<Object>> sortPath = certificateRoot.get(attributeName);
+            Comparable<Object> sortValue = castSortValue(keyset.getSortValue());
+            Predicate sortPredicate = ascending
+                    ? criteriaBuilder.greaterThan(sortPath, sortValue)
+                    : criteriaBuilder.lessThan(sortPath, sortValue);
+
+            return criteriaBuilder.or(
+                    sortPredicate,
+                    criteriaBuilder.and(criteriaBuilder.equal(sortPath, sortValue), idPredicate)
+            );
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private Comparable<Object> castSortValue(Comparable<?> sortValue) {
+        return (Comparable<Object>) sortValue;
+    }
+
+    /*
+     * LIKE '%x%' can not use a B-tree index. On PostgreSQL it is served by pg_trgm GIN indexes
+     * (see schema-postgresql.sql): on the column itself for case-sensitive search and on lower(column)
+     * for case-insensitive one, so the expressions here must match indexed ones exactly.
+     * Other databases (e.g. H2 in development profile) evaluate the same predicates without those indexes.
+     */
+    private Predicate createPartialStringPredicate(String initialString, String attributeName, boolean ignoreCase,
                 CriteriaBuilder criteriaBuilder, Root<GiftCertificate> certificateRoot) {
-        String partialName = String.format(PARTIAL_STRING, initialString);
-        return criteriaBuilder.like(certificateRoot.get(attributeName),
-                partialName);
+        Expression<String> attribute = certificateRoot.get(attributeName);
+        String partialString = String.format(PARTIAL_STRING, initialString);
+
+        if (ignoreCase) {
+            // pattern is lowered by the database too, so both sides follow the same collation rules
+            Expression<String> pattern = criteriaBuilder.literal(partialString);
+            return criteriaBuilder.like(criteriaBuilder.lower(attribute), criteriaBuilder.lower(pattern));
+        }
+
+        return criteriaBuilder.like(attribute, partialString);
     }
 }
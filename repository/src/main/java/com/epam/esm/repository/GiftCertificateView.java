@@ -0,0 +1,26 @@
+package com.epam.esm.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read-only row of {@code gift_certificate} table with aggregated tag names. It is not a managed entity,
+ * so Hibernate neither tracks nor snapshots it.
+ */
+@Getter
+@AllArgsConstructor
+public class GiftCertificateView {
+    private long id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private Duration duration;
+    private LocalDateTime createDate;
+    private LocalDateTime lastUpdateDate;
+    private List<String> tagNames;
+}
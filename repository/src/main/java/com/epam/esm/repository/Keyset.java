@@ -0,0 +1,25 @@
+package com.epam.esm.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Position in a keyset (seek) paginated result. Rows are sought strictly after (or before, when scrolling
+ * backward) the row identified by sort value and id, so the database never reads skipped rows.
+ */
+@Getter
+@AllArgsConstructor
+public class Keyset {
+    // null on the first page or when rows are ordered by id only
+    private final Comparable<?> sortValue;
+    private final Long id;
+    private final boolean backward;
+
+    public static Keyset first() {
+        return new Keyset(null, null, false);
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.epam.esm.repository;
+
+/**
+ * Projection of a single row of {@code certificate_order} table.
+ */
+public interface OrderCertificateLink {
+    long getOrderId();
+    long getCertificateId();
+}
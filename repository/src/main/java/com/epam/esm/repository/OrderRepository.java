@@ -3,11 +3,48 @@ package com.epam.esm.repository;
 import com.epam.esm.entity.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    @Query("FROM Order o WHERE o.user.id = :userId")
-    Page<Order> findByUserId(@Param("userId") long userId, Pageable pageable);
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+    String SELECT_VIEWS = "SELECT o.id AS id, o.cost AS cost, o.purchaseDate AS purchaseDate, o.user.id AS userId "
+            + "FROM Order o";
+
+    // single order is loaded together with its certificates in one query
+    @Override
+    @EntityGraph(attributePaths = "certificates")
+    Optional<Order> findById(Long id);
+
+    // list queries return projections instead of managed entities, certificate ids are loaded separately
+    @Query(value = SELECT_VIEWS, countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<OrderView> findAllViews(Pageable pageable);
+
+    @Query(value = SELECT_VIEWS + " WHERE o.user.id = :userId",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId")
+    Page<OrderView> findViewsByUserId(@Param("userId") long userId, Pageable pageable);
+
+    // keyset pagination: pageable is expected to carry only a limit and ordering by id
+    @Query(SELECT_VIEWS + " WHERE o.id > :id")
+    List<OrderView> findViewsByIdGreaterThan(@Param("id") long id, Pageable pageable);
+
+    @Query(SELECT_VIEWS + " WHERE o.id < :id")
+    List<OrderView> findViewsByIdLessThan(@Param("id") long id, Pageable pageable);
+
+    @Query(SELECT_VIEWS + " WHERE o.user.id = :userId AND o.id > :id")
+    List<OrderView> findViewsByUserIdAndIdGreaterThan(@Param("userId") long userId, @Param("id") long id,
+            Pageable pageable);
+
+    @Query(SELECT_VIEWS + " WHERE o.user.id = :userId AND o.id < :id")
+    List<OrderView> findViewsByUserIdAndIdLessThan(@Param("userId") long userId, @Param("id") long id,
+            Pageable pageable);
+
+    @Query("SELECT o.id AS orderId, c.id AS certificateId FROM Order o JOIN o.certificates c "
+            + "WHERE o.id IN :orderIds")
+    List<OrderCertificateLink> findCertificateLinks(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -0,0 +1,45 @@
+package com.epam.esm.repository;
+
+import com.epam.esm.entity.Order;
+
+import java.util.Collection;
+
+/**
+ * Maintenance of order aggregates ({@code user_stats} and {@code user_tag_usage} tables).
+ */
+public interface OrderRepositoryCustom {
+    /**
+     * Add new orders to aggregates of their users. Must be called in the transaction that makes the orders,
+     * so aggregates are committed (or rolled back) together with them. Pending inserts of the persistence context
+     * are flushed first.
+     * Tags of ordered certificates are retrieved with one query, aggregates are updated with two batched upserts.
+     *
+     * @param orders orders that are made in current transaction
+     */
+    void addToStatistics(Collection<Order> orders);
+
+    /**
+     * Subtract orders of the certificate from tag usage of their users, as if the certificate had no tags.
+     * Must be called before tags of the certificate are changed or the certificate is deleted,
+     * in the same transaction. Pending changes of the persistence context are flushed first.
+     *
+     * @param certificateId certificate id
+     */
+    void removeCertificateFromStatistics(long certificateId);
+
+    /**
+     * Add orders of the certificate to tag usage of their users with the tags the certificate has now.
+     * Must be called after tags of the certificate are changed, in the same transaction.
+     * Pending changes of the persistence context are flushed first.
+     *
+     * @param certificateId certificate id
+     */
+    void addCertificateToStatistics(long certificateId);
+
+    /**
+     * Recompute aggregates of all users from orders. Orders cannot be made while aggregates are rebuilt.
+     * Tags of certificates are taken as they are now, the same way as incremental updates do. Rebuild is only needed
+     * for aggregates that drifted, e.g. when an order was made concurrently with a change of tags of its certificate.
+     */
+    void rebuildStatistics();
+}
@@ -0,0 +1,14 @@
+package com.epam.esm.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a single row of {@code app_order} table.
+ */
+public interface OrderView {
+    long getId();
+    BigDecimal getCost();
+    LocalDateTime getPurchaseDate();
+    long getUserId();
+}
@@ -1,14 +1,29 @@
 package com.epam.esm.repository;
 
 import com.epam.esm.entity.Tag;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface TagRepository extends JpaRepository<Tag, Long> {
+public interface TagRepository extends JpaRepository<Tag, Long>, TagRepositoryCustom {
     Optional<Tag> findByName(String name);
 
+    List<Tag> findByNameIn(Collection<String> names);
+
+    // ids taken from the tag dictionary are checked with one IN query before join rows are written
+    @Query("SELECT t.id FROM Tag t WHERE t.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // keyset pagination: pageable is expected to carry only a limit and ordering by id
+    List<Tag> findByIdGreaterThan(long id, Pageable pageable);
+
+    List<Tag> findByIdLessThan(long id, Pageable pageable);
+
     @Query(value = """
         SELECT t.id, t.name
         FROM app_user AS u
@@ -30,4 +45,22 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
         LIMIT 1;
     """, nativeQuery = true)
     Optional<Tag> findMostWidelyUsedTag();
+
+    // the same result as of findMostWidelyUsedTag, read from order aggregates with two index lookups;
+    // ties are broken by the highest user id and then by the lowest tag id, findMostWidelyUsedTag breaks them
+    // arbitrarily
+    @Query(value = """
+        SELECT t.id, t.name
+        FROM user_tag_usage AS utu
+        INNER JOIN tag AS t ON t.id = utu.id_tag
+        WHERE utu.id_user = (
+            SELECT id_user
+            FROM user_stats
+            ORDER BY total_cost DESC, id_user DESC
+            LIMIT 1
+        )
+        ORDER BY utu.usage_count DESC, utu.id_tag
+        LIMIT 1;
+    """, nativeQuery = true)
+    Optional<Tag> findMostWidelyUsedTagByStatistics();
 }
@@ -0,0 +1,19 @@
+package com.epam.esm.repository;
+
+import com.epam.esm.entity.Tag;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TagRepositoryCustom {
+    /**
+     * Retrieve tags with the specified names, creating missing ones.
+     * Existing tags are retrieved with one IN query, missing ones are inserted with one batched upsert
+     * and retrieved with another IN query. Tags created concurrently by other transactions are not inserted
+     * twice, so unique constraint of tag name is never violated.
+     *
+     * @param tagNames names of tags
+     * @return list of managed {@link Tag} objects in no particular order
+     */
+    List<Tag> findOrCreateAllByName(Collection<String> tagNames);
+}
@@ -1,10 +1,21 @@
 package com.epam.esm.repository;
 
 import com.epam.esm.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    // list queries select only projected columns instead of managed entities
+    Page<UserView> findViewsBy(Pageable pageable);
+
+    // keyset pagination: pageable is expected to carry only a limit and ordering by id
+    List<UserView> findViewsByIdGreaterThan(long id, Pageable pageable);
+
+    List<UserView> findViewsByIdLessThan(long id, Pageable pageable);
 }
@@ -0,0 +1,7 @@
+package com.epam.esm.repository;
+
+import com.epam.esm.entity.UserStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface UserStatsRepository extends JpaRepository<UserStats, Long>, UserStatsRepositoryCustom {
+}
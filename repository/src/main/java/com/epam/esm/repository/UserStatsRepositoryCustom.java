@@ -0,0 +1,18 @@
+package com.epam.esm.repository;
+
+import java.util.List;
+
+public interface UserStatsRepositoryCustom {
+    /**
+     * Retrieve a range of user statistics with keyset pagination. Rows are ordered by the sort attribute
+     * and user id, so the range starts right after (or before, when scrolling backward) the keyset row.
+     * When scrolling backward rows are returned in reversed order.
+     *
+     * @param sortType attribute to order rows by
+     * @param orderingType ordering direction
+     * @param keyset position to seek from, its sort value must be of the sort attribute type
+     * @param limit maximum number of rows to retrieve
+     * @return list of {@link UserStatsView} objects
+     */
+    List<UserStatsView> findViewRange(UserStatsSortType sortType, OrderingType orderingType, Keyset keyset, int limit);
+}
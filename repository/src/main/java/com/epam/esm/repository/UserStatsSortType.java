@@ -0,0 +1,21 @@
+package com.epam.esm.repository;
+
+/**
+ * Attributes of {@link com.epam.esm.entity.UserStats} that user statistics can be ordered by.
+ * Each of them has an index together with user id, so keyset pagination seeks instead of sorting.
+ */
+public enum UserStatsSortType {
+    TOTAL_COST("totalCost"),
+    ORDER_COUNT("orderCount"),
+    LAST_PURCHASE_DATE("lastPurchaseDate");
+
+    private final String attributeName;
+
+    UserStatsSortType(String attributeName) {
+        this.attributeName = attributeName;
+    }
+
+    public String getAttributeName() {
+        return attributeName;
+    }
+}
@@ -0,0 +1,21 @@
+package com.epam.esm.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of {@code user_stats} table with name of the user. It is not a managed entity,
+ * so Hibernate neither tracks nor snapshots it.
+ */
+@Getter
+@AllArgsConstructor
+public class UserStatsView {
+    private long userId;
+    private String username;
+    private long orderCount;
+    private BigDecimal totalCost;
+    private LocalDateTime lastPurchaseDate;
+}
@@ -0,0 +1,12 @@
+package com.epam.esm.repository;
+
+import com.epam.esm.entity.User;
+
+/**
+ * Read-only projection of a single row of {@code app_user} table without password hash.
+ */
+public interface UserView {
+    long getId();
+    String getUsername();
+    User.Role getRole();
+}
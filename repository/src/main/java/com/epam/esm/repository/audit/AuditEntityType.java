@@ -0,0 +1,49 @@
+package com.epam.esm.repository.audit;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Types of audited entities with their ids in {@link MappedAuditLog} records.
+ * Ids are stored on disk, so existing values must never be changed.
+ *
+ * @author Dmitry Karnyshov
+ */
+enum AuditEntityType {
+    UNKNOWN(0, "Unknown"),
+    GIFT_CERTIFICATE(1, "GiftCertificate"),
+    TAG(2, "Tag"),
+    ORDER(3, "Order"),
+    USER(4, "User");
+
+    // ids are equal to ordinals
+    private static final AuditEntityType[] typesById = values();
+    private static final Map<String, AuditEntityType> typesByName = Arrays.stream(values())
+            .collect(Collectors.toMap(AuditEntityType::getEntityName, Function.identity()));
+
+    private final byte id;
+    private final String entityName;
+
+    AuditEntityType(int id, String entityName) {
+        this.id = (byte) id;
+        this.entityName = entityName;
+    }
+
+    static AuditEntityType fromEntityName(String entityName) {
+        return typesByName.getOrDefault(entityName, UNKNOWN);
+    }
+
+    static AuditEntityType fromId(byte id) {
+        return id >= 0 && id < typesById.length ? typesById[id] : UNKNOWN;
+    }
+
+    byte getId() {
+        return id;
+    }
+
+    String getEntityName() {
+        return entityName;
+    }
+}
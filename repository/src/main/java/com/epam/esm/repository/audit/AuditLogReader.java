@@ -0,0 +1,23 @@
+package com.epam.esm.repository.audit;
+
+import com.epam.esm.entity.audit.AuditEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read access to audit events stored outside of {@code audit_table}.
+ *
+ * @author Dmitry Karnyshov
+ */
+public interface AuditLogReader {
+    /**
+     * Retrieve events which timestamps fit into time range, in the order they were written.
+     *
+     * @param from start of time range (inclusive)
+     * @param to end of time range (exclusive)
+     * @param limit max amount of events
+     * @return list of {@link AuditEvent} objects
+     */
+    List<AuditEvent> read(LocalDateTime from, LocalDateTime to, int limit);
+}
@@ -0,0 +1,169 @@
+package com.epam.esm.repository.audit;
+
+import com.epam.esm.entity.audit.AuditEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static java.time.ZoneOffset.UTC;
+
+/**
+ * Single memory-mapped file of {@link MappedAuditLog}.
+ *
+ * Layout: a header with min and max timestamps of records (epoch millis, 0 while segment is empty),
+ * followed by fixed-width records: operation code (1 byte, see {@link AuditOperationType}), entity type id
+ * (1 byte, see {@link AuditEntityType}), entity id (8 bytes) and timestamp (8 bytes, epoch millis).
+ * Operation is written last, so a record torn by a crash is treated as the end of the segment.
+ *
+ * @author Dmitry Karnyshov
+ */
+final class AuditLogSegment {
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 18;
+
+    private static final int MIN_TIMESTAMP_OFFSET = 0;
+    private static final int MAX_TIMESTAMP_OFFSET = 8;
+    private static final int ENTITY_TYPE_OFFSET = 1;
+    private static final int ENTITY_ID_OFFSET = 2;
+    private static final int TIMESTAMP_OFFSET = 10;
+    private static final byte END_MARKER = 0;
+
+    private final long sequence;
+    private final MappedByteBuffer buffer;
+    private final int recordCapacity;
+    private int recordCount;
+
+    private AuditLogSegment(long sequence, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.buffer = buffer;
+        this.recordCapacity = (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE;
+        this.recordCount = findRecordCount();
+    }
+
+    /**
+     * Map segment file for writing, the file is created (or extended) to the specified size.
+     */
+    static AuditLogSegment openWritable(Path path, long sequence, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // mapping stays valid after the channel is closed
+            return new AuditLogSegment(sequence, channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(size, channel.size())));
+        }
+    }
+
+    static AuditLogSegment openReadOnly(Path path, long sequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new AuditLogSegment(sequence, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Append record to the segment. Must not be called concurrently.
+     *
+     * @return {@code false} if segment is full
+     */
+    boolean append(AuditEvent event) {
+        if (recordCount == recordCapacity) {
+            return false;
+        }
+
+        long timestamp = toEpochMillis(event.getTimestamp());
+        int offset = HEADER_SIZE + recordCount * RECORD_SIZE;
+
+        buffer.put(offset + ENTITY_TYPE_OFFSET, AuditEntityType.fromEntityName(event.getEntityName()).getId());
+        buffer.putLong(offset + ENTITY_ID_OFFSET, event.getEntityId());
+        buffer.putLong(offset + TIMESTAMP_OFFSET, timestamp);
+        buffer.put(offset, AuditOperationType.fromOperation(event.getOperation()).getCode());
+
+        // events of concurrent transactions may come slightly out of order
+        if (recordCount == 0 || timestamp < buffer.getLong(MIN_TIMESTAMP_OFFSET)) {
+            buffer.putLong(MIN_TIMESTAMP_OFFSET, timestamp);
+        }
+
+        if (timestamp > buffer.getLong(MAX_TIMESTAMP_OFFSET)) {
+            buffer.putLong(MAX_TIMESTAMP_OFFSET, timestamp);
+        }
+
+        recordCount++;
+        return true;
+    }
+
+    /**
+     * Add events of the first {@code count} records that fit into time range to the list.
+     *
+     * @param from start of time range (inclusive)
+     * @param to end of time range (exclusive)
+     * @param count amount of records to scan
+     * @param limit max size of the list
+     * @param target list to add events to
+     */
+    void scan(LocalDateTime from, LocalDateTime to, int count, int limit, List<AuditEvent> target) {
+        long fromMillis = toEpochMillis(from);
+        long toMillis = toEpochMillis(to);
+
+        if (count == 0 || buffer.getLong(MAX_TIMESTAMP_OFFSET) < fromMillis
+                || buffer.getLong(MIN_TIMESTAMP_OFFSET) >= toMillis) {
+            return;
+        }
+
+        // the shared buffer of active segment is not repositioned by concurrent readers
+        ByteBuffer records = buffer.duplicate();
+
+        for (int i = 0; i < count && target.size() < limit; i++) {
+            int offset = HEADER_SIZE + i * RECORD_SIZE;
+            long timestamp = records.getLong(offset + TIMESTAMP_OFFSET);
+            Optional<AuditOperationType> operationType = AuditOperationType.fromCode(records.get(offset));
+
+            // records of operations unknown to this version are skipped
+            if (timestamp >= fromMillis && timestamp < toMillis && operationType.isPresent()) {
+                AuditEntityType entityType = AuditEntityType.fromId(records.get(offset + ENTITY_TYPE_OFFSET));
+                target.add(new AuditEvent(operationType.get().getOperation(), entityType.getEntityName(),
+                        records.getLong(offset + ENTITY_ID_OFFSET),
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), UTC)));
+            }
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    private int findRecordCount() {
+        // records are written one after another, so the first empty one is found with binary search
+        int low = 0;
+        int high = recordCapacity;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (buffer.get(HEADER_SIZE + middle * RECORD_SIZE) != END_MARKER) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,53 @@
+package com.epam.esm.repository.audit;
+
+import com.epam.esm.entity.audit.AuditEntity;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Audited operations with their codes in {@link MappedAuditLog} records.
+ * Codes are stored on disk, so existing values must never be changed. Code 0 marks the end of written records.
+ *
+ * @author Dmitry Karnyshov
+ */
+enum AuditOperationType {
+    CREATE(1, AuditEntity.Operation.CREATE),
+    UPDATE(2, AuditEntity.Operation.UPDATE),
+    DELETE(3, AuditEntity.Operation.DELETE);
+
+    private static final Map<Byte, AuditOperationType> typesByCode = Arrays.stream(values())
+            .collect(Collectors.toMap(AuditOperationType::getCode, Function.identity()));
+    private static final Map<AuditEntity.Operation, AuditOperationType> typesByOperation = Arrays.stream(values())
+            .collect(Collectors.toMap(AuditOperationType::getOperation, Function.identity()));
+
+    private final byte code;
+    private final AuditEntity.Operation operation;
+
+    AuditOperationType(int code, AuditEntity.Operation operation) {
+        this.code = (byte) code;
+        this.operation = operation;
+    }
+
+    static AuditOperationType fromOperation(AuditEntity.Operation operation) {
+        return typesByOperation.get(operation);
+    }
+
+    /**
+     * @return type with the code or empty optional if the code was written by a newer version
+     */
+    static Optional<AuditOperationType> fromCode(byte code) {
+        return Optional.ofNullable(typesByCode.get(code));
+    }
+
+    byte getCode() {
+        return code;
+    }
+
+    AuditEntity.Operation getOperation() {
+        return operation;
+    }
+}
@@ -0,0 +1,23 @@
+package com.epam.esm.repository.audit;
+
+/**
+ * Behavior of {@link BatchingAuditWriter} when its buffer is full.
+ *
+ * @author Dmitry Karnyshov
+ */
+public enum AuditOverflowPolicy {
+    /**
+     * Wait for free space in the buffer (up to configured timeout, then event is spilled).
+     */
+    BLOCK,
+
+    /**
+     * Discard event and increase the counter of dropped events.
+     */
+    DROP,
+
+    /**
+     * Append event to a spill file on local disk, spilled events are written after the buffer is drained.
+     */
+    SPILL
+}
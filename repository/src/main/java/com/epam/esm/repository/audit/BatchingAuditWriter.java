@@ -0,0 +1,395 @@
+package com.epam.esm.repository.audit;
+
+import com.epam.esm.entity.audit.AuditEntity;
+import com.epam.esm.entity.audit.AuditEvent;
+import com.epam.esm.entity.audit.AuditEventSink;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes {@link AuditEvent} objects to {@code audit_table} in the background.
+ *
+ * Events are put into a bounded lock-free ring buffer, so publishing costs a few atomic operations
+ * on the writing thread. A single writer thread drains the buffer and inserts events with JDBC batches
+ * (see {@code hibernate.jdbc.batch_size}), either every flush interval or as soon as a whole batch is collected.
+ * Events that are accepted by the buffer are never lost: a failed batch is retried a few times and then spilled
+ * to local disk if the database is unavailable, events that are still not written on shutdown are spilled too.
+ * Spilled events are written when the writer is idle or on the next start. A batch that fails while the database
+ * is available is split to isolate events that can not be written at all, such events are moved to the file
+ * of rejected events, so they do not stop writing of others.
+ * When the buffer is full, {@link AuditOverflowPolicy} defines what happens to a new event.
+ *
+ * @author Dmitry Karnyshov
+ */
+@Component
+@ConditionalOnProperty(name = "audit.sink", havingValue = "table", matchIfMissing = true)
+public class BatchingAuditWriter implements AuditEventSink {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final String WRITER_THREAD_NAME = "audit-writer";
+    private static final String DRAINING_SPILL_SUFFIX = ".draining";
+    private static final String REJECTED_SUFFIX = ".rejected";
+    private static final String AVAILABILITY_QUERY = "SELECT 1";
+    private static final String SPILL_FIELD_SEPARATOR = "\t";
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long RETRY_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long DROPPED_EVENTS_LOG_INTERVAL = 10_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate transactionTemplate;
+    private BoundedRingBuffer<AuditEvent> buffer;
+    private Thread writerThread;
+    private volatile boolean running;
+    private volatile boolean spillPending;
+    // lines of the draining spill file that are already written, they are skipped when writing is retried
+    private long writtenSpilledLines;
+    private final Object spillLock = new Object();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    @Value("${audit.writer.capacity:65536}")
+    private int capacity;
+
+    @Value("${audit.writer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${audit.writer.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${audit.writer.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${audit.writer.overflow-policy:BLOCK}")
+    private AuditOverflowPolicy overflowPolicy;
+
+    // blocked thread may hold a pooled connection the writer is waiting for, so it does not wait forever
+    @Value("${audit.writer.block-timeout-ms:1000}")
+    private long blockTimeoutMs;
+
+    @Value("${audit.writer.spill-path:${java.io.tmpdir}/certificates-audit-spill.log}")
+    private String spillPath;
+
+    public BatchingAuditWriter(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    protected void start() {
+        buffer = new BoundedRingBuffer<>(capacity);
+        // events spilled before previous shutdown are written as soon as the writer is idle
+        spillPending = Files.exists(Path.of(spillPath)) || Files.exists(drainingSpillPath());
+        running = true;
+
+        writerThread = new Thread(this::runWriter, WRITER_THREAD_NAME);
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    protected void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join();
+
+        // events published while the writer was stopping
+        List<AuditEvent> remainingEvents = new ArrayList<>();
+        buffer.drainTo(remainingEvents, Integer.MAX_VALUE);
+
+        if (!remainingEvents.isEmpty()) {
+            spill(remainingEvents);
+        }
+    }
+
+    @Override
+    public void publish(AuditEvent event) {
+        if (!running) {
+            spill(List.of(event));
+            return;
+        }
+
+        if (buffer.offer(event)) {
+            if (buffer.size() >= batchSize) {
+                // a whole batch is collected, there is no need to wait for flush interval
+                LockSupport.unpark(writerThread);
+            }
+
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> publishBlocking(event);
+            case DROP -> {
+                long dropped = droppedCount.incrementAndGet();
+
+                if (dropped % DROPPED_EVENTS_LOG_INTERVAL == 1) {
+                    logger.warn("Audit buffer is full, {} events dropped so far", dropped);
+                }
+            }
+            case SPILL -> spill(List.of(event));
+        }
+    }
+
+    /**
+     * @return amount of events that were discarded because the buffer was full
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return amount of events that were appended to the spill file
+     */
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    /**
+     * @return amount of events that can not be written and were moved to the file of rejected events
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * @return amount of events in the buffer that are not written yet
+     */
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    private void publishBlocking(AuditEvent event) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        LockSupport.unpark(writerThread);
+
+        while (!buffer.offer(event)) {
+            if (!running || System.nanoTime() - deadline > 0) {
+                spill(List.of(event));
+                return;
+            }
+
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+    }
+
+    private void runWriter() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        int failedAttempts = 0;
+
+        while (running || !buffer.isEmpty()) {
+            buffer.drainTo(batch, batchSize - batch.size());
+
+            if (batch.isEmpty()) {
+                if (spillPending && running) {
+                    writeSpilledEvents();
+                } else {
+                    LockSupport.parkNanos(flushIntervalNanos);
+                }
+
+                continue;
+            }
+
+            if (write(batch)) {
+                batch.clear();
+                failedAttempts = 0;
+            } else if (!running) {
+                spill(batch);
+                batch.clear();
+            } else if (++failedAttempts >= maxRetries) {
+                // a batch that keeps failing must not stop draining of the buffer
+                writeFailedBatch(batch);
+                batch.clear();
+                failedAttempts = 0;
+            } else {
+                LockSupport.parkNanos(RETRY_PARK_NANOS);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            spill(batch);
+        }
+    }
+
+    private boolean write(List<AuditEvent> events) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (AuditEvent event : events) {
+                    entityManager.persist(event.toEntity());
+                }
+            });
+
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Unable to write {} audit events", events.size(), e);
+            return false;
+        }
+    }
+
+    private void writeFailedBatch(List<AuditEvent> batch) {
+        if (isDatabaseAvailable()) {
+            writeIsolating(batch);
+        } else {
+            spill(batch);
+        }
+    }
+
+    private boolean isDatabaseAvailable() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> entityManager.createNativeQuery(AVAILABILITY_QUERY)
+                    .getSingleResult());
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void writeIsolating(List<AuditEvent> failedEvents) {
+        // the whole list has already failed, so it is split right away
+        if (failedEvents.size() == 1) {
+            reject(failedEvents.get(0));
+            return;
+        }
+
+        int middle = failedEvents.size() / 2;
+
+        for (List<AuditEvent> half : List.of(failedEvents.subList(0, middle),
+                failedEvents.subList(middle, failedEvents.size()))) {
+            if (!write(half)) {
+                writeIsolating(half);
+            }
+        }
+    }
+
+    private void reject(AuditEvent event) {
+        String line = toLine(event);
+        logger.error("Audit event '{}' can not be written, it is moved to rejected events", line);
+
+        synchronized (spillLock) {
+            try {
+                Files.write(Path.of(spillPath + REJECTED_SUFFIX), List.of(line), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                rejectedCount.incrementAndGet();
+            } catch (IOException e) {
+                logger.error("Unable to save rejected audit event, it is lost", e);
+            }
+        }
+    }
+
+    private void spill(List<AuditEvent> events) {
+        List<String> lines = events.stream()
+                .map(BatchingAuditWriter::toLine)
+                .toList();
+
+        synchronized (spillLock) {
+            try {
+                Files.write(Path.of(spillPath), lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND);
+                spilledCount.addAndGet(events.size());
+                spillPending = true;
+            } catch (IOException e) {
+                logger.error("Unable to spill {} audit events, they are lost", events.size(), e);
+            }
+        }
+    }
+
+    private void writeSpilledEvents() {
+        Path drainingSpillPath = drainingSpillPath();
+
+        try {
+            synchronized (spillLock) {
+                if (Files.notExists(drainingSpillPath) && Files.notExists(Path.of(spillPath))) {
+                    spillPending = false;
+                    return;
+                }
+
+                // file that failed to be written last time is finished first
+                if (Files.notExists(drainingSpillPath)) {
+                    Files.move(Path.of(spillPath), drainingSpillPath, StandardCopyOption.ATOMIC_MOVE);
+                }
+
+                spillPending = Files.exists(Path.of(spillPath));
+            }
+
+            try (BufferedReader reader = Files.newBufferedReader(drainingSpillPath, StandardCharsets.UTF_8)) {
+                List<AuditEvent> batch = new ArrayList<>(batchSize);
+                long skippedLines = writtenSpilledLines;
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+                    if (skippedLines > 0) {
+                        skippedLines--;
+                        continue;
+                    }
+
+                    String[] fields = line.split(SPILL_FIELD_SEPARATOR);
+                    batch.add(new AuditEvent(AuditEntity.Operation.valueOf(fields[0]), fields[1],
+                            Long.parseLong(fields[2]), LocalDateTime.parse(fields[3])));
+
+                    if (batch.size() == batchSize) {
+                        writeSpilledBatch(batch);
+                    }
+                }
+
+                if (!batch.isEmpty()) {
+                    writeSpilledBatch(batch);
+                }
+            }
+
+            Files.delete(drainingSpillPath);
+            writtenSpilledLines = 0;
+        } catch (IOException | UncheckedIOException e) {
+            logger.error("Unable to write spilled audit events, writing is retried", e);
+            spillPending = true;
+            LockSupport.parkNanos(RETRY_PARK_NANOS);
+        }
+    }
+
+    private void writeSpilledBatch(List<AuditEvent> batch) throws IOException {
+        if (!write(batch)) {
+            if (!isDatabaseAvailable()) {
+                throw new IOException("Spilled audit events are not written");
+            }
+
+            writeIsolating(batch);
+        }
+
+        writtenSpilledLines += batch.size();
+        batch.clear();
+    }
+
+    private static String toLine(AuditEvent event) {
+        return String.join(SPILL_FIELD_SEPARATOR, event.getOperation().name(), event.getEntityName(),
+                String.valueOf(event.getEntityId()), event.getTimestamp().toString());
+    }
+
+    private Path drainingSpillPath() {
+        return Path.of(spillPath + DRAINING_SPILL_SUFFIX);
+    }
+}
@@ -0,0 +1,117 @@
+package com.epam.esm.repository.audit;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ *
+ * Every slot has a sequence number: a producer claims a position with CAS on the tail and publishes
+ * the element by advancing sequence of the slot, the consumer takes only published elements and frees
+ * the slot for the next lap by advancing its sequence once more. Producers never wait for each other
+ * and {@link #offer(Object)} fails only when the buffer is full.
+ *
+ * @param <E> type of elements
+ * @author Dmitry Karnyshov
+ */
+final class BoundedRingBuffer<E> {
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+
+    // is changed by consumer thread only
+    private volatile long head;
+
+    BoundedRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2 || requestedCapacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + requestedCapacity);
+        }
+
+        // capacity is rounded up to a power of two, so index of a slot is taken with a mask
+        capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        mask = capacity - 1;
+        elements = new AtomicReferenceArray<>(capacity);
+        sequences = new AtomicLongArray(capacity);
+
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add element to the buffer. Can be called from any thread.
+     *
+     * @param element element to add
+     * @return {@code true} if element was added or {@code false} if buffer is full
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+
+                position = tail.get();
+            } else if (difference < 0) {
+                // slot is still occupied by element of the previous lap
+                return false;
+            } else {
+                // another producer has claimed this position
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Move published elements to the collection. Must be called from the consumer thread only.
+     *
+     * @param target collection to add elements to
+     * @param maxElements max amount of elements to move
+     * @return amount of moved elements
+     */
+    int drainTo(Collection<? super E> target, int maxElements) {
+        int drained = 0;
+        long position = head;
+
+        while (drained < maxElements) {
+            int index = (int) position & mask;
+
+            if (sequences.get(index) != position + 1) {
+                // slot is empty or its element is not published yet
+                break;
+            }
+
+            target.add(elements.get(index));
+            elements.set(index, null);
+            sequences.set(index, position + capacity);
+            position++;
+            drained++;
+        }
+
+        head = position;
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,149 @@
+package com.epam.esm.repository.audit;
+
+import com.epam.esm.entity.audit.AuditEvent;
+import com.epam.esm.entity.audit.AuditEventSink;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Append-only audit log stored in memory-mapped segment files on local disk, an alternative to
+ * {@link BatchingAuditWriter} enabled with {@code audit.sink=mapped-log}.
+ *
+ * Appending an event is a few writes to mapped memory, the operating system writes pages to disk in the background
+ * (segments are forced to disk when they are rolled and on shutdown). When the active segment is full,
+ * a new one is created. Segments are named with increasing sequence numbers and have min and max timestamps
+ * in their headers, so segments outside of requested time range are skipped by {@link #read}.
+ *
+ * @author Dmitry Karnyshov
+ */
+@Component
+@ConditionalOnProperty(name = "audit.sink", havingValue = "mapped-log")
+public class MappedAuditLog implements AuditEventSink, AuditLogReader {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final String SEGMENT_FILE_FORMAT = "%020d.segment";
+    private static final String SEGMENT_FILE_SUFFIX = ".segment";
+
+    private AuditLogSegment activeSegment;
+    // closed segments are not changed anymore, so every segment is mapped once and read by all calls of read
+    private final Map<Long, AuditLogSegment> closedSegments = new ConcurrentHashMap<>();
+
+    @Value("${audit.mapped-log.path:${java.io.tmpdir}/certificates-audit-log}")
+    private String logPath;
+
+    @Value("${audit.mapped-log.segment-size:67108864}")
+    private int segmentSize;
+
+    @PostConstruct
+    protected synchronized void open() throws IOException {
+        Path directory = Path.of(logPath);
+        Files.createDirectories(directory);
+
+        List<Long> sequences = findSegmentSequences();
+        // writing is continued in the last segment after restart
+        long sequence = !sequences.isEmpty() ? sequences.get(sequences.size() - 1) : 1;
+        activeSegment = AuditLogSegment.openWritable(segmentPath(sequence), sequence, segmentSize);
+    }
+
+    @PreDestroy
+    protected synchronized void close() {
+        activeSegment.force();
+    }
+
+    @Override
+    public synchronized void publish(AuditEvent event) {
+        if (activeSegment.append(event)) {
+            return;
+        }
+
+        long sequence = activeSegment.getSequence() + 1;
+
+        try {
+            activeSegment.force();
+            closedSegments.put(activeSegment.getSequence(), activeSegment);
+            activeSegment = AuditLogSegment.openWritable(segmentPath(sequence), sequence, segmentSize);
+        } catch (IOException e) {
+            logger.error("Unable to create audit log segment {}", sequence, e);
+            throw new UncheckedIOException(e);
+        }
+
+        activeSegment.append(event);
+    }
+
+    @Override
+    public List<AuditEvent> read(LocalDateTime from, LocalDateTime to, int limit) {
+        AuditLogSegment segment;
+        int recordCount;
+
+        synchronized (this) {
+            // records written before this point are not changed anymore and can be read without lock
+            segment = activeSegment;
+            recordCount = segment.getRecordCount();
+        }
+
+        List<AuditEvent> events = new ArrayList<>();
+
+        try {
+            for (long sequence : findSegmentSequences()) {
+                if (events.size() == limit || sequence > segment.getSequence()) {
+                    break;
+                }
+
+                if (sequence == segment.getSequence()) {
+                    segment.scan(from, to, recordCount, limit, events);
+                } else {
+                    AuditLogSegment closedSegment = findClosedSegment(sequence);
+                    closedSegment.scan(from, to, closedSegment.getRecordCount(), limit, events);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return events;
+    }
+
+    private AuditLogSegment findClosedSegment(long sequence) throws IOException {
+        AuditLogSegment segment = closedSegments.get(sequence);
+
+        if (segment == null) {
+            segment = AuditLogSegment.openReadOnly(segmentPath(sequence), sequence);
+            // a concurrent read could have mapped it too, the extra mapping is released when it is collected
+            AuditLogSegment mappedSegment = closedSegments.putIfAbsent(sequence, segment);
+            segment = mappedSegment != null ? mappedSegment : segment;
+        }
+
+        return segment;
+    }
+
+    private List<Long> findSegmentSequences() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(logPath))) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(fileName -> fileName.endsWith(SEGMENT_FILE_SUFFIX))
+                    .map(fileName -> Long.parseLong(fileName.substring(0,
+                            fileName.length() - SEGMENT_FILE_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long sequence) {
+        return Path.of(logPath, String.format(SEGMENT_FILE_FORMAT, sequence));
+    }
+}
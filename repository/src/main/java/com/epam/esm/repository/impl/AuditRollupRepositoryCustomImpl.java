@@ -0,0 +1,184 @@
+package com.epam.esm.repository.impl;
+
+import com.epam.esm.repository.AuditRollupRepositoryCustom;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+public class AuditRollupRepositoryCustomImpl implements AuditRollupRepositoryCustom {
+    private static final String POSTGRESQL_PRODUCT_NAME = "PostgreSQL";
+
+    private static final String AUDIT_TABLE_NAME = "audit_table";
+    private static final String PARTITION_NAME_PREFIX = "audit_table_p";
+    private static final String DEFAULT_PARTITION_NAME = "audit_table_default";
+    private static final DateTimeFormatter PARTITION_DATE_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String DELETE_ROLLUPS_QUERY = "DELETE FROM audit_rollup WHERE event_date = ?";
+
+    private static final String INSERT_ROLLUPS_QUERY = """
+        INSERT INTO audit_rollup (event_date, entity_name, operation, event_count)
+        SELECT CAST(? AS DATE), entity_name, operation, COUNT(*)
+        FROM audit_table
+        WHERE timestamp >= ? AND timestamp < ?
+        GROUP BY entity_name, operation
+    """;
+
+    // partition bounds are dates formatted by the application, so they are not bound as parameters of DDL
+    private static final String CREATE_PARTITION_QUERY = """
+        CREATE TABLE IF NOT EXISTS %s PARTITION OF audit_table
+        FOR VALUES FROM ('%s') TO ('%s')
+    """;
+
+    private static final String SELECT_PARTITION_NAMES_QUERY = """
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = CAST('audit_table' AS regclass)
+    """;
+
+    private static final String DROP_PARTITION_QUERY = "DROP TABLE IF EXISTS %s";
+
+    private static final String SELECT_RAW_EVENT_DAYS_QUERY = """
+        SELECT DISTINCT CAST(timestamp AS DATE)
+        FROM %s
+        WHERE timestamp < ?
+    """;
+
+    private static final String DELETE_RAW_EVENTS_QUERY = "DELETE FROM %s WHERE timestamp >= ? AND timestamp < ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void rollUp(LocalDate day) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement deleteStatement = connection.prepareStatement(DELETE_ROLLUPS_QUERY);
+                 PreparedStatement insertStatement = connection.prepareStatement(INSERT_ROLLUPS_QUERY)) {
+                deleteStatement.setDate(1, Date.valueOf(day));
+                deleteStatement.executeUpdate();
+
+                insertStatement.setDate(1, Date.valueOf(day));
+                insertStatement.setTimestamp(2, startOf(day));
+                insertStatement.setTimestamp(3, startOf(day.plusDays(1)));
+                insertStatement.executeUpdate();
+            }
+        });
+    }
+
+    @Override
+    public void createPartition(LocalDate day) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            if (!isPostgresql(connection)) {
+                return;
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(String.format(CREATE_PARTITION_QUERY, partitionName(day), day, day.plusDays(1)));
+            }
+        });
+    }
+
+    @Override
+    public List<LocalDate> findRawEventDays(LocalDate before) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            SortedSet<LocalDate> days = new TreeSet<>();
+
+            if (isPostgresql(connection)) {
+                days.addAll(findPartitionDays(connection, before));
+                // rows that did not fit into any daily partition
+                days.addAll(findDays(connection, DEFAULT_PARTITION_NAME, before));
+            } else {
+                days.addAll(findDays(connection, AUDIT_TABLE_NAME, before));
+            }
+
+            return new ArrayList<>(days);
+        });
+    }
+
+    @Override
+    public void deleteRawEvents(LocalDate day) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            boolean postgresql = isPostgresql(connection);
+
+            if (postgresql) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(String.format(DROP_PARTITION_QUERY, partitionName(day)));
+                }
+            }
+
+            String tableName = postgresql ? DEFAULT_PARTITION_NAME : AUDIT_TABLE_NAME;
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    String.format(DELETE_RAW_EVENTS_QUERY, tableName))) {
+                statement.setTimestamp(1, startOf(day));
+                statement.setTimestamp(2, startOf(day.plusDays(1)));
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    private List<LocalDate> findPartitionDays(Connection connection, LocalDate before) throws SQLException {
+        List<LocalDate> days = new ArrayList<>();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(SELECT_PARTITION_NAMES_QUERY)) {
+            while (resultSet.next()) {
+                String partitionName = resultSet.getString(1);
+
+                if (partitionName.startsWith(PARTITION_NAME_PREFIX)) {
+                    LocalDate day = LocalDate.parse(partitionName.substring(PARTITION_NAME_PREFIX.length()),
+                            PARTITION_DATE_FORMATTER);
+
+                    if (day.isBefore(before)) {
+                        days.add(day);
+                    }
+                }
+            }
+        }
+
+        return days;
+    }
+
+    private List<LocalDate> findDays(Connection connection, String tableName, LocalDate before) throws SQLException {
+        List<LocalDate> days = new ArrayList<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                String.format(SELECT_RAW_EVENT_DAYS_QUERY, tableName))) {
+            statement.setTimestamp(1, startOf(before));
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    days.add(resultSet.getDate(1).toLocalDate());
+                }
+            }
+        }
+
+        return days;
+    }
+
+    private static boolean isPostgresql(Connection connection) throws SQLException {
+        return POSTGRESQL_PRODUCT_NAME.equals(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private static String partitionName(LocalDate day) {
+        return PARTITION_NAME_PREFIX + day.format(PARTITION_DATE_FORMATTER);
+    }
+
+    private static Timestamp startOf(LocalDate day) {
+        return Timestamp.valueOf(day.atStartOfDay());
+    }
+}
@@ -0,0 +1,241 @@
+package com.epam.esm.repository.impl;
+
+import com.epam.esm.entity.GiftCertificate;
+import com.epam.esm.entity.Tag;
+import com.epam.esm.entity.audit.AuditEntity;
+import com.epam.esm.entity.audit.AuditEvent;
+import com.epam.esm.entity.audit.AuditEventSink;
+import com.epam.esm.entity.audit.TransactionalAuditEvents;
+import org.hibernate.Session;
+import com.epam.esm.repository.GiftCertificateRepositoryCustom;
+import com.epam.esm.repository.GiftCertificateView;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class GiftCertificateRepositoryCustomImpl implements GiftCertificateRepositoryCustom {
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String PRICE = "price";
+    private static final String DURATION = "duration";
+    private static final String CREATE_DATE = "createDate";
+    private static final String LAST_UPDATE_DATE = "lastUpdateDate";
+    private static final String TAG_NAMES_SEPARATOR = ",";
+
+    // tag names consist of letters and digits only, so the separator never occurs inside of them
+    private static final String TAG_NAMES_QUERY = """
+        SELECT ct.id_certificate, STRING_AGG(t.name, ',')
+        FROM certificate_tag AS ct
+        INNER JOIN tag AS t ON t.id = ct.id_tag
+        WHERE ct.id_certificate IN (:certificateIds)
+        GROUP BY ct.id_certificate
+    """;
+
+    private static final String INSERT_CERTIFICATE_QUERY = """
+        INSERT INTO gift_certificate (id, name, description, price, duration, create_date, last_update_date)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+    """;
+
+    private static final String INSERT_TAG_LINK_QUERY = """
+        INSERT INTO certificate_tag (id_certificate, id_tag)
+        VALUES (?, ?)
+    """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private AuditEventSink auditEventSink;
+
+    public GiftCertificateRepositoryCustomImpl(AuditEventSink auditEventSink) {
+        this.auditEventSink = auditEventSink;
+    }
+
+    @Override
+    public List<GiftCertificate> findRange(Specification<GiftCertificate> specification, long offset, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<GiftCertificate> criteriaQuery = criteriaBuilder.createQuery(GiftCertificate.class);
+        Root<GiftCertificate> certificateRoot = criteriaQuery.from(GiftCertificate.class);
+        Predicate predicate = specification.toPredicate(certificateRoot, criteriaQuery, criteriaBuilder);
+
+        if (predicate != null) {
+            criteriaQuery.where(predicate);
+        }
+
+        criteriaQuery.select(certificateRoot);
+
+        return entityManager.createQuery(criteriaQuery)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<GiftCertificateView> findViewRange(Specification<GiftCertificate> specification, long offset,
+                int limit) {
+        List<Tuple> rows = createViewQuery(specification)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+
+        return toViews(rows);
+    }
+
+    @Override
+    public void streamViews(Specification<GiftCertificate> specification, int fetchSize,
+                Consumer<List<GiftCertificateView>> chunkConsumer) {
+        // with fetch size set rows are read through a database cursor instead of loading the whole result set
+        try (Stream<Tuple> rows = createViewQuery(specification)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream()) {
+            List<Tuple> chunk = new ArrayList<>(fetchSize);
+            Iterator<Tuple> iterator = rows.iterator();
+
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+
+                if (chunk.size() == fetchSize || !iterator.hasNext()) {
+                    chunkConsumer.accept(toViews(chunk));
+                    chunk.clear();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void insertAll(List<GiftCertificate> certificates) {
+        if (certificates.isEmpty()) {
+            return;
+        }
+
+        for (GiftCertificate certificate : certificates) {
+            certificate.setId(IdentifierAllocator.nextId(entityManager, certificate));
+        }
+
+        // statements are executed on the connection of current transaction
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_CERTIFICATE_QUERY)) {
+                for (GiftCertificate certificate : certificates) {
+                    statement.setLong(1, certificate.getId());
+                    statement.setString(2, certificate.getName());
+                    statement.setString(3, certificate.getDescription());
+                    statement.setBigDecimal(4, certificate.getPrice());
+                    statement.setLong(5, certificate.getDuration().toDays());
+                    statement.setTimestamp(6, Timestamp.valueOf(certificate.getCreateDate()));
+                    statement.setTimestamp(7, Timestamp.valueOf(certificate.getLastUpdateDate()));
+                    statement.addBatch();
+                }
+
+                statement.executeBatch();
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_TAG_LINK_QUERY)) {
+                for (GiftCertificate certificate : certificates) {
+                    for (Tag tag : certificate.getTags()) {
+                        statement.setLong(1, certificate.getId());
+                        statement.setLong(2, tag.getId());
+                        statement.addBatch();
+                    }
+                }
+
+                statement.executeBatch();
+            }
+
+        });
+
+        // entity listeners are not called for rows inserted with JDBC
+        for (GiftCertificate certificate : certificates) {
+            TransactionalAuditEvents.publish(auditEventSink, new AuditEvent(AuditEntity.Operation.CREATE,
+                    GiftCertificate.class.getSimpleName(), certificate.getId(), certificate.getCreateDate()));
+        }
+    }
+
+    private TypedQuery<Tuple> createViewQuery(Specification<GiftCertificate> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        Root<GiftCertificate> certificateRoot = criteriaQuery.from(GiftCertificate.class);
+        Predicate predicate = specification.toPredicate(certificateRoot, criteriaQuery, criteriaBuilder);
+
+        if (predicate != null) {
+            criteriaQuery.where(predicate);
+        }
+
+        criteriaQuery.multiselect(
+                certificateRoot.get(ID).alias(ID),
+                certificateRoot.get(NAME).alias(NAME),
+                certificateRoot.get(DESCRIPTION).alias(DESCRIPTION),
+                certificateRoot.get(PRICE).alias(PRICE),
+                certificateRoot.get(DURATION).alias(DURATION),
+                certificateRoot.get(CREATE_DATE).alias(CREATE_DATE),
+                certificateRoot.get(LAST_UPDATE_DATE).alias(LAST_UPDATE_DATE)
+        );
+
+        return entityManager.createQuery(criteriaQuery);
+    }
+
+    private List<GiftCertificateView> toViews(List<Tuple> rows) {
+        List<Long> certificateIds = rows.stream()
+                .map(row -> row.get(ID, Long.class))
+                .toList();
+        Map<Long, List<String>> tagNames = findTagNames(certificateIds);
+
+        return rows.stream()
+                .map(row -> {
+                    long id = row.get(ID, Long.class);
+
+                    return new GiftCertificateView(
+                            id,
+                            row.get(NAME, String.class),
+                            row.get(DESCRIPTION, String.class),
+                            row.get(PRICE, BigDecimal.class),
+                            row.get(DURATION, Duration.class),
+                            row.get(CREATE_DATE, LocalDateTime.class),
+                            row.get(LAST_UPDATE_DATE, LocalDateTime.class),
+                            tagNames.getOrDefault(id, List.of())
+                    );
+                })
+                .toList();
+    }
+
+    private Map<Long, List<String>> findTagNames(Collection<Long> certificateIds) {
+        Map<Long, List<String>> tagNames = new HashMap<>();
+
+        if (certificateIds.isEmpty()) {
+            return tagNames;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(TAG_NAMES_QUERY)
+                .setParameter("certificateIds", certificateIds)
+                .getResultList();
+
+        for (Object[] row : rows) {
+            long certificateId = ((Number) row[0]).longValue();
+            tagNames.put(certificateId, Arrays.asList(row[1].toString().split(TAG_NAMES_SEPARATOR)));
+        }
+
+        return tagNames;
+    }
+}
@@ -0,0 +1,26 @@
+package com.epam.esm.repository.impl;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Allocates ids for rows inserted with plain JDBC from the same pooled generators that Hibernate uses,
+ * so such rows neither take a whole block of sequence values nor collide with ids of persisted entities.
+ *
+ * @author Dmitry Karnyshov
+ */
+final class IdentifierAllocator {
+    private IdentifierAllocator() {
+    }
+
+    static long nextId(EntityManager entityManager, Object entity) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        EntityPersister persister = session.getFactory()
+                .getMetamodel()
+                .entityPersister(entity.getClass());
+
+        return (Long) persister.getIdentifierGenerator().generate(session, entity);
+    }
+}
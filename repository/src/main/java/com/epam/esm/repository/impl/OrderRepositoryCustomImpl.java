@@ -0,0 +1,310 @@
+package com.epam.esm.repository.impl;
+
+import com.epam.esm.entity.GiftCertificate;
+import com.epam.esm.entity.Order;
+import com.epam.esm.entity.UserStats;
+import com.epam.esm.repository.OrderRepositoryCustom;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+    private static final String POSTGRESQL_PRODUCT_NAME = "PostgreSQL";
+
+    private static final String SELECT_TAG_LINKS_QUERY =
+            "SELECT c.id, t.id FROM GiftCertificate c JOIN c.tags t WHERE c.id IN :ids";
+
+    private static final String POSTGRESQL_UPSERT_USER_STATS_QUERY = """
+        INSERT INTO user_stats (id_user, order_count, total_cost, last_purchase_date)
+        VALUES (?, ?, ?, ?)
+        ON CONFLICT (id_user) DO UPDATE SET order_count = user_stats.order_count + EXCLUDED.order_count,
+            total_cost = user_stats.total_cost + EXCLUDED.total_cost,
+            last_purchase_date = GREATEST(user_stats.last_purchase_date, EXCLUDED.last_purchase_date)
+    """;
+
+    private static final String H2_UPSERT_USER_STATS_QUERY = """
+        MERGE INTO user_stats AS s
+        USING (SELECT CAST(? AS BIGINT) AS id_user, CAST(? AS BIGINT) AS order_count,
+            CAST(? AS DECIMAL(12, 2)) AS total_cost, CAST(? AS TIMESTAMP) AS last_purchase_date) AS d
+        ON s.id_user = d.id_user
+        WHEN MATCHED THEN UPDATE SET order_count = s.order_count + d.order_count,
+            total_cost = s.total_cost + d.total_cost,
+            last_purchase_date = GREATEST(s.last_purchase_date, d.last_purchase_date)
+        WHEN NOT MATCHED THEN INSERT (id_user, order_count, total_cost, last_purchase_date)
+            VALUES (d.id_user, d.order_count, d.total_cost, d.last_purchase_date)
+    """;
+
+    private static final String POSTGRESQL_UPSERT_TAG_USAGE_QUERY = """
+        INSERT INTO user_tag_usage (id_user, id_tag, usage_count)
+        VALUES (?, ?, ?)
+        ON CONFLICT (id_user, id_tag) DO UPDATE SET usage_count = user_tag_usage.usage_count + EXCLUDED.usage_count
+    """;
+
+    private static final String H2_UPSERT_TAG_USAGE_QUERY = """
+        MERGE INTO user_tag_usage AS u
+        USING (SELECT CAST(? AS BIGINT) AS id_user, CAST(? AS BIGINT) AS id_tag,
+            CAST(? AS BIGINT) AS usage_count) AS d
+        ON u.id_user = d.id_user AND u.id_tag = d.id_tag
+        WHEN MATCHED THEN UPDATE SET usage_count = u.usage_count + d.usage_count
+        WHEN NOT MATCHED THEN INSERT (id_user, id_tag, usage_count) VALUES (d.id_user, d.id_tag, d.usage_count)
+    """;
+
+    private static final String SELECT_CERTIFICATE_ORDER_COUNTS_QUERY = """
+        SELECT o.id_user, COUNT(*)
+        FROM app_order AS o
+        INNER JOIN certificate_order AS co ON co.id_order = o.id
+        WHERE co.id_certificate = ?
+        GROUP BY o.id_user
+        ORDER BY o.id_user
+    """;
+
+    private static final String SELECT_CERTIFICATE_TAG_IDS_QUERY =
+            "SELECT id_tag FROM certificate_tag WHERE id_certificate = ? ORDER BY id_tag";
+
+    private static final String SUBTRACT_TAG_USAGE_QUERY =
+            "UPDATE user_tag_usage SET usage_count = usage_count - ? WHERE id_user = ? AND id_tag = ?";
+
+    private static final String DELETE_UNUSED_TAG_USAGE_QUERY =
+            "DELETE FROM user_tag_usage WHERE id_user = ? AND id_tag = ? AND usage_count <= 0";
+
+    // orders are locked before aggregates, in the same order as they are locked by transactions making orders
+    private static final String LOCK_TABLES_QUERY =
+            "LOCK TABLE app_order, user_stats, user_tag_usage IN SHARE ROW EXCLUSIVE MODE";
+
+    private static final List<String> REBUILD_QUERIES = List.of(
+            "DELETE FROM user_tag_usage",
+            "DELETE FROM user_stats",
+            """
+            INSERT INTO user_stats (id_user, order_count, total_cost, last_purchase_date)
+            SELECT id_user, COUNT(*), SUM(cost), MAX(purchase_date)
+            FROM app_order
+            GROUP BY id_user
+            """,
+            """
+            INSERT INTO user_tag_usage (id_user, id_tag, usage_count)
+            SELECT o.id_user, ct.id_tag, COUNT(*)
+            FROM app_order AS o
+            INNER JOIN certificate_order AS co ON co.id_order = o.id
+            INNER JOIN certificate_tag AS ct ON ct.id_certificate = co.id_certificate
+            GROUP BY o.id_user, ct.id_tag
+            """
+    );
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void addToStatistics(Collection<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        // app_order rows are inserted (and locked) before aggregates, see rebuildStatistics
+        entityManager.flush();
+
+        Map<Long, List<Long>> certificateTagIds = findTagIds(orders);
+        // sorted keys make concurrent transactions lock aggregate rows in the same order
+        SortedMap<Long, UserStats> userStats = new TreeMap<>();
+        SortedMap<Long, SortedMap<Long, Long>> userTagCounts = new TreeMap<>();
+
+        for (Order order : orders) {
+            long userId = order.getUser().getId();
+            userStats.merge(userId, new UserStats(userId, 1, order.getCost(), order.getPurchaseDate()),
+                    OrderRepositoryCustomImpl::mergeStats);
+            SortedMap<Long, Long> tagCounts = userTagCounts.computeIfAbsent(userId, id -> new TreeMap<>());
+
+            // the same certificate may be ordered several times and is counted every time
+            for (GiftCertificate certificate : order.getCertificates()) {
+                for (long tagId : certificateTagIds.getOrDefault(certificate.getId(), List.of())) {
+                    tagCounts.merge(tagId, 1L, Long::sum);
+                }
+            }
+        }
+
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            boolean postgresql = isPostgresql(connection);
+
+            try (PreparedStatement statement = connection.prepareStatement(postgresql
+                    ? POSTGRESQL_UPSERT_USER_STATS_QUERY
+                    : H2_UPSERT_USER_STATS_QUERY)) {
+                for (UserStats stats : userStats.values()) {
+                    statement.setLong(1, stats.getUserId());
+                    statement.setLong(2, stats.getOrderCount());
+                    statement.setBigDecimal(3, stats.getTotalCost());
+                    statement.setTimestamp(4, Timestamp.valueOf(stats.getLastPurchaseDate()));
+                    statement.addBatch();
+                }
+
+                statement.executeBatch();
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(postgresql
+                    ? POSTGRESQL_UPSERT_TAG_USAGE_QUERY
+                    : H2_UPSERT_TAG_USAGE_QUERY)) {
+                for (Map.Entry<Long, SortedMap<Long, Long>> userTags : userTagCounts.entrySet()) {
+                    for (Map.Entry<Long, Long> tagCount : userTags.getValue().entrySet()) {
+                        statement.setLong(1, userTags.getKey());
+                        statement.setLong(2, tagCount.getKey());
+                        statement.setLong(3, tagCount.getValue());
+                        statement.addBatch();
+                    }
+                }
+
+                statement.executeBatch();
+            }
+        });
+    }
+
+    @Override
+    public void removeCertificateFromStatistics(long certificateId) {
+        entityManager.flush();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            SortedMap<Long, Long> userOrderCounts = findUserOrderCounts(connection, certificateId);
+            List<Long> tagIds = findCertificateTagIds(connection, certificateId);
+
+            if (userOrderCounts.isEmpty() || tagIds.isEmpty()) {
+                return;
+            }
+
+            try (PreparedStatement subtractStatement = connection.prepareStatement(SUBTRACT_TAG_USAGE_QUERY);
+                    PreparedStatement deleteStatement = connection.prepareStatement(DELETE_UNUSED_TAG_USAGE_QUERY)) {
+                for (Map.Entry<Long, Long> userOrderCount : userOrderCounts.entrySet()) {
+                    for (long tagId : tagIds) {
+                        subtractStatement.setLong(1, userOrderCount.getValue());
+                        subtractStatement.setLong(2, userOrderCount.getKey());
+                        subtractStatement.setLong(3, tagId);
+                        subtractStatement.addBatch();
+
+                        // a tag the user does not order anymore must not be found as the most used one
+                        deleteStatement.setLong(1, userOrderCount.getKey());
+                        deleteStatement.setLong(2, tagId);
+                        deleteStatement.addBatch();
+                    }
+                }
+
+                subtractStatement.executeBatch();
+                deleteStatement.executeBatch();
+            }
+        });
+    }
+
+    @Override
+    public void addCertificateToStatistics(long certificateId) {
+        entityManager.flush();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            SortedMap<Long, Long> userOrderCounts = findUserOrderCounts(connection, certificateId);
+            List<Long> tagIds = findCertificateTagIds(connection, certificateId);
+
+            if (userOrderCounts.isEmpty() || tagIds.isEmpty()) {
+                return;
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(isPostgresql(connection)
+                    ? POSTGRESQL_UPSERT_TAG_USAGE_QUERY
+                    : H2_UPSERT_TAG_USAGE_QUERY)) {
+                for (Map.Entry<Long, Long> userOrderCount : userOrderCounts.entrySet()) {
+                    for (long tagId : tagIds) {
+                        statement.setLong(1, userOrderCount.getKey());
+                        statement.setLong(2, tagId);
+                        statement.setLong(3, userOrderCount.getValue());
+                        statement.addBatch();
+                    }
+                }
+
+                statement.executeBatch();
+            }
+        });
+    }
+
+    @Override
+    public void rebuildStatistics() {
+        entityManager.flush();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                // orders made concurrently would be either counted twice or lost (H2 is not used concurrently)
+                if (isPostgresql(connection)) {
+                    statement.execute(LOCK_TABLES_QUERY);
+                }
+
+                for (String query : REBUILD_QUERIES) {
+                    statement.executeUpdate(query);
+                }
+            }
+        });
+    }
+
+    private Map<Long, List<Long>> findTagIds(Collection<Order> orders) {
+        Set<Long> certificateIds = orders.stream()
+                .flatMap(order -> order.getCertificates().stream())
+                .map(GiftCertificate::getId)
+                .collect(Collectors.toSet());
+        List<Object[]> links = entityManager.createQuery(SELECT_TAG_LINKS_QUERY, Object[].class)
+                .setParameter("ids", certificateIds)
+                .getResultList();
+
+        return links.stream()
+                .collect(Collectors.groupingBy(link -> (Long) link[0],
+                        Collectors.mapping(link -> (Long) link[1], Collectors.toCollection(ArrayList::new))));
+    }
+
+    // both queries return sorted keys, so aggregate rows are locked in the same order as by addToStatistics
+    private static SortedMap<Long, Long> findUserOrderCounts(Connection connection, long certificateId)
+                throws SQLException {
+        SortedMap<Long, Long> userOrderCounts = new TreeMap<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_CERTIFICATE_ORDER_COUNTS_QUERY)) {
+            statement.setLong(1, certificateId);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    userOrderCounts.put(resultSet.getLong(1), resultSet.getLong(2));
+                }
+            }
+        }
+
+        return userOrderCounts;
+    }
+
+    private static List<Long> findCertificateTagIds(Connection connection, long certificateId) throws SQLException {
+        List<Long> tagIds = new ArrayList<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_CERTIFICATE_TAG_IDS_QUERY)) {
+            statement.setLong(1, certificateId);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    tagIds.add(resultSet.getLong(1));
+                }
+            }
+        }
+
+        return tagIds;
+    }
+
+    private static UserStats mergeStats(UserStats first, UserStats second) {
+        return new UserStats(first.getUserId(), first.getOrderCount() + second.getOrderCount(),
+                first.getTotalCost().add(second.getTotalCost()),
+                first.getLastPurchaseDate().isAfter(second.getLastPurchaseDate())
+                        ? first.getLastPurchaseDate()
+                        : second.getLastPurchaseDate());
+    }
+
+    private static boolean isPostgresql(Connection connection) throws SQLException {
+        return POSTGRESQL_PRODUCT_NAME.equals(connection.getMetaData().getDatabaseProductName());
+    }
+}
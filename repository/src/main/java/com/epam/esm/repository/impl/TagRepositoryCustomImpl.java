@@ -0,0 +1,112 @@
+package com.epam.esm.repository.impl;
+
+import com.epam.esm.entity.Tag;
+import com.epam.esm.entity.audit.AuditEntity;
+import com.epam.esm.entity.audit.AuditEvent;
+import com.epam.esm.entity.audit.AuditEventSink;
+import com.epam.esm.entity.audit.TransactionalAuditEvents;
+import com.epam.esm.repository.TagRepositoryCustom;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static java.time.ZoneOffset.UTC;
+
+public class TagRepositoryCustomImpl implements TagRepositoryCustom {
+    private static final String POSTGRESQL_PRODUCT_NAME = "PostgreSQL";
+
+    private static final String SELECT_BY_NAMES_QUERY = "SELECT t FROM Tag t WHERE t.name IN :names";
+
+    // conflicting row inserted by concurrent transaction is waited for and skipped
+    private static final String POSTGRESQL_UPSERT_TAG_QUERY = """
+        INSERT INTO tag (id, name)
+        VALUES (?, ?)
+        ON CONFLICT (name) DO NOTHING
+    """;
+
+    private static final String H2_UPSERT_TAG_QUERY = """
+        MERGE INTO tag AS t
+        USING (SELECT CAST(? AS BIGINT) AS id, CAST(? AS VARCHAR(50)) AS name) AS s ON t.name = s.name
+        WHEN NOT MATCHED THEN INSERT (id, name) VALUES (s.id, s.name)
+    """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private AuditEventSink auditEventSink;
+
+    public TagRepositoryCustomImpl(AuditEventSink auditEventSink) {
+        this.auditEventSink = auditEventSink;
+    }
+
+    @Override
+    public List<Tag> findOrCreateAllByName(Collection<String> tagNames) {
+        if (tagNames.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Tag> tags = findAllByName(tagNames);
+        // sorted order of inserted names prevents deadlocks between transactions creating the same tags
+        Set<String> missingTagNames = new TreeSet<>(tagNames);
+        tags.forEach(tag -> missingTagNames.remove(tag.getName()));
+
+        if (!missingTagNames.isEmpty()) {
+            insertMissing(missingTagNames);
+            tags.addAll(findAllByName(missingTagNames));
+        }
+
+        return tags;
+    }
+
+    private List<Tag> findAllByName(Collection<String> tagNames) {
+        return entityManager.createQuery(SELECT_BY_NAMES_QUERY, Tag.class)
+                .setParameter("names", tagNames)
+                .getResultList();
+    }
+
+    private void insertMissing(Collection<String> tagNames) {
+        LocalDateTime timestamp = LocalDateTime.now(UTC);
+        List<Tag> tags = tagNames.stream()
+                .map(tagName -> {
+                    Tag tag = new Tag();
+                    tag.setName(tagName);
+                    // ids allocated for skipped rows are just not used
+                    tag.setId(IdentifierAllocator.nextId(entityManager, tag));
+
+                    return tag;
+                })
+                .toList();
+
+        // statements are executed on the connection of current transaction
+        int[] updateCounts = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            boolean postgresql = POSTGRESQL_PRODUCT_NAME.equals(connection.getMetaData().getDatabaseProductName());
+            String upsertQuery = postgresql ? POSTGRESQL_UPSERT_TAG_QUERY : H2_UPSERT_TAG_QUERY;
+
+            try (PreparedStatement statement = connection.prepareStatement(upsertQuery)) {
+                for (Tag tag : tags) {
+                    statement.setLong(1, tag.getId());
+                    statement.setString(2, tag.getName());
+                    statement.addBatch();
+                }
+
+                return statement.executeBatch();
+            }
+        });
+
+        // entity listeners are not called for rows inserted with JDBC, skipped rows are not audited
+        for (int i = 0; i < tags.size(); i++) {
+            if (updateCounts[i] > 0) {
+                TransactionalAuditEvents.publish(auditEventSink, new AuditEvent(AuditEntity.Operation.CREATE,
+                        Tag.class.getSimpleName(), tags.get(i).getId(), timestamp));
+            }
+        }
+    }
+}
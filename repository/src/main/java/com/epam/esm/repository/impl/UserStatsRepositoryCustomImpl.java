@@ -0,0 +1,59 @@
+package com.epam.esm.repository.impl;
+
+import com.epam.esm.repository.Keyset;
+import com.epam.esm.repository.OrderingType;
+import com.epam.esm.repository.UserStatsRepositoryCustom;
+import com.epam.esm.repository.UserStatsSortType;
+import com.epam.esm.repository.UserStatsView;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+public class UserStatsRepositoryCustomImpl implements UserStatsRepositoryCustom {
+    private static final String SELECT_VIEWS_QUERY = """
+        SELECT new com.epam.esm.repository.UserStatsView(s.userId, u.username, s.orderCount, s.totalCost,
+            s.lastPurchaseDate)
+        FROM UserStats s, User u
+        WHERE u.id = s.userId
+    """;
+
+    // attribute names come from UserStatsSortType, never from request parameters
+    private static final String SEEK_CONDITION_FORMAT =
+            " AND (s.%1$s %2$s :sortValue OR (s.%1$s = :sortValue AND s.userId %2$s :id))";
+    private static final String ORDER_BY_FORMAT = " ORDER BY s.%1$s %2$s, s.userId %2$s";
+
+    private static final String ASC = "ASC";
+    private static final String DESC = "DESC";
+    private static final String GREATER_THAN = ">";
+    private static final String LESS_THAN = "<";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserStatsView> findViewRange(UserStatsSortType sortType, OrderingType orderingType, Keyset keyset,
+                int limit) {
+        // scrolling backward reads rows in reversed order, they are reversed back by the caller
+        boolean ascending = (orderingType != OrderingType.DESC) ^ keyset.isBackward();
+        String attributeName = sortType.getAttributeName();
+        StringBuilder query = new StringBuilder(SELECT_VIEWS_QUERY);
+
+        if (!keyset.isFirst()) {
+            query.append(String.format(SEEK_CONDITION_FORMAT, attributeName, ascending ? GREATER_THAN : LESS_THAN));
+        }
+
+        query.append(String.format(ORDER_BY_FORMAT, attributeName, ascending ? ASC : DESC));
+
+        TypedQuery<UserStatsView> typedQuery = entityManager.createQuery(query.toString(), UserStatsView.class)
+                .setMaxResults(limit);
+
+        if (!keyset.isFirst()) {
+            typedQuery.setParameter("sortValue", keyset.getSortValue())
+                    .setParameter("id", keyset.getId());
+        }
+
+        return typedQuery.getResultList();
+    }
+}
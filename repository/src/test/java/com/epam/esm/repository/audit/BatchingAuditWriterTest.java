@@ -0,0 +1,143 @@
+package com.epam.esm.repository.audit;
+
+import com.epam.esm.TestConfig;
+import com.epam.esm.entity.Tag;
+import com.epam.esm.entity.audit.AuditEntity;
+import com.epam.esm.entity.audit.AuditEvent;
+import com.epam.esm.repository.TagRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static java.time.ZoneOffset.UTC;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestPropertySource(properties = {
+        "spring.jpa.defer-datasource-initialization=true",
+        // the writer does not wake up by itself while tests are running
+        "audit.writer.flush-interval-ms=3600000",
+        "audit.writer.batch-size=100000",
+        "audit.writer.capacity=4",
+        "audit.writer.overflow-policy=SPILL",
+        "audit.writer.spill-path=${java.io.tmpdir}/batching-audit-writer-test-spill.log"
+})
+@Import(BatchingAuditWriter.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BatchingAuditWriterTest {
+    private static final String COUNT_QUERY = "SELECT COUNT(*) FROM audit_table WHERE entity_name = ?";
+
+    @Autowired
+    private BatchingAuditWriter auditWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Value("${audit.writer.spill-path}")
+    private String spillPath;
+
+    @AfterEach
+    void deleteSpillFile() throws IOException {
+        Files.deleteIfExists(Path.of(spillPath));
+        Files.deleteIfExists(Path.of(spillPath + ".draining"));
+        Files.deleteIfExists(Path.of(spillPath + ".rejected"));
+    }
+
+    @Test
+    void testEventsSpilledWhenBufferIsFull() throws IOException {
+        for (int i = 0; i < 6; i++) {
+            auditWriter.publish(provideEvent("SpilledEntity"));
+        }
+
+        List<String> spilledLines = Files.readAllLines(Path.of(spillPath));
+
+        assertEquals(4, auditWriter.getPendingCount());
+        assertEquals(2, auditWriter.getSpilledCount());
+        assertEquals(2, spilledLines.size());
+        assertEquals(List.of("CREATE", "SpilledEntity"), List.of(spilledLines.get(0).split("\t")).subList(0, 2));
+    }
+
+    @Test
+    void testPendingEventsWrittenOnStop() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            auditWriter.publish(provideEvent("StoppedEntity"));
+        }
+
+        auditWriter.stop();
+
+        assertEquals(3, jdbcTemplate.queryForObject(COUNT_QUERY, Integer.class, "StoppedEntity"));
+        assertEquals(0, auditWriter.getPendingCount());
+        assertEquals(0, auditWriter.getSpilledCount());
+    }
+
+    @Test
+    // events are written by the writer in its own transactions
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testEventRejectedWhenItCanNotBeWritten() throws IOException {
+        String tooLongEntityName = "R".repeat(300);
+        List<String> spilledLines = List.of(
+                provideLine("RejectingEntity"),
+                provideLine(tooLongEntityName),
+                provideLine("RejectingEntity")
+        );
+        Files.write(Path.of(spillPath), spilledLines);
+
+        ReflectionTestUtils.invokeMethod(auditWriter, "writeSpilledEvents");
+
+        List<String> rejectedLines = Files.readAllLines(Path.of(spillPath + ".rejected"));
+
+        assertEquals(2, jdbcTemplate.queryForObject(COUNT_QUERY, Integer.class, "RejectingEntity"));
+        assertEquals(1, auditWriter.getRejectedCount());
+        assertEquals(List.of(spilledLines.get(1)), rejectedLines);
+    }
+
+    @Test
+    void testEventsNotPublishedWhenTransactionRolledBack() {
+        tagRepository.saveAndFlush(new Tag(0, "rolled back tag"));
+        TestTransaction.flagForRollback();
+        TestTransaction.end();
+
+        assertEquals(0, auditWriter.getPendingCount());
+        assertEquals(0, auditWriter.getSpilledCount());
+    }
+
+    @Test
+    void testEventsPublishedAfterCommit() {
+        tagRepository.saveAndFlush(new Tag(0, "committed tag"));
+        assertEquals(0, auditWriter.getPendingCount());
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertEquals(1, auditWriter.getPendingCount());
+    }
+
+    private String provideLine(String entityName) {
+        return String.join("\t", "CREATE", entityName, "1", LocalDateTime.now(UTC).toString());
+    }
+
+    private AuditEvent provideEvent(String entityName) {
+        return new AuditEvent(AuditEntity.Operation.CREATE, entityName, 1, LocalDateTime.now(UTC));
+    }
+}
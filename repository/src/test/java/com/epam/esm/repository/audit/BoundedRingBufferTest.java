@@ -0,0 +1,69 @@
+package com.epam.esm.repository.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedRingBufferTest {
+    private static final int PRODUCERS = 4;
+    private static final int ELEMENTS_PER_PRODUCER = 20_000;
+
+    @Test
+    void testOfferWhenBufferIsFull() {
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(3);
+        List<Integer> drained = new ArrayList<>();
+
+        boolean allOffered = IntStream.range(0, 4).allMatch(buffer::offer);
+        boolean extraOffered = buffer.offer(4);
+        buffer.drainTo(drained, 2);
+
+        assertEquals(4, buffer.capacity());
+        assertTrue(allOffered);
+        assertFalse(extraOffered);
+        assertEquals(List.of(0, 1), drained);
+        assertTrue(buffer.offer(5));
+        assertEquals(3, buffer.size());
+    }
+
+    @Test
+    void testConcurrentProducers() throws Exception {
+        BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+        List<Future<?>> producers = new ArrayList<>();
+
+        for (int producer = 0; producer < PRODUCERS; producer++) {
+            int first = producer * ELEMENTS_PER_PRODUCER;
+            producers.add(executor.submit(() -> {
+                for (int element = first; element < first + ELEMENTS_PER_PRODUCER; element++) {
+                    while (!buffer.offer(element)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+
+        List<Integer> drained = new ArrayList<>();
+        while (drained.size() < PRODUCERS * ELEMENTS_PER_PRODUCER) {
+            buffer.drainTo(drained, 256);
+        }
+
+        for (Future<?> producer : producers) {
+            producer.get();
+        }
+        executor.shutdown();
+
+        // every element is received exactly once
+        List<Integer> expected = IntStream.range(0, PRODUCERS * ELEMENTS_PER_PRODUCER).boxed().toList();
+        assertEquals(expected, drained.stream().sorted().toList());
+        assertTrue(buffer.isEmpty());
+    }
+}
@@ -0,0 +1,107 @@
+package com.epam.esm.repository.audit;
+
+import com.epam.esm.entity.audit.AuditEntity;
+import com.epam.esm.entity.audit.AuditEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MappedAuditLogTest {
+    private static final LocalDateTime START = LocalDateTime.of(2021, 10, 1, 12, 0);
+    private static final int RECORDS_PER_SEGMENT = 3;
+
+    @TempDir
+    Path logDirectory;
+
+    private MappedAuditLog auditLog;
+
+    @BeforeEach
+    void openLog() throws IOException {
+        auditLog = provideLog();
+    }
+
+    @Test
+    void testSegmentsRolled() throws IOException {
+        List<AuditEvent> events = provideEvents(0, 7);
+        events.forEach(auditLog::publish);
+
+        List<AuditEvent> actual = auditLog.read(START, START.plusDays(1), 100);
+
+        assertEquals(3, countSegments());
+        assertEquals(events, actual);
+    }
+
+    @Test
+    void testReadByTimeRange() {
+        provideEvents(0, 10).forEach(auditLog::publish);
+
+        List<AuditEvent> actual = auditLog.read(START.plusMinutes(4), START.plusMinutes(8), 100);
+        List<AuditEvent> limited = auditLog.read(START.plusMinutes(4), START.plusMinutes(8), 2);
+
+        assertEquals(provideEvents(4, 8), actual);
+        assertEquals(provideEvents(4, 6), limited);
+    }
+
+    @Test
+    void testWritingContinuedAfterReopen() throws IOException {
+        provideEvents(0, 2).forEach(auditLog::publish);
+        auditLog.close();
+
+        MappedAuditLog reopenedLog = provideLog();
+        provideEvents(2, 4).forEach(reopenedLog::publish);
+
+        assertEquals(provideEvents(0, 4), reopenedLog.read(START, START.plusDays(1), 100));
+        assertEquals(2, countSegments());
+    }
+
+    @Test
+    void testOperationCodesStored() throws IOException {
+        AuditEvent event = new AuditEvent(AuditEntity.Operation.DELETE, "Tag", 1, START);
+        auditLog.publish(event);
+        auditLog.close();
+
+        byte[] segment = Files.readAllBytes(logDirectory.resolve(String.format("%020d.segment", 1)));
+
+        // codes are stored in existing files, they must not depend on the order of enum constants
+        assertEquals(AuditOperationType.DELETE.getCode(), segment[AuditLogSegment.HEADER_SIZE]);
+        assertEquals(3, AuditOperationType.DELETE.getCode());
+        assertEquals(List.of(event), auditLog.read(START, START.plusDays(1), 100));
+    }
+
+    private MappedAuditLog provideLog() throws IOException {
+        MappedAuditLog log = new MappedAuditLog();
+        ReflectionTestUtils.setField(log, "logPath", logDirectory.toString());
+        ReflectionTestUtils.setField(log, "segmentSize",
+                AuditLogSegment.HEADER_SIZE + RECORDS_PER_SEGMENT * AuditLogSegment.RECORD_SIZE);
+        log.open();
+
+        return log;
+    }
+
+    private List<AuditEvent> provideEvents(int fromMinute, int toMinute) {
+        AuditEntity.Operation[] operations = AuditEntity.Operation.values();
+        List<String> entityNames = List.of("GiftCertificate", "Tag", "Order", "User");
+
+        return IntStream.range(fromMinute, toMinute)
+                .mapToObj(minute -> new AuditEvent(operations[minute % operations.length],
+                        entityNames.get(minute % entityNames.size()), minute + 1, START.plusMinutes(minute)))
+                .toList();
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(logDirectory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.epam.esm.repository.impl;
+
+import com.epam.esm.TestConfig;
+import com.epam.esm.entity.audit.AuditEntity;
+import com.epam.esm.entity.audit.AuditRollup;
+import com.epam.esm.repository.AuditRollupRepository;
+import com.epam.esm.repository.audit.BatchingAuditWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestPropertySource(properties = {
+        "spring.jpa.defer-datasource-initialization=true",
+        // audit events are not written while tests are running
+        "audit.writer.flush-interval-ms=3600000",
+        "audit.writer.batch-size=100000"
+})
+@Import(BatchingAuditWriter.class)
+class AuditRollupRepositoryImplTest {
+    private static final String INSERT_EVENT_QUERY =
+            "INSERT INTO audit_table (id, operation, entity_name, timestamp) VALUES (?, ?, ?, ?)";
+    private static final String COUNT_EVENTS_QUERY = "SELECT COUNT(*) FROM audit_table";
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2021, 10, 1);
+    private static final LocalDate SECOND_DAY = LocalDate.of(2021, 10, 2);
+
+    @Autowired
+    private AuditRollupRepository rollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void insertEvents() {
+        insertEvent(1, "CREATE", "Tag", FIRST_DAY.atTime(0, 0));
+        insertEvent(2, "CREATE", "Tag", FIRST_DAY.atTime(23, 59, 59));
+        insertEvent(3, "DELETE", "Tag", FIRST_DAY.atTime(12, 0));
+        insertEvent(4, "CREATE", "Order", FIRST_DAY.atTime(12, 0));
+        insertEvent(5, "CREATE", "Tag", SECOND_DAY.atTime(0, 0));
+    }
+
+    @Test
+    void testRollUp() {
+        rollupRepository.rollUp(FIRST_DAY);
+        // repeated rollup recounts the day
+        insertEvent(6, "CREATE", "Order", FIRST_DAY.atTime(18, 0));
+        rollupRepository.rollUp(FIRST_DAY);
+
+        List<AuditRollup> expected = List.of(
+                new AuditRollup(FIRST_DAY, "Order", AuditEntity.Operation.CREATE, 2),
+                new AuditRollup(FIRST_DAY, "Tag", AuditEntity.Operation.CREATE, 2),
+                new AuditRollup(FIRST_DAY, "Tag", AuditEntity.Operation.DELETE, 1));
+
+        assertEquals(expected, rollupRepository.findByDateRange(FIRST_DAY, SECOND_DAY.plusDays(1)));
+        assertEquals(expected.subList(1, 3),
+                rollupRepository.findByDateRangeAndEntityName(FIRST_DAY, SECOND_DAY, "Tag"));
+    }
+
+    @Test
+    void testFindRawEventDays() {
+        assertEquals(List.of(FIRST_DAY), rollupRepository.findRawEventDays(SECOND_DAY));
+        assertEquals(List.of(FIRST_DAY, SECOND_DAY), rollupRepository.findRawEventDays(SECOND_DAY.plusDays(1)));
+    }
+
+    @Test
+    void testDeleteRawEvents() {
+        rollupRepository.deleteRawEvents(FIRST_DAY);
+
+        assertEquals(1, jdbcTemplate.queryForObject(COUNT_EVENTS_QUERY, Integer.class));
+        assertEquals(List.of(SECOND_DAY), rollupRepository.findRawEventDays(SECOND_DAY.plusDays(1)));
+    }
+
+    private void insertEvent(long id, String operation, String entityName, LocalDateTime timestamp) {
+        jdbcTemplate.update(INSERT_EVENT_QUERY, id, operation, entityName, timestamp);
+    }
+}
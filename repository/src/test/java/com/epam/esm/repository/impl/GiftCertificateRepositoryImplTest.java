@@ -2,23 +2,37 @@ package com.epam.esm.repository.impl;
 
 import com.epam.esm.TestConfig;
 import com.epam.esm.entity.GiftCertificate;
+import com.epam.esm.entity.Tag;
+import com.epam.esm.repository.CertificateTagLink;
 import com.epam.esm.repository.GiftCertificateRepository;
 import com.epam.esm.repository.GiftCertificateSpecificationBuilder;
+import com.epam.esm.repository.GiftCertificateView;
+import com.epam.esm.repository.Keyset;
 import com.epam.esm.repository.OrderingType;
+import com.epam.esm.repository.TagRepository;
+import com.epam.esm.repository.audit.BatchingAuditWriter;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
 
+import javax.persistence.EntityManagerFactory;
+
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -33,12 +47,26 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 @ContextConfiguration(classes = TestConfig.class)
 @TestPropertySource(properties = {
         // this makes JPA generate database schema before init script is called
-        "spring.jpa.defer-datasource-initialization=true"
+        "spring.jpa.defer-datasource-initialization=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=pooled-lo",
+        // audit events are not written while tests are running
+        "audit.writer.flush-interval-ms=3600000",
+        "audit.writer.batch-size=100000"
 })
+@Import(BatchingAuditWriter.class)
 class GiftCertificateRepositoryImplTest {
     @Autowired
     private GiftCertificateRepository certificateRepository;
 
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @ParameterizedTest
     @MethodSource("provideCertificateSearchParams")
     void testFindByParams(long expectedSize, List<String> tagNames, String certificateName,
@@ -63,6 +91,20 @@ class GiftCertificateRepositoryImplTest {
         assertTrue(valid && certificates.size() == expectedSize);
     }
 
+    @Test
+    void testFindByParamsIgnoringCase() {
+        Specification<GiftCertificate> specification = new GiftCertificateSpecificationBuilder()
+                .certificateName("HELLO", true)
+                .certificateDescription("Kenobi", true)
+                .build();
+        List<GiftCertificate> certificates = certificateRepository.findAll(specification);
+
+        assertTrue(certificates.size() == 1 && certificates.get(0).getName().equals("hello there"));
+        assertTrue(certificateRepository.findAll(new GiftCertificateSpecificationBuilder()
+                .certificateName("HELLO")
+                .build()).isEmpty());
+    }
+
     @Test
     void testSortByNameAscending() {
         Specification<GiftCertificate> specification = new GiftCertificateSpecificationBuilder()
@@ -116,6 +158,169 @@ class GiftCertificateRepositoryImplTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void testKeysetByNameAscending() {
+        List<GiftCertificate> expected = certificateRepository.findAll(new GiftCertificateSpecificationBuilder()
+                .orderByCertificateName(OrderingType.ASC)
+                .keyset(Keyset.first())
+                .build());
+
+        List<GiftCertificate> firstPage = certificateRepository.findRange(new GiftCertificateSpecificationBuilder()
+                .orderByCertificateName(OrderingType.ASC)
+                .keyset(Keyset.first())
+                .build(), 0, 2);
+        GiftCertificate last = firstPage.get(firstPage.size() - 1);
+        List<GiftCertificate> secondPage = certificateRepository.findRange(new GiftCertificateSpecificationBuilder()
+                .orderByCertificateName(OrderingType.ASC)
+                .keyset(new Keyset(last.getName(), last.getId(), false))
+                .build(), 0, 2);
+
+        List<GiftCertificate> actual = new ArrayList<>(firstPage);
+        actual.addAll(secondPage);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testKeysetBackward() {
+        Keyset keyset = new Keyset(null, 4L, true);
+        List<GiftCertificate> actual = certificateRepository.findRange(new GiftCertificateSpecificationBuilder()
+                .keyset(keyset)
+                .build(), 0, 2);
+
+        List<Long> actualIds = actual.stream()
+                .map(GiftCertificate::getId)
+                .toList();
+        assertEquals(List.of(3L, 2L), actualIds);
+    }
+
+    @Test
+    void testFindAllTagLinks() {
+        List<CertificateTagLink> links = certificateRepository.findAllTagLinks();
+
+        boolean valid = links.stream()
+                .allMatch(link -> link.getCertificateId() == 1 && link.getTagName().startsWith("tag"));
+        assertTrue(valid && links.size() == 2);
+    }
+
+    @Test
+    void testTagsOfPageLoadedInBatch() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<GiftCertificate> page = certificateRepository.findAll(new GiftCertificateSpecificationBuilder()
+                .certificateName("e")
+                .build(), PageRequest.of(0, 10));
+        page.forEach(certificate -> certificate.getTags().stream()
+                .map(Tag::getName)
+                .toList());
+
+        // page query (count is skipped for incomplete first page) and one batch of tags for all certificates
+        assertTrue(page.getNumberOfElements() > 1);
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindViewRange() {
+        List<GiftCertificate> expected = certificateRepository.findAll(new GiftCertificateSpecificationBuilder()
+                .orderByCertificateName(OrderingType.ASC)
+                .keyset(Keyset.first())
+                .build());
+        List<GiftCertificateView> actual = certificateRepository.findViewRange(new GiftCertificateSpecificationBuilder()
+                .orderByCertificateName(OrderingType.ASC)
+                .keyset(Keyset.first())
+                .build(), 0, expected.size());
+
+        List<Long> expectedIds = expected.stream()
+                .map(GiftCertificate::getId)
+                .toList();
+        List<Long> actualIds = actual.stream()
+                .map(GiftCertificateView::getId)
+                .toList();
+        GiftCertificateView viewWithTags = actual.stream()
+                .filter(view -> view.getId() == 1)
+                .findAny()
+                .get();
+
+        assertEquals(expectedIds, actualIds);
+        assertEquals(List.of("tag1", "tag2"), viewWithTags.getTagNames().stream().sorted().toList());
+    }
+
+    @Test
+    void testStreamViews() {
+        List<List<GiftCertificateView>> chunks = new ArrayList<>();
+        certificateRepository.streamViews(new GiftCertificateSpecificationBuilder()
+                .keyset(Keyset.first())
+                .build(), 3, chunks::add);
+
+        List<Long> actualIds = chunks.stream()
+                .flatMap(List::stream)
+                .map(GiftCertificateView::getId)
+                .toList();
+        List<Integer> chunkSizes = chunks.stream()
+                .map(List::size)
+                .toList();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), actualIds);
+        assertEquals(List.of(3, 1), chunkSizes);
+    }
+
+    @Test
+    void testInsertAll() {
+        List<Tag> importedTags = tagRepository.findOrCreateAllByName(List.of("imported"));
+
+        GiftCertificate firstCertificate = provideCertificate();
+        firstCertificate.setTags(importedTags);
+        GiftCertificate secondCertificate = provideCertificate();
+        certificateRepository.insertAll(List.of(firstCertificate, secondCertificate));
+
+        List<GiftCertificateView> actual = certificateRepository.findViewRange(new GiftCertificateSpecificationBuilder()
+                .certificateIds(List.of(firstCertificate.getId(), secondCertificate.getId()))
+                .keyset(Keyset.first())
+                .build(), 0, 2);
+
+        assertTrue(firstCertificate.getId() > 0 && secondCertificate.getId() > firstCertificate.getId());
+        assertEquals(2, actual.size());
+        assertEquals(List.of("imported"), actual.get(0).getTagNames());
+        assertTrue(actual.get(1).getTagNames().isEmpty());
+    }
+
+    @Test
+    void testCreatedCertificatesInsertedInBatch() {
+        List<GiftCertificate> certificates = Stream.generate(this::provideCertificate)
+                .limit(20)
+                .toList();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        certificateRepository.saveAllAndFlush(certificates);
+
+        // ids of certificates are taken from a pooled sequence block and their inserts are batched,
+        // audit records are written later by a background writer
+        assertEquals(certificates.size(), statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 3);
+    }
+
+    @Test
+    void testFindOrCreateAllTagsByName() {
+        List<Tag> tags = tagRepository.findOrCreateAllByName(List.of("tag1", "created"));
+        List<Tag> repeatedTags = tagRepository.findOrCreateAllByName(List.of("created"));
+
+        Tag existingTag = tags.stream()
+                .filter(tag -> tag.getName().equals("tag1"))
+                .findAny()
+                .get();
+        Tag createdTag = tags.stream()
+                .filter(tag -> tag.getName().equals("created"))
+                .findAny()
+                .get();
+
+        assertEquals(2, tags.size());
+        assertEquals(tagRepository.findByName("tag1").get().getId(), existingTag.getId());
+        assertTrue(createdTag.getId() > 0);
+        assertEquals(List.of(createdTag), repeatedTags);
+    }
+
     @Test
     void testFindById() {
         Optional<GiftCertificate> certificate = certificateRepository.findById(1L);
@@ -128,6 +333,27 @@ class GiftCertificateRepositoryImplTest {
         assertTrue(certificate.isEmpty());
     }
 
+    @Test
+    void testFindLastUpdateDateById() {
+        Optional<LocalDateTime> lastUpdateDate = certificateRepository.findLastUpdateDateById(1);
+        Optional<LocalDateTime> missingLastUpdateDate = certificateRepository.findLastUpdateDateById(0);
+
+        assertEquals(Optional.of(LocalDateTime.of(2021, 9, 25, 0, 0)), lastUpdateDate);
+        assertTrue(missingLastUpdateDate.isEmpty());
+    }
+
+    @Test
+    void testUpdateLastUpdateDateByTagId() {
+        LocalDateTime lastUpdateDate = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+        int updatedCount = certificateRepository.updateLastUpdateDateByTagId(1, lastUpdateDate);
+
+        assertEquals(1, updatedCount);
+        assertEquals(Optional.of(lastUpdateDate), certificateRepository.findLastUpdateDateById(1));
+        assertEquals(Optional.of(LocalDateTime.of(2021, 9, 25, 0, 0)),
+                certificateRepository.findLastUpdateDateById(2));
+    }
+
     @Test
     void testCreate() {
         GiftCertificate expectedCertificate = provideCertificate();
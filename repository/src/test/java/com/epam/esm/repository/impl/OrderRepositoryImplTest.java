@@ -0,0 +1,157 @@
+package com.epam.esm.repository.impl;
+
+import com.epam.esm.TestConfig;
+import com.epam.esm.entity.GiftCertificate;
+import com.epam.esm.entity.Order;
+import com.epam.esm.entity.Tag;
+import com.epam.esm.entity.User;
+import com.epam.esm.repository.GiftCertificateRepository;
+import com.epam.esm.repository.OrderRepository;
+import com.epam.esm.repository.TagRepository;
+import com.epam.esm.repository.UserRepository;
+import com.epam.esm.repository.audit.BatchingAuditWriter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestPropertySource(properties = {
+        "spring.jpa.defer-datasource-initialization=true",
+        // audit events are not written while tests are running
+        "audit.writer.flush-interval-ms=3600000",
+        "audit.writer.batch-size=100000"
+})
+@Import(BatchingAuditWriter.class)
+class OrderRepositoryImplTest {
+    private static final String SELECT_USER_STATS_QUERY =
+            "SELECT id_user, order_count, total_cost, last_purchase_date FROM user_stats ORDER BY id_user";
+    private static final String SELECT_TAG_USAGE_QUERY =
+            "SELECT id_user, id_tag, usage_count FROM user_tag_usage ORDER BY id_user, id_tag";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GiftCertificateRepository certificateRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testAddToStatistics() {
+        User firstUser = provideUser("first");
+        User secondUser = provideUser("second");
+        // certificate 1 has tags 1 and 2, certificate 2 has no tags
+        List<Order> orders = orderRepository.saveAll(List.of(
+                provideOrder(firstUser, 1L, 1L, 2L),
+                provideOrder(secondUser, 1L)));
+        orderRepository.addToStatistics(orders);
+        orderRepository.addToStatistics(List.of(orderRepository.save(provideOrder(secondUser, 1L, 1L))));
+
+        List<Map<String, Object>> expectedUserStats = jdbcTemplate.queryForList(SELECT_USER_STATS_QUERY);
+        List<Map<String, Object>> expectedTagUsage = jdbcTemplate.queryForList(SELECT_TAG_USAGE_QUERY);
+        Tag mostUsedTag = tagRepository.findMostWidelyUsedTagByStatistics().orElseThrow();
+
+        orderRepository.rebuildStatistics();
+
+        assertEquals(expectedUserStats, jdbcTemplate.queryForList(SELECT_USER_STATS_QUERY));
+        assertEquals(expectedTagUsage, jdbcTemplate.queryForList(SELECT_TAG_USAGE_QUERY));
+        assertEquals(6, expectedTagUsage.size() + expectedUserStats.size());
+        assertEquals(tagRepository.findMostWidelyUsedTag(), tagRepository.findMostWidelyUsedTagByStatistics());
+        assertEquals(1, mostUsedTag.getId());
+    }
+
+    @Test
+    void testRebuildStatisticsAfterTagsChanged() {
+        User user = provideUser("user");
+        orderRepository.addToStatistics(List.of(orderRepository.save(provideOrder(user, 1L, 2L))));
+
+        GiftCertificate certificate = certificateRepository.findById(2L).orElseThrow();
+        certificate.setTags(new ArrayList<>(List.of(tagRepository.findById(3L).orElseThrow())));
+        certificateRepository.saveAndFlush(certificate);
+
+        orderRepository.rebuildStatistics();
+
+        assertEquals(3, jdbcTemplate.queryForList(SELECT_TAG_USAGE_QUERY).size());
+        assertEquals(tagRepository.findMostWidelyUsedTag(), tagRepository.findMostWidelyUsedTagByStatistics());
+    }
+
+    @Test
+    void testStatisticsMaintainedWhenTagsChanged() {
+        User user = provideUser("user");
+        orderRepository.addToStatistics(List.of(orderRepository.save(provideOrder(user, 1L, 1L, 2L))));
+
+        orderRepository.removeCertificateFromStatistics(1L);
+        GiftCertificate certificate = certificateRepository.findById(1L).orElseThrow();
+        certificate.setTags(new ArrayList<>(List.of(tagRepository.findById(3L).orElseThrow())));
+        certificateRepository.save(certificate);
+        orderRepository.addCertificateToStatistics(1L);
+
+        List<Map<String, Object>> maintainedTagUsage = jdbcTemplate.queryForList(SELECT_TAG_USAGE_QUERY);
+        orderRepository.rebuildStatistics();
+
+        assertEquals(jdbcTemplate.queryForList(SELECT_TAG_USAGE_QUERY), maintainedTagUsage);
+    }
+
+    @Test
+    void testStatisticsMaintainedWhenCertificateDeleted() {
+        User user = provideUser("user");
+        orderRepository.addToStatistics(List.of(orderRepository.save(provideOrder(user, 1L, 2L))));
+
+        orderRepository.removeCertificateFromStatistics(1L);
+        // schema.sql deletes links to orders with ON DELETE CASCADE, the generated test schema does not
+        jdbcTemplate.update("DELETE FROM certificate_order WHERE id_certificate = 1");
+        certificateRepository.deleteById(1L);
+        certificateRepository.flush();
+
+        List<Map<String, Object>> maintainedTagUsage = jdbcTemplate.queryForList(SELECT_TAG_USAGE_QUERY);
+        orderRepository.rebuildStatistics();
+
+        assertEquals(jdbcTemplate.queryForList(SELECT_TAG_USAGE_QUERY), maintainedTagUsage);
+    }
+
+    private User provideUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+
+        return userRepository.save(user);
+    }
+
+    private Order provideOrder(User user, Long... certificateIds) {
+        List<GiftCertificate> certificates = new ArrayList<>();
+
+        for (long certificateId : certificateIds) {
+            certificates.add(certificateRepository.findById(certificateId).orElseThrow());
+        }
+
+        Order order = new Order();
+        order.setUser(user);
+        order.setPurchaseDate(LocalDateTime.now());
+        order.setCertificates(certificates);
+        order.setCost(certificates.stream()
+                .map(GiftCertificate::getPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+
+        return order;
+    }
+}
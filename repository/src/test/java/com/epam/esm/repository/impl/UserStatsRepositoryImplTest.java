@@ -0,0 +1,99 @@
+package com.epam.esm.repository.impl;
+
+import com.epam.esm.TestConfig;
+import com.epam.esm.entity.User;
+import com.epam.esm.entity.UserStats;
+import com.epam.esm.repository.Keyset;
+import com.epam.esm.repository.OrderingType;
+import com.epam.esm.repository.UserRepository;
+import com.epam.esm.repository.UserStatsRepository;
+import com.epam.esm.repository.UserStatsSortType;
+import com.epam.esm.repository.UserStatsView;
+import com.epam.esm.repository.audit.BatchingAuditWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ContextConfiguration(classes = TestConfig.class)
+@TestPropertySource(properties = {
+        "spring.jpa.defer-datasource-initialization=true",
+        // audit events are not written while tests are running
+        "audit.writer.flush-interval-ms=3600000",
+        "audit.writer.batch-size=100000"
+})
+@Import(BatchingAuditWriter.class)
+class UserStatsRepositoryImplTest {
+    private static final LocalDateTime PURCHASE_DATE = LocalDateTime.of(2021, 10, 1, 12, 0);
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private List<Long> userIds;
+
+    @BeforeEach
+    void setUp() {
+        // the first two users spent the same amount, so they are ordered by id
+        userIds = List.of(
+                provideStats("first", 1, "10.00", 3),
+                provideStats("second", 3, "30.00", 1),
+                provideStats("third", 2, "30.00", 2),
+                provideStats("fourth", 4, "5.00", 0));
+    }
+
+    @Test
+    void testFindViewRangeScrollsForward() {
+        List<UserStatsView> firstPage = userStatsRepository.findViewRange(UserStatsSortType.TOTAL_COST,
+                OrderingType.DESC, Keyset.first(), 2);
+        UserStatsView last = firstPage.get(firstPage.size() - 1);
+        List<UserStatsView> secondPage = userStatsRepository.findViewRange(UserStatsSortType.TOTAL_COST,
+                OrderingType.DESC, new Keyset(last.getTotalCost(), last.getUserId(), false), 2);
+
+        assertEquals(List.of(userIds.get(2), userIds.get(1)), toUserIds(firstPage));
+        assertEquals(List.of(userIds.get(0), userIds.get(3)), toUserIds(secondPage));
+        assertEquals("third", firstPage.get(0).getUsername());
+    }
+
+    @Test
+    void testFindViewRangeScrollsBackward() {
+        UserStatsView third = userStatsRepository.findViewRange(UserStatsSortType.LAST_PURCHASE_DATE,
+                OrderingType.ASC, Keyset.first(), 3).get(2);
+        List<UserStatsView> previousRows = userStatsRepository.findViewRange(UserStatsSortType.LAST_PURCHASE_DATE,
+                OrderingType.ASC, new Keyset(third.getLastPurchaseDate(), third.getUserId(), true), 10);
+
+        // rows are read in reversed order when scrolling backward
+        assertEquals(userIds.get(2), third.getUserId());
+        assertEquals(List.of(userIds.get(1), userIds.get(3)), toUserIds(previousRows));
+    }
+
+    private long provideStats(String username, long orderCount, String totalCost, int purchaseDayOffset) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        long userId = userRepository.save(user).getId();
+
+        userStatsRepository.save(new UserStats(userId, orderCount, new BigDecimal(totalCost),
+                PURCHASE_DATE.plusDays(purchaseDayOffset)));
+
+        return userId;
+    }
+
+    private static List<Long> toUserIds(List<UserStatsView> views) {
+        return views.stream()
+                .map(UserStatsView::getUserId)
+                .toList();
+    }
+}
@@ -0,0 +1,119 @@
+package com.epam.esm.cache;
+
+import com.epam.esm.dto.CacheStatsDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Bounded in-memory cache of authentications built from validated JWTs, keyed by SHA-256 digest of the token,
+ * so raw tokens are not kept in memory.
+ *
+ * Clients send the same token with every request until it expires, a cached authentication saves verification
+ * of the signature and conversion of claims. Every entry expires at {@code exp} claim of its token, tokens
+ * without it are not cached. Failed validations are not cached either. Only the decoded token and its authorities
+ * are cached, every call returns a new authentication without details, so nothing of one request is seen
+ * by another.
+ *
+ * @author Dmitry Karnyshov
+ */
+@Component
+public class AuthenticationCache {
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private Cache<String, JwtAuthenticationToken> cache;
+
+    @Value("${certificates.authentication-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${certificates.authentication-cache.max-size:10000}")
+    private long maxSize;
+
+    @PostConstruct
+    protected void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get authentication of the token built from the cached one or with the authenticator. Exceptions
+     * of the authenticator are propagated and nothing is cached in that case.
+     *
+     * @param token encoded JWT
+     * @param authenticator function that validates the token and builds its authentication
+     * @return new {@link JwtAuthenticationToken} object without details
+     */
+    public JwtAuthenticationToken get(String token, Function<String, JwtAuthenticationToken> authenticator) {
+        JwtAuthenticationToken authentication = enabled
+                ? cache.get(digest(token), tokenDigest -> copy(authenticator.apply(token)))
+                : authenticator.apply(token);
+
+        return copy(authentication);
+    }
+
+    /**
+     * @return hit, miss and eviction counters of the cache
+     */
+    public CacheStatsDto getStats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDto(enabled, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    private static JwtAuthenticationToken copy(JwtAuthenticationToken authentication) {
+        // Jwt and the list of authorities are immutable, so they are shared
+        return new JwtAuthenticationToken(authentication.getToken(), authentication.getAuthorities(),
+                authentication.getName());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance(DIGEST_ALGORITHM)
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<String, JwtAuthenticationToken> {
+        @Override
+        public long expireAfterCreate(String tokenDigest, JwtAuthenticationToken authentication, long currentTime) {
+            Instant expiresAt = authentication.getToken().getExpiresAt();
+
+            // an entry with zero duration is expired at once, so a token without expiration is validated every time
+            return expiresAt != null
+                    ? Math.max(Duration.between(Instant.now(), expiresAt).toNanos(), 0)
+                    : 0;
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenDigest, JwtAuthenticationToken authentication, long currentTime,
+                    long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String tokenDigest, JwtAuthenticationToken authentication, long currentTime,
+                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
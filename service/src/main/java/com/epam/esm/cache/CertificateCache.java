@@ -0,0 +1,115 @@
+package com.epam.esm.cache;
+
+import com.epam.esm.dto.CacheStatsDto;
+import com.epam.esm.dto.GiftCertificateDto;
+import com.epam.esm.transaction.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded in-memory cache of {@link GiftCertificateDto} objects by certificate id.
+ *
+ * Entries are evicted when the cache exceeds its maximum size (rarely used entries first) or when they
+ * are older than TTL, which also bounds staleness caused by changes made bypassing the service layer.
+ * Invalidation is applied after commit of the modifying transaction. A load of the same key that is in flight
+ * at that moment is waited for, so a value read before commit does not stay in the cache.
+ * Cached objects are shared between callers and must not be modified.
+ *
+ * @author Dmitry Karnyshov
+ */
+@Component
+public class CertificateCache {
+    private Cache<Long, GiftCertificateDto> cache;
+
+    @Value("${certificates.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${certificates.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${certificates.cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @PostConstruct
+    protected void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get cached certificate or load it with the loader. Exceptions of the loader are propagated
+     * and nothing is cached in that case.
+     *
+     * @param id certificate id
+     * @param loader function that loads certificate from the database
+     * @return {@link GiftCertificateDto} object
+     */
+    public GiftCertificateDto get(long id, LongFunction<GiftCertificateDto> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+
+        return cache.get(id, loader::apply);
+    }
+
+    /**
+     * Get cached certificate without loading it.
+     *
+     * @param id certificate id
+     * @return {@link Optional} with {@link GiftCertificateDto} object, empty if the certificate is not cached
+     */
+    public Optional<GiftCertificateDto> getIfPresent(long id) {
+        return enabled
+                ? Optional.ofNullable(cache.getIfPresent(id))
+                : Optional.empty();
+    }
+
+    /**
+     * Remove the certificate from the cache after commit.
+     *
+     * @param id certificate id
+     */
+    public void invalidate(long id) {
+        afterCommit(() -> cache.invalidate(id));
+    }
+
+    /**
+     * Remove all certificates having the tag from the cache after commit.
+     *
+     * @param tagName tag name
+     */
+    public void invalidateTag(String tagName) {
+        // only cached entries are checked, so the cost does not depend on the size of catalog
+        afterCommit(() -> cache.asMap()
+                .values()
+                .removeIf(certificate -> certificate.getTags().contains(tagName)));
+    }
+
+    /**
+     * @return hit, miss and eviction counters of the cache
+     */
+    public CacheStatsDto getStats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDto(enabled, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    private void afterCommit(Runnable invalidation) {
+        if (!enabled) {
+            return;
+        }
+
+        AfterCommit.run(invalidation);
+    }
+}
@@ -0,0 +1,115 @@
+package com.epam.esm.cache;
+
+import com.epam.esm.pagination.PageContext;
+import com.epam.esm.transaction.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-memory cache of certificate search result pages keyed by normalized search parameters
+ * and page context.
+ *
+ * Instead of finding the pages a write affects, every key contains the catalog version, which is incremented
+ * after commit of any certificate or tag write. Pages cached before the increment are never looked up again,
+ * so once a write has returned, no page read before it is served. Concurrent requests for the same missing
+ * page wait for a single load. Cached pages are shared between callers and must not be modified.
+ * The catalog version is maintained even when the cache is disabled, since it also validates
+ * conditional requests of certificate lists.
+ *
+ * @author Dmitry Karnyshov
+ */
+@Component
+public class CertificateSearchCache {
+    private static final String CATALOG_VERSION_TAG_FORMAT = "%d.%d";
+
+    // versions are counted from zero after restart, so they are qualified with start time
+    private final long startTime = System.currentTimeMillis();
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private Cache<SearchKey, Object> cache;
+
+    @Value("${certificates.search-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${certificates.search-cache.max-size:1000}")
+    private long maxSize;
+
+    @Value("${certificates.search-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @PostConstruct
+    protected void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Get cached result page or load it with the loader. Exceptions of the loader are propagated
+     * and nothing is cached in that case.
+     *
+     * @param resultType kind of result (e.g. page or slice), results of different kinds are cached separately
+     * @param searchParams normalized search parameters, must implement equals and hashCode
+     * @param pageContext {@link PageContext} object
+     * @param loader function that reads the page from the database
+     * @param <T> type of result page
+     * @return result page
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String resultType, Object searchParams, PageContext pageContext, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        SearchKey key = new SearchKey(catalogVersion.get(), resultType, searchParams, pageContext);
+        return (T) cache.get(key, searchKey -> loader.get());
+    }
+
+    /**
+     * Increment catalog version after commit, so all cached pages become outdated.
+     */
+    public void invalidateAll() {
+        Runnable invalidation = () -> {
+            catalogVersion.incrementAndGet();
+
+            // outdated pages are never read again, they are removed only to release memory
+            if (enabled) {
+                cache.invalidateAll();
+            }
+        };
+
+        AfterCommit.run(invalidation);
+    }
+
+    /**
+     * @return current catalog version
+     */
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    /**
+     * @return current catalog version qualified with start time, it is not repeated after restart
+     */
+    public String getCatalogVersionTag() {
+        return String.format(CATALOG_VERSION_TAG_FORMAT, startTime, catalogVersion.get());
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class SearchKey {
+        private final long catalogVersion;
+        private final String resultType;
+        private final Object searchParams;
+        private final PageContext pageContext;
+    }
+}
@@ -0,0 +1,248 @@
+package com.epam.esm.cache;
+
+import com.epam.esm.dto.TagDto;
+import com.epam.esm.entity.Tag;
+import com.epam.esm.repository.TagRepository;
+import com.epam.esm.transaction.AfterCommit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory dictionary of tag names to ids. The tag vocabulary is small and rarely changes, so names
+ * of certificate tags are resolved with map lookups and the database is queried only for new tags.
+ *
+ * Dictionary is loaded at startup and then maintained incrementally, modifications made inside a transaction
+ * are applied only after commit from tags read at that moment. Lookups do not lock. Until the dictionary is loaded, or when it is disabled,
+ * nothing is found and callers fall back to the database.
+ *
+ * Every modification that adds or removes a tag increments the version of the dictionary. Serialized
+ * {@link TagDictionarySnapshot} is built on the first request after the version is changed and then reused.
+ *
+ * @author Dmitry Karnyshov
+ */
+@Component
+public class TagDictionary {
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Map<String, Long> tagIds = new ConcurrentHashMap<>();
+    // modifications wait for loading, so a tag deleted while tags are read is not brought back
+    private final Object modificationLock = new Object();
+    private volatile boolean loaded;
+    // changed only while modification lock is held
+    private volatile long version;
+    private volatile TagDictionarySnapshot snapshot;
+
+    private TagRepository tagRepository;
+    private ObjectMapper objectMapper;
+
+    @Value("${certificates.tag-dictionary.enabled:true}")
+    private boolean enabled;
+
+    public TagDictionary(TagRepository tagRepository, ObjectMapper objectMapper) {
+        this.tagRepository = tagRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Load the whole dictionary from {@code tag} table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (modificationLock) {
+            List<Tag> tags = tagRepository.findAll();
+            tagIds.clear();
+            tags.forEach(tag -> tagIds.put(tag.getName(), tag.getId()));
+            version++;
+            loaded = true;
+        }
+
+        logger.info("Tag dictionary loaded: {} tags", tagIds.size());
+    }
+
+    /**
+     * @return {@code true} if lookups answer for the whole vocabulary (an absent name is not an existing tag)
+     */
+    public boolean isLoaded() {
+        return enabled && loaded;
+    }
+
+    /**
+     * Find id of the tag.
+     *
+     * @param tagName tag name
+     * @return id of the tag or empty optional if tag is unknown
+     */
+    public Optional<Long> findId(String tagName) {
+        return isLoaded() ? Optional.ofNullable(tagIds.get(tagName)) : Optional.empty();
+    }
+
+    /**
+     * Find ids of known tags.
+     *
+     * @param tagNames names of tags
+     * @return map of tag names to ids, unknown names are absent
+     */
+    public Map<String, Long> findIds(Collection<String> tagNames) {
+        Map<String, Long> foundIds = new HashMap<>();
+
+        if (isLoaded()) {
+            for (String tagName : tagNames) {
+                Long id = tagIds.get(tagName);
+
+                if (id != null) {
+                    foundIds.put(tagName, id);
+                }
+            }
+        }
+
+        return foundIds;
+    }
+
+    /**
+     * Find ids of known tags that still exist in the database, checked with one query. The dictionary can be
+     * stale: a tag could be deleted by another instance, by a transaction whose removal is not applied yet
+     * or directly in the database. Such entries are evicted and absent from the result, so callers resolve
+     * these names in the database instead of writing links to missing tags.
+     *
+     * @param tagNames names of tags
+     * @return map of tag names to ids of existing tags, unknown names are absent
+     */
+    public Map<String, Long> findExistingIds(Collection<String> tagNames) {
+        Map<String, Long> foundIds = findIds(tagNames);
+
+        if (foundIds.isEmpty()) {
+            return foundIds;
+        }
+
+        Set<Long> existingIds = new HashSet<>(tagRepository.findExistingIds(foundIds.values()));
+        foundIds.entrySet().removeIf(entry -> {
+            if (existingIds.contains(entry.getValue())) {
+                return false;
+            }
+
+            evict(entry.getKey(), entry.getValue());
+            return true;
+        });
+
+        return foundIds;
+    }
+
+    /**
+     * Get serialized list of all tags. Until the dictionary is loaded, or when it is disabled,
+     * the snapshot is built from the database on every call.
+     *
+     * @return {@link TagDictionarySnapshot} object
+     */
+    public TagDictionarySnapshot getSnapshot() {
+        if (!isLoaded()) {
+            List<TagDto> tags = tagRepository.findAll().stream()
+                    .sorted(Comparator.comparingLong(Tag::getId))
+                    .map(TagDto::fromTag)
+                    .toList();
+            return TagDictionarySnapshot.of(0, tags, objectMapper);
+        }
+
+        TagDictionarySnapshot currentSnapshot = snapshot;
+
+        if (currentSnapshot != null && currentSnapshot.getVersion() == version) {
+            return currentSnapshot;
+        }
+
+        synchronized (modificationLock) {
+            // another thread could have built it while this one was waiting for the lock
+            if (snapshot == null || snapshot.getVersion() != version) {
+                List<TagDto> tags = tagIds.entrySet().stream()
+                        .map(entry -> TagDto.fromTag(new Tag(entry.getValue(), entry.getKey())))
+                        .sorted(Comparator.comparingLong(TagDto::getId))
+                        .toList();
+                snapshot = TagDictionarySnapshot.of(version, tags, objectMapper);
+            }
+
+            return snapshot;
+        }
+    }
+
+    /**
+     * Add tags (created or found in the database) to the dictionary.
+     *
+     * @param tags list of {@link Tag} objects
+     */
+    public void putAll(Collection<Tag> tags) {
+        List<String> tagNames = tags.stream()
+                .map(Tag::getName)
+                .toList();
+        afterCommit(() -> refresh(tagNames));
+    }
+
+    /**
+     * Remove the tag from the dictionary.
+     *
+     * @param tagName tag name
+     */
+    public void remove(String tagName) {
+        afterCommit(() -> refresh(List.of(tagName)));
+    }
+
+    private void refresh(List<String> tagNames) {
+        Map<String, Long> committedIds = new HashMap<>();
+        tagRepository.findByNameIn(tagNames).forEach(tag -> committedIds.put(tag.getName(), tag.getId()));
+
+        for (String tagName : tagNames) {
+            Long committedId = committedIds.get(tagName);
+            Long previousId = committedId != null
+                    ? tagIds.put(tagName, committedId)
+                    : tagIds.remove(tagName);
+
+            // tags that are already known do not make the snapshot outdated
+            if (!Objects.equals(previousId, committedId)) {
+                version++;
+            }
+        }
+    }
+
+    private void evict(String tagName, long tagId) {
+        synchronized (modificationLock) {
+            // the tag could have been created again under the same name meanwhile
+            if (tagIds.remove(tagName, tagId)) {
+                version++;
+                logger.warn("Stale tag '{}' with id {} is evicted from tag dictionary", tagName, tagId);
+            }
+        }
+    }
+
+    private void afterCommit(Runnable modification) {
+        if (!enabled) {
+            return;
+        }
+
+        // callbacks of different transactions run in no particular order, so every modification reads
+        // the committed tags under the lock instead of applying the state of its own transaction
+        Runnable lockedModification = () -> {
+            synchronized (modificationLock) {
+                modification.run();
+            }
+        };
+
+        AfterCommit.run(lockedModification);
+    }
+}
@@ -0,0 +1,66 @@
+package com.epam.esm.cache;
+
+import com.epam.esm.dto.TagDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * All tags serialized to a JSON array ordered by id, with the same array compressed in advance.
+ *
+ * The digest of JSON is used as ETag, so it does not depend on the instance and survives restarts.
+ * Arrays are shared by all requests and must not be modified.
+ *
+ * @author Dmitry Karnyshov
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TagDictionarySnapshot {
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final long version;
+    private final int size;
+    private final byte[] json;
+    private final byte[] gzippedJson;
+    private final String digest;
+
+    /**
+     * Serialize and compress tags.
+     *
+     * @param version version of {@link TagDictionary} the tags are taken from
+     * @param tags list of {@link TagDto} objects ordered by id
+     * @param objectMapper {@link ObjectMapper} instance to serialize tags with
+     * @return new {@link TagDictionarySnapshot} object
+     */
+    static TagDictionarySnapshot of(long version, List<TagDto> tags, ObjectMapper objectMapper) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(tags);
+            ByteArrayOutputStream gzippedJson = new ByteArrayOutputStream();
+
+            try (GZIPOutputStream outputStream = new GZIPOutputStream(gzippedJson)) {
+                outputStream.write(json);
+            }
+
+            String digest = Base64.getUrlEncoder()
+                    .withoutPadding()
+                    .encodeToString(MessageDigest.getInstance(DIGEST_ALGORITHM).digest(json));
+
+            return new TagDictionarySnapshot(version, tags.size(), json, gzippedJson.toByteArray(), digest);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.epam.esm.dto;
+
+import com.epam.esm.entity.audit.AuditEvent;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class AuditEventDto {
+    private static final String ISO_8601_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
+    private static final String UTC_ZONE = "UTC";
+
+    private String operation;
+    private String entityName;
+    private long entityId;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = ISO_8601_FORMAT, timezone = UTC_ZONE)
+    private LocalDateTime timestamp;
+
+    public static AuditEventDto fromEvent(AuditEvent event) {
+        AuditEventDto eventDto = new AuditEventDto();
+
+        eventDto.setOperation(event.getOperation().name());
+        eventDto.setEntityName(event.getEntityName());
+        eventDto.setEntityId(event.getEntityId());
+        eventDto.setTimestamp(event.getTimestamp());
+
+        return eventDto;
+    }
+}
@@ -0,0 +1,27 @@
+package com.epam.esm.dto;
+
+import com.epam.esm.entity.audit.AuditRollup;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+public class AuditStatisticsDto {
+    private LocalDate date;
+    private String entityName;
+    private String operation;
+    private long count;
+
+    public static AuditStatisticsDto fromRollup(AuditRollup rollup) {
+        AuditStatisticsDto statisticsDto = new AuditStatisticsDto();
+
+        statisticsDto.setDate(rollup.getEventDate());
+        statisticsDto.setEntityName(rollup.getEntityName());
+        statisticsDto.setOperation(rollup.getOperation().name());
+        statisticsDto.setCount(rollup.getEventCount());
+
+        return statisticsDto;
+    }
+}
@@ -0,0 +1,18 @@
+package com.epam.esm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counters of the background writer of audit events since application start.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditWriterStatsDto {
+    private int pendingCount;
+    private long droppedCount;
+    private long spilledCount;
+    private long rejectedCount;
+}
@@ -0,0 +1,20 @@
+package com.epam.esm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counters of an in-memory cache since application start.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDto {
+    private boolean enabled;
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+}
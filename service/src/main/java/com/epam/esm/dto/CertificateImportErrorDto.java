@@ -0,0 +1,18 @@
+package com.epam.esm.dto;
+
+import com.epam.esm.validator.ValidationError;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CertificateImportErrorDto {
+    // number of rejected row in imported data (starting from 1)
+    private long row;
+    private String entityName;
+    private List<ValidationError> validationErrors;
+}
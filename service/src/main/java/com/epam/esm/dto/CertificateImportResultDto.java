@@ -0,0 +1,14 @@
+package com.epam.esm.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class CertificateImportResultDto {
+    private long importedCount;
+    private List<CertificateImportErrorDto> errors = new ArrayList<>();
+}
@@ -4,6 +4,7 @@ import com.epam.esm.dto.mapping.DayDurationDeserializer;
 import com.epam.esm.dto.mapping.DayDurationSerializer;
 import com.epam.esm.entity.GiftCertificate;
 import com.epam.esm.entity.Tag;
+import com.epam.esm.repository.GiftCertificateView;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -71,4 +72,19 @@ public class GiftCertificateDto extends IdentifiableDto {
 
         return certificateDto;
     }
+
+    public static GiftCertificateDto fromView(GiftCertificateView view) {
+        GiftCertificateDto certificateDto = new GiftCertificateDto();
+
+        certificateDto.setId(view.getId());
+        certificateDto.setName(view.getName());
+        certificateDto.setDescription(view.getDescription());
+        certificateDto.setPrice(view.getPrice());
+        certificateDto.setDuration(view.getDuration());
+        certificateDto.setCreateDate(view.getCreateDate());
+        certificateDto.setLastUpdateDate(view.getLastUpdateDate());
+        certificateDto.setTags(view.getTagNames());
+
+        return certificateDto;
+    }
 }
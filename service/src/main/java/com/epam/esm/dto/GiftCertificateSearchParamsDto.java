@@ -1,6 +1,7 @@
 package com.epam.esm.dto;
 
 import com.epam.esm.repository.OrderingType;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -8,10 +9,35 @@ import java.util.List;
 
 @Getter
 @Setter
+@EqualsAndHashCode
 public class GiftCertificateSearchParamsDto {
     private List<String> tagNames;
     private String certificateName;
     private String certificateDescription;
+    private boolean ignoreCase;
     private OrderingType orderByName;
     private OrderingType orderByCreateDate;
+    private boolean orderByRelevance;
+
+    /**
+     * Canonical form of the parameters: tag names are sorted and deduplicated, since certificates
+     * are filtered by the set of tags. Equal normalized parameters select the same certificates.
+     *
+     * @return new {@link GiftCertificateSearchParamsDto} object
+     */
+    public GiftCertificateSearchParamsDto normalize() {
+        GiftCertificateSearchParamsDto normalized = new GiftCertificateSearchParamsDto();
+
+        normalized.setTagNames(tagNames != null
+                ? tagNames.stream().distinct().sorted().toList()
+                : null);
+        normalized.setCertificateName(certificateName);
+        normalized.setCertificateDescription(certificateDescription);
+        normalized.setIgnoreCase(ignoreCase);
+        normalized.setOrderByName(orderByName);
+        normalized.setOrderByCreateDate(orderByCreateDate);
+        normalized.setOrderByRelevance(orderByRelevance);
+
+        return normalized;
+    }
 }
@@ -0,0 +1,24 @@
+package com.epam.esm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Objects;
+
+/**
+ * Result of comparison of the most widely used tag read from order aggregates with the one computed
+ * from all orders. Tags are {@code null} when there is no such tag.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MostUsedTagCheckDto {
+    private TagDto statisticsTag;
+    private TagDto queryTag;
+    private boolean consistent;
+
+    public static MostUsedTagCheckDto of(TagDto statisticsTag, TagDto queryTag) {
+        return new MostUsedTagCheckDto(statisticsTag, queryTag, Objects.equals(statisticsTag, queryTag));
+    }
+}
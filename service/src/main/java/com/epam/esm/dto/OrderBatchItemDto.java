@@ -0,0 +1,46 @@
+package com.epam.esm.dto;
+
+import com.epam.esm.exception.EntityNotFoundException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchItemDto {
+    public enum Status {
+        CREATED,
+        ACCESS_DENIED,
+        EMPTY_ORDER,
+        ENTITY_NOT_FOUND,
+        // the chunk of the order was rolled back, the order was not made and may be retried
+        FAILED
+    }
+
+    // position of the order in request (starting from 0)
+    private int index;
+    private Status status;
+    private OrderDto order;
+
+    // name and id of entity that was not found
+    private String entityName;
+    private Long entityId;
+
+    public static OrderBatchItemDto created(int index, OrderDto order) {
+        return new OrderBatchItemDto(index, Status.CREATED, order, null, null);
+    }
+
+    public static OrderBatchItemDto rejected(int index, Status status) {
+        return new OrderBatchItemDto(index, status, null, null, null);
+    }
+
+    public static OrderBatchItemDto failed(int index) {
+        return new OrderBatchItemDto(index, Status.FAILED, null, null, null);
+    }
+
+    public static OrderBatchItemDto notFound(int index, EntityNotFoundException e) {
+        return new OrderBatchItemDto(index, Status.ENTITY_NOT_FOUND, null, e.getCauseEntity().getSimpleName(),
+                e.getEntityId());
+    }
+}
@@ -2,6 +2,7 @@ package com.epam.esm.dto;
 
 import com.epam.esm.entity.GiftCertificate;
 import com.epam.esm.entity.Order;
+import com.epam.esm.repository.OrderView;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
@@ -51,4 +52,16 @@ public class OrderDto extends IdentifiableDto {
 
         return orderDto;
     }
+
+    public static OrderDto fromView(OrderView view, List<Long> certificateIds) {
+        OrderDto orderDto = new OrderDto();
+
+        orderDto.setId(view.getId());
+        orderDto.setUserId(view.getUserId());
+        orderDto.setCost(view.getCost());
+        orderDto.setPurchaseDate(view.getPurchaseDate());
+        orderDto.setCertificateIds(certificateIds);
+
+        return orderDto;
+    }
 }
@@ -1,6 +1,9 @@
 package com.epam.esm.dto;
 
 import com.epam.esm.entity.User;
+import com.epam.esm.repository.UserStatsView;
+import com.epam.esm.repository.UserView;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -17,6 +20,11 @@ public class UserDto extends IdentifiableDto {
 
     private String role;
 
+    // read-only, present in responses of single user and user statistics list
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private UserStatsDto stats;
+
     public User toUser() {
         User user = new User();
 
@@ -37,4 +45,24 @@ public class UserDto extends IdentifiableDto {
 
         return userDto;
     }
+
+    public static UserDto fromView(UserView view) {
+        UserDto userDto = new UserDto();
+
+        userDto.setId(view.getId());
+        userDto.setUsername(view.getUsername());
+        userDto.setRole(view.getRole().name());
+
+        return userDto;
+    }
+
+    public static UserDto fromStatsView(UserStatsView view) {
+        UserDto userDto = new UserDto();
+
+        userDto.setId(view.getUserId());
+        userDto.setUsername(view.getUsername());
+        userDto.setStats(UserStatsDto.fromView(view));
+
+        return userDto;
+    }
 }
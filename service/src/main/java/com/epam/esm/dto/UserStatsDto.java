@@ -0,0 +1,34 @@
+package com.epam.esm.dto;
+
+import com.epam.esm.entity.UserStats;
+import com.epam.esm.repository.UserStatsView;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Spending and order statistics of a user. Last purchase date is {@code null} when user has no orders.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatsDto {
+    private long orderCount;
+    private BigDecimal totalCost;
+    private LocalDateTime lastPurchaseDate;
+
+    public static UserStatsDto empty() {
+        return new UserStatsDto(0, BigDecimal.ZERO, null);
+    }
+
+    public static UserStatsDto fromStats(UserStats stats) {
+        return new UserStatsDto(stats.getOrderCount(), stats.getTotalCost(), stats.getLastPurchaseDate());
+    }
+
+    public static UserStatsDto fromView(UserStatsView view) {
+        return new UserStatsDto(view.getOrderCount(), view.getTotalCost(), view.getLastPurchaseDate());
+    }
+}
@@ -0,0 +1,69 @@
+package com.epam.esm.dto.mapping;
+
+import com.epam.esm.dto.GiftCertificateDto;
+import com.epam.esm.exception.InvalidEntityException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Reader of certificates for bulk import. Rows are parsed one by one while they are being iterated,
+ * so imported data is never loaded into memory at once. Rows that cannot be parsed are returned as malformed
+ * ones, so they can be reported along with rows rejected by validation.
+ *
+ * @author Dmitry Karnyshov
+ */
+public abstract class CertificateImportReader implements Iterator<CertificateImportReader.Row> {
+    /**
+     * Create a reader of JSON array of certificates.
+     *
+     * @param inputStream stream of imported data
+     * @param objectMapper {@link ObjectMapper} instance to map array elements with
+     * @throws InvalidEntityException in case when data is not a JSON array
+     * @throws IOException in case of I/O error
+     * @return {@link CertificateImportReader} object
+     */
+    public static CertificateImportReader ofJson(InputStream inputStream, ObjectMapper objectMapper)
+                throws IOException {
+        return new JsonCertificateImportReader(inputStream, objectMapper);
+    }
+
+    /**
+     * Create a reader of CSV data. The first line is a header that must contain {@code name}, {@code description},
+     * {@code price} and {@code duration} columns, optional {@code tags} column contains tag names separated
+     * by semicolons.
+     *
+     * @param inputStream stream of imported data
+     * @throws InvalidEntityException in case when header does not contain required columns
+     * @throws IOException in case of I/O error
+     * @return {@link CertificateImportReader} object
+     */
+    public static CertificateImportReader ofCsv(InputStream inputStream) throws IOException {
+        return new CsvCertificateImportReader(inputStream);
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Row {
+        // rows are numbered starting from 1 (CSV header is not counted)
+        private long number;
+        private GiftCertificateDto certificate;
+
+        static Row of(long number, GiftCertificateDto certificate) {
+            return new Row(number, certificate);
+        }
+
+        static Row malformed(long number) {
+            return new Row(number, null);
+        }
+
+        public boolean isMalformed() {
+            return certificate == null;
+        }
+    }
+}
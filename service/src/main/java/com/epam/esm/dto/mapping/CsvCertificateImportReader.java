@@ -0,0 +1,123 @@
+package com.epam.esm.dto.mapping;
+
+import com.epam.esm.dto.GiftCertificateDto;
+import com.epam.esm.entity.GiftCertificate;
+import com.epam.esm.exception.InvalidEntityException;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.epam.esm.validator.ValidationError.MALFORMED_DATA;
+
+class CsvCertificateImportReader extends CertificateImportReader {
+    private static final String NAME_COLUMN = "name";
+    private static final String DESCRIPTION_COLUMN = "description";
+    private static final String PRICE_COLUMN = "price";
+    private static final String DURATION_COLUMN = "duration";
+    private static final String TAGS_COLUMN = "tags";
+    private static final List<String> REQUIRED_COLUMNS = List.of(NAME_COLUMN, DESCRIPTION_COLUMN, PRICE_COLUMN,
+            DURATION_COLUMN);
+    private static final String TAGS_SEPARATOR = ";";
+
+    private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreEmptyLines(true)
+            .setIgnoreSurroundingSpaces(true)
+            .build();
+
+    private Iterator<CSVRecord> records;
+    private long rowNumber;
+
+    private boolean finished;
+    private boolean syntaxError;
+
+    CsvCertificateImportReader(InputStream inputStream) throws IOException {
+        CSVParser parser = CSV_FORMAT.parse(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+        if (!parser.getHeaderMap().keySet().containsAll(REQUIRED_COLUMNS)) {
+            throw new InvalidEntityException(List.of(MALFORMED_DATA), GiftCertificate.class);
+        }
+
+        records = parser.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (finished || syntaxError) {
+            return !finished;
+        }
+
+        try {
+            finished = !records.hasNext();
+        } catch (IllegalStateException e) {
+            // syntax error (e.g. unclosed quote) is reported as the last malformed row
+            syntaxError = true;
+        }
+
+        return !finished;
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        rowNumber++;
+
+        if (syntaxError) {
+            finished = true;
+            return Row.malformed(rowNumber);
+        }
+
+        CSVRecord record = records.next();
+
+        try {
+            return Row.of(rowNumber, toCertificateDto(record));
+        } catch (NumberFormatException e) {
+            return Row.malformed(rowNumber);
+        }
+    }
+
+    private GiftCertificateDto toCertificateDto(CSVRecord record) {
+        GiftCertificateDto certificateDto = new GiftCertificateDto();
+        certificateDto.setName(getValue(record, NAME_COLUMN));
+        certificateDto.setDescription(getValue(record, DESCRIPTION_COLUMN));
+
+        String price = getValue(record, PRICE_COLUMN);
+        certificateDto.setPrice(price != null ? new BigDecimal(price) : null);
+
+        String duration = getValue(record, DURATION_COLUMN);
+        certificateDto.setDuration(duration != null ? Duration.ofDays(Long.parseLong(duration)) : null);
+
+        String tags = getValue(record, TAGS_COLUMN);
+
+        if (tags != null) {
+            List<String> tagNames = Arrays.stream(tags.split(TAGS_SEPARATOR))
+                    .map(String::strip)
+                    .filter(tagName -> !tagName.isEmpty())
+                    .toList();
+            certificateDto.setTags(tagNames);
+        }
+
+        return certificateDto;
+    }
+
+    private String getValue(CSVRecord record, String column) {
+        // absent and blank values are treated as missing ones
+        return record.isSet(column) && StringUtils.isNotBlank(record.get(column)) ? record.get(column) : null;
+    }
+}
@@ -0,0 +1,88 @@
+package com.epam.esm.dto.mapping;
+
+import com.epam.esm.dto.GiftCertificateDto;
+import com.epam.esm.entity.GiftCertificate;
+import com.epam.esm.exception.InvalidEntityException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.epam.esm.validator.ValidationError.MALFORMED_DATA;
+
+class JsonCertificateImportReader extends CertificateImportReader {
+    private JsonParser parser;
+    private ObjectMapper objectMapper;
+    private long rowNumber;
+
+    private boolean advanced;
+    private boolean finished;
+    private boolean syntaxError;
+
+    JsonCertificateImportReader(InputStream inputStream, ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        parser = objectMapper.getFactory().createParser(inputStream);
+
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new InvalidEntityException(List.of(MALFORMED_DATA), GiftCertificate.class);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!advanced && !finished) {
+            advance();
+        }
+
+        return !finished;
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        advanced = false;
+        rowNumber++;
+
+        if (syntaxError) {
+            finished = true;
+            return Row.malformed(rowNumber);
+        }
+
+        JsonNode node;
+
+        try {
+            node = parser.readValueAsTree();
+        } catch (IOException e) {
+            // the rest of data cannot be read after syntax error
+            finished = true;
+            return Row.malformed(rowNumber);
+        }
+
+        try {
+            return Row.of(rowNumber, objectMapper.treeToValue(node, GiftCertificateDto.class));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return Row.malformed(rowNumber);
+        }
+    }
+
+    private void advance() {
+        advanced = true;
+
+        try {
+            JsonToken token = parser.nextToken();
+            finished = token == null || token == JsonToken.END_ARRAY;
+        } catch (IOException e) {
+            // syntax error is reported as the last malformed row
+            syntaxError = true;
+        }
+    }
+}
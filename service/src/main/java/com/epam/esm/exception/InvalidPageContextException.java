@@ -2,14 +2,15 @@ package com.epam.esm.exception;
 
 public class InvalidPageContextException extends RuntimeException {
     private final ErrorType errorType;
-    private final int invalidValue;
+    private final Object invalidValue;
 
     public enum ErrorType {
         INVALID_PAGE_NUMBER,
-        INVALID_PAGE_SIZE
+        INVALID_PAGE_SIZE,
+        INVALID_CURSOR
     }
 
-    public InvalidPageContextException(ErrorType errorType, int invalidValue) {
+    public InvalidPageContextException(ErrorType errorType, Object invalidValue) {
         this.errorType = errorType;
         this.invalidValue = invalidValue;
     }
@@ -18,7 +19,7 @@ public class InvalidPageContextException extends RuntimeException {
         return errorType;
     }
 
-    public int getInvalidValue() {
+    public Object getInvalidValue() {
         return invalidValue;
     }
 }
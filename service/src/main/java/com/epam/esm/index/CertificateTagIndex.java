@@ -0,0 +1,200 @@
+package com.epam.esm.index;
+
+import com.epam.esm.repository.CertificateTagLink;
+import com.epam.esm.repository.GiftCertificateRepository;
+import com.epam.esm.transaction.AfterCommit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index of certificate tags. Keeps one compressed bitmap of certificate ids per tag name,
+ * so "certificates having ALL of these tags" is answered with a bitmap intersection instead of
+ * a GROUP BY / HAVING query over {@code certificate_tag} join.
+ *
+ * Index is rebuilt from the database at startup and then maintained incrementally. Modifications made
+ * inside a transaction are applied only after commit from links read at that moment. Until the index is built, or when it is disabled,
+ * {@link #findCertificatesWithAllTags(Collection)} returns an empty optional and callers fall back to SQL.
+ *
+ * @author Dmitry Karnyshov
+ */
+@Component
+public class CertificateTagIndex {
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Map<String, Roaring64NavigableMap> tagBitmaps = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    private GiftCertificateRepository certificateRepository;
+
+    @Value("${certificates.tag-index.enabled:true}")
+    private boolean enabled;
+
+    // too many candidates can not be passed to IN clause efficiently, SQL filtering is used instead
+    @Value("${certificates.tag-index.max-candidates:10000}")
+    private long maxCandidates;
+
+    public CertificateTagIndex(GiftCertificateRepository certificateRepository) {
+        this.certificateRepository = certificateRepository;
+    }
+
+    /**
+     * Rebuild the whole index from {@code certificate_tag} table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        List<CertificateTagLink> links;
+        Map<String, Roaring64NavigableMap> rebuiltBitmaps = new HashMap<>();
+
+        // the lock is taken before reading, so changes committed meanwhile are applied on top of the read links
+        // instead of being overwritten by them
+        lock.writeLock().lock();
+        try {
+            links = certificateRepository.findAllTagLinks();
+            links.forEach(link -> rebuiltBitmaps.computeIfAbsent(link.getTagName(),
+                    name -> new Roaring64NavigableMap()).addLong(link.getCertificateId()));
+            rebuiltBitmaps.values().forEach(Roaring64NavigableMap::runOptimize);
+
+            tagBitmaps.clear();
+            tagBitmaps.putAll(rebuiltBitmaps);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Certificate tag index rebuilt: {} tags, {} links", rebuiltBitmaps.size(), links.size());
+    }
+
+    /**
+     * Find ids of certificates that have all specified tags.
+     *
+     * @param tagNames names of tags
+     * @return sorted ids of certificates or empty optional if the index can not answer the query
+     */
+    public Optional<List<Long>> findCertificatesWithAllTags(Collection<String> tagNames) {
+        if (!enabled || !ready || tagNames.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Roaring64NavigableMap intersection = null;
+
+        lock.readLock().lock();
+        try {
+            for (String tagName : tagNames) {
+                Roaring64NavigableMap bitmap = tagBitmaps.get(tagName);
+
+                if (bitmap == null) {
+                    return Optional.of(List.of());
+                }
+
+                if (intersection == null) {
+                    intersection = new Roaring64NavigableMap();
+                    intersection.or(bitmap);
+                } else {
+                    intersection.and(bitmap);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return intersection.getLongCardinality() <= maxCandidates
+                ? Optional.of(Arrays.stream(intersection.toArray()).boxed().toList())
+                : Optional.empty();
+    }
+
+    /**
+     * Replace tags of the certificate with its committed links (also used for a newly created certificate).
+     *
+     * @param certificateId certificate id
+     */
+    public void putCertificate(long certificateId) {
+        putCertificates(List.of(certificateId));
+    }
+
+    /**
+     * Replace tags of the certificates with their committed links, read with one query.
+     *
+     * @param certificateIds ids of certificates
+     */
+    public void putCertificates(Collection<Long> certificateIds) {
+        afterCommit(() -> {
+            List<CertificateTagLink> links = certificateRepository.findTagLinksByCertificateIds(certificateIds);
+            certificateIds.forEach(this::removeFromAllBitmaps);
+            links.forEach(link -> tagBitmaps.computeIfAbsent(link.getTagName(), name -> new Roaring64NavigableMap())
+                    .addLong(link.getCertificateId()));
+        });
+    }
+
+    /**
+     * Remove the certificate from the index.
+     *
+     * @param certificateId certificate id
+     */
+    public void removeCertificate(long certificateId) {
+        // links of a deleted certificate are gone, so reading them removes it from all bitmaps
+        putCertificates(List.of(certificateId));
+    }
+
+    /**
+     * Remove the tag from the index, keeping links to a tag with the same name created meanwhile.
+     *
+     * @param tagName tag name
+     */
+    public void removeTag(String tagName) {
+        afterCommit(() -> {
+            Roaring64NavigableMap bitmap = new Roaring64NavigableMap();
+            certificateRepository.findTagLinksByTagName(tagName)
+                    .forEach(link -> bitmap.addLong(link.getCertificateId()));
+
+            if (bitmap.isEmpty()) {
+                tagBitmaps.remove(tagName);
+            } else {
+                tagBitmaps.put(tagName, bitmap);
+            }
+        });
+    }
+
+    private void removeFromAllBitmaps(long certificateId) {
+        // tag vocabulary is small, so it is cheaper than keeping a reverse mapping
+        tagBitmaps.values().forEach(bitmap -> bitmap.removeLong(certificateId));
+    }
+
+    private void afterCommit(Runnable modification) {
+        if (!enabled) {
+            return;
+        }
+
+        // callbacks of different transactions run in no particular order, so every modification reads
+        // the committed links under the lock instead of applying the state of its own transaction;
+        // the one that runs last sees the changes of all committed transactions
+        Runnable lockedModification = () -> {
+            lock.writeLock().lock();
+            try {
+                modification.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+
+        AfterCommit.run(lockedModification);
+    }
+}
@@ -0,0 +1,334 @@
+package com.epam.esm.index;
+
+import com.epam.esm.entity.GiftCertificate;
+import com.epam.esm.repository.GiftCertificateRepository;
+import com.epam.esm.repository.GiftCertificateSpecificationBuilder;
+import com.epam.esm.repository.Keyset;
+import com.epam.esm.transaction.AfterCommit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.NGramTokenizer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Embedded Lucene index of certificate names and descriptions stored on local disk.
+ *
+ * Text is indexed twice: as trigrams, so that any substring of 3+ characters can be looked up
+ * (the same way as {@code LIKE '%x%'} matches), and as words, which only boost relevance of whole-word matches.
+ * The index returns candidate ids ranked by relevance, exact {@code LIKE} filtering is still applied
+ * by the database, but only to the candidates.
+ *
+ * Index is rebuilt at startup and maintained incrementally after commits of certificate writes.
+ * {@link #search(String, String)} returns an empty optional when the index can not answer the query
+ * (disabled, not built yet, too short query, query with LIKE wildcards or too many candidates), then the specification path is used.
+ *
+ * @author Dmitry Karnyshov
+ */
+@Component
+public class CertificateTextIndex {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final String ID_FIELD = "id";
+    private static final String NAME_FIELD = "name";
+    private static final String DESCRIPTION_FIELD = "description";
+    private static final String NAME_GRAM_FIELD = "name_gram";
+    private static final String DESCRIPTION_GRAM_FIELD = "description_gram";
+    private static final int GRAM_SIZE = 3;
+    // values are not escaped in LIKE patterns, so these characters are wildcards (or escape) there
+    private static final String LIKE_SPECIAL_CHARACTERS = "%_\\";
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private GiftCertificateRepository certificateRepository;
+    private IndexWriter indexWriter;
+    private SearcherManager searcherManager;
+    private volatile boolean ready;
+
+    @Value("${certificates.text-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${certificates.text-index.path:${java.io.tmpdir}/certificates-text-index}")
+    private String indexPath;
+
+    // hits of a broad query are collected and ranked in memory, LIKE scan is cheaper for them
+    @Value("${certificates.text-index.max-candidates:1000}")
+    private int maxCandidates;
+
+    public CertificateTextIndex(GiftCertificateRepository certificateRepository) {
+        this.certificateRepository = certificateRepository;
+    }
+
+    @PostConstruct
+    protected void openIndex() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            Analyzer gramAnalyzer = new Analyzer() {
+                @Override
+                protected TokenStreamComponents createComponents(String fieldName) {
+                    Tokenizer tokenizer = new NGramTokenizer(GRAM_SIZE, GRAM_SIZE);
+                    TokenStream tokenStream = new LowerCaseFilter(tokenizer);
+                    return new TokenStreamComponents(tokenizer, tokenStream);
+                }
+            };
+            Analyzer analyzer = new PerFieldAnalyzerWrapper(new StandardAnalyzer(), Map.of(
+                    NAME_GRAM_FIELD, gramAnalyzer,
+                    DESCRIPTION_GRAM_FIELD, gramAnalyzer
+            ));
+
+            IndexWriterConfig writerConfig = new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+            indexWriter = new IndexWriter(FSDirectory.open(Path.of(indexPath)), writerConfig);
+            searcherManager = new SearcherManager(indexWriter, null);
+        } catch (IOException e) {
+            logger.error("Unable to open certificate text index, falling back to database search", e);
+            enabled = false;
+        }
+    }
+
+    @PreDestroy
+    protected void closeIndex() throws IOException {
+        if (indexWriter != null) {
+            searcherManager.close();
+            indexWriter.close();
+        }
+    }
+
+    /**
+     * Rebuild the whole index from {@code gift_certificate} table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            indexWriter.deleteAll();
+
+            Keyset keyset = Keyset.first();
+            List<GiftCertificate> certificates;
+            long indexedCount = 0;
+
+            // certificates are read in batches by id, so the whole table is never loaded into memory
+            do {
+                certificates = certificateRepository.findRange(new GiftCertificateSpecificationBuilder()
+                        .keyset(keyset)
+                        .build(), 0, REBUILD_BATCH_SIZE);
+
+                for (GiftCertificate certificate : certificates) {
+                    indexWriter.addDocument(createDocument(certificate));
+                }
+
+                if (!certificates.isEmpty()) {
+                    long lastId = certificates.get(certificates.size() - 1).getId();
+                    keyset = new Keyset(null, lastId, false);
+                    indexedCount += certificates.size();
+                }
+            } while (certificates.size() == REBUILD_BATCH_SIZE);
+
+            indexWriter.commit();
+            searcherManager.maybeRefreshBlocking();
+            ready = true;
+
+            logger.info("Certificate text index rebuilt: {} certificates", indexedCount);
+        } catch (IOException e) {
+            logger.error("Unable to rebuild certificate text index, falling back to database search", e);
+            ready = false;
+        }
+    }
+
+    /**
+     * Find candidate ids of certificates whose name and description contain specified strings.
+     *
+     * @param certificateName part of certificate name (optional)
+     * @param certificateDescription part of certificate description (optional)
+     * @return candidate ids ranked by relevance or empty optional if the index can not answer the query
+     */
+    public Optional<List<Long>> search(String certificateName, String certificateDescription) {
+        if (!enabled || !ready || (certificateName == null && certificateDescription == null)) {
+            return Optional.empty();
+        }
+
+        BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
+
+        if (!addFieldQuery(queryBuilder, certificateName, NAME_GRAM_FIELD, NAME_FIELD)
+                || !addFieldQuery(queryBuilder, certificateDescription, DESCRIPTION_GRAM_FIELD, DESCRIPTION_FIELD)) {
+            return Optional.empty();
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+
+            try {
+                TopDocs topDocs = searcher.search(queryBuilder.build(), maxCandidates + 1);
+
+                if (topDocs.scoreDocs.length > maxCandidates) {
+                    return Optional.empty();
+                }
+
+                List<Long> candidateIds = new ArrayList<>(topDocs.scoreDocs.length);
+
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    String id = searcher.doc(scoreDoc.doc).get(ID_FIELD);
+                    candidateIds.add(Long.parseLong(id));
+                }
+
+                return Optional.of(candidateIds);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            logger.error("Certificate text index search failed", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Add or replace the certificate in the index.
+     *
+     * @param certificate {@link GiftCertificate} object
+     */
+    public void putCertificate(GiftCertificate certificate) {
+        Document document = createDocument(certificate);
+        Term idTerm = new Term(ID_FIELD, String.valueOf(certificate.getId()));
+        afterCommit(() -> indexWriter.updateDocument(idTerm, document));
+    }
+
+    /**
+     * Remove the certificate from the index.
+     *
+     * @param certificateId certificate id
+     */
+    public void removeCertificate(long certificateId) {
+        Term idTerm = new Term(ID_FIELD, String.valueOf(certificateId));
+        afterCommit(() -> indexWriter.deleteDocuments(idTerm));
+    }
+
+    private boolean addFieldQuery(BooleanQuery.Builder queryBuilder, String value, String gramField,
+                String wordField) {
+        if (value == null) {
+            return true;
+        }
+
+        String lowerCaseValue = value.toLowerCase(Locale.ROOT);
+
+        if (lowerCaseValue.length() < GRAM_SIZE) {
+            // such short strings have no trigrams
+            return false;
+        }
+
+        // trigrams take wildcards literally, so candidates would be a subset of LIKE matches
+        if (lowerCaseValue.chars().anyMatch(character -> LIKE_SPECIAL_CHARACTERS.indexOf(character) >= 0)) {
+            return false;
+        }
+
+        // every trigram is required: this gives a superset of LIKE matches
+        for (int i = 0; i + GRAM_SIZE <= lowerCaseValue.length(); i++) {
+            Term term = new Term(gramField, lowerCaseValue.substring(i, i + GRAM_SIZE));
+            queryBuilder.add(new TermQuery(term), BooleanClause.Occur.MUST);
+        }
+
+        // whole words only affect the score
+        for (String word : analyzeWords(wordField, value)) {
+            queryBuilder.add(new TermQuery(new Term(wordField, word)), BooleanClause.Occur.SHOULD);
+        }
+
+        return true;
+    }
+
+    private List<String> analyzeWords(String field, String value) {
+        List<String> words = new ArrayList<>();
+
+        try (TokenStream tokenStream = indexWriter.getAnalyzer().tokenStream(field, value)) {
+            CharTermAttribute termAttribute = tokenStream.addAttribute(CharTermAttribute.class);
+            tokenStream.reset();
+
+            while (tokenStream.incrementToken()) {
+                words.add(termAttribute.toString());
+            }
+
+            tokenStream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return words;
+    }
+
+    private Document createDocument(GiftCertificate certificate) {
+        Document document = new Document();
+        String name = certificate.getName();
+        String description = certificate.getDescription();
+
+        document.add(new StringField(ID_FIELD, String.valueOf(certificate.getId()), Field.Store.YES));
+        document.add(new TextField(NAME_FIELD, name, Field.Store.NO));
+        document.add(new TextField(NAME_GRAM_FIELD, name, Field.Store.NO));
+        document.add(new TextField(DESCRIPTION_FIELD, description, Field.Store.NO));
+        document.add(new TextField(DESCRIPTION_GRAM_FIELD, description, Field.Store.NO));
+
+        return document;
+    }
+
+    private void afterCommit(IndexModification modification) {
+        if (!enabled) {
+            return;
+        }
+
+        Runnable refreshingModification = () -> {
+            try {
+                modification.apply();
+                // the change is visible as soon as the write returns, cached search pages rely on it
+                searcherManager.maybeRefreshBlocking();
+            } catch (IOException e) {
+                // the index will be consistent again after the next rebuild
+                logger.error("Unable to update certificate text index", e);
+            }
+        };
+
+        AfterCommit.run(refreshingModification);
+    }
+
+    @FunctionalInterface
+    private interface IndexModification {
+        void apply() throws IOException;
+    }
+}
@@ -0,0 +1,29 @@
+package com.epam.esm.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page of keyset pagination. Unlike {@link org.springframework.data.domain.Page} it knows nothing about
+ * total amount of elements, only the cursors of adjacent pages ({@code null} if there is no such page).
+ *
+ * @param <T> type of page elements
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    private final List<T> content;
+    private final int pageSize;
+    private final String nextCursor;
+    private final String previousCursor;
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> converter) {
+        List<R> convertedContent = content.stream()
+                .<R>map(converter)
+                .toList();
+        return new CursorPage<>(convertedContent, pageSize, nextCursor, previousCursor);
+    }
+}
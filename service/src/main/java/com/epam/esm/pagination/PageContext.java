@@ -1,12 +1,26 @@
 package com.epam.esm.pagination;
 
 import com.epam.esm.exception.InvalidPageContextException;
+import com.epam.esm.repository.Keyset;
+import lombok.EqualsAndHashCode;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import static com.epam.esm.exception.InvalidPageContextException.ErrorType.INVALID_CURSOR;
 import static com.epam.esm.exception.InvalidPageContextException.ErrorType.INVALID_PAGE_NUMBER;
 import static com.epam.esm.exception.InvalidPageContextException.ErrorType.INVALID_PAGE_SIZE;
 
+// equal contexts address the same page, so they are a part of cache keys
+@EqualsAndHashCode
 public class PageContext {
+    public static final String ID_SORT_KEY = "id";
+
     private static final int MIN_PAGE = 1;
     private static final int MIN_PAGE_SIZE = 0;
     private static final int MAX_PAGE_SIZE = 50;
@@ -16,6 +30,10 @@ public class PageContext {
     private int page;
     private int pageSize;
 
+    // keyset pagination is enabled when cursor parameter is present (an empty one means the first page)
+    private boolean keyset;
+    private PageCursor cursor;
+
     private PageContext(int page, int pageSize) {
         this.page = page;
         this.pageSize = pageSize;
@@ -41,7 +59,141 @@ public class PageContext {
         return new PageContext(page, pageSize);
     }
 
+    public static PageContext of(Integer page, Integer pageSize, String cursor) {
+        PageContext pageContext = of(page, pageSize);
+
+        if (cursor != null) {
+            pageContext.keyset = true;
+            pageContext.cursor = !cursor.isBlank() ? PageCursor.decode(cursor) : null;
+        }
+
+        return pageContext;
+    }
+
     public PageRequest toPageRequest() {
         return PageRequest.of(page - 1, pageSize);
     }
+
+    public boolean isKeyset() {
+        return keyset;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Limit of rows to fetch in keyset mode. One extra row tells whether there are more rows in scroll direction.
+     */
+    public int getKeysetLimit() {
+        return pageSize + 1;
+    }
+
+    /**
+     * Keyset position for lists ordered by the specified sort key.
+     *
+     * @param sortKey key of active ordering, cursors issued for another ordering are rejected
+     * @param sortValueParser function that restores sort value from its string representation
+     * @return {@link Keyset} object
+     * @throws InvalidPageContextException in case when cursor was issued for another ordering
+     */
+    public Keyset toKeyset(String sortKey, Function<String, ? extends Comparable<?>> sortValueParser) {
+        if (cursor == null) {
+            return Keyset.first();
+        }
+
+        String sortValue = cursor.getSortValue();
+        boolean orderedById = ID_SORT_KEY.equals(sortKey);
+
+        if (!sortKey.equals(cursor.getSortKey()) || (!orderedById && sortValue == null)) {
+            throw new InvalidPageContextException(INVALID_CURSOR, cursor.encode());
+        }
+
+        Comparable<?> parsedSortValue = !orderedById ? parseSortValue(sortValue, sortValueParser) : null;
+        return new Keyset(parsedSortValue, cursor.getId(), cursor.isBackward());
+    }
+
+    /**
+     * Limit-only page request ordered by id in direction of scrolling.
+     */
+    public PageRequest toKeysetPageRequest() {
+        Sort.Direction direction = cursor != null && cursor.isBackward() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return PageRequest.of(0, getKeysetLimit(), Sort.by(direction, ID_SORT_KEY));
+    }
+
+    /**
+     * Lower (upper when scrolling backward) bound of id for lists ordered by id only.
+     */
+    public long getKeysetId() {
+        if (cursor == null) {
+            return 0;
+        }
+
+        if (!ID_SORT_KEY.equals(cursor.getSortKey())) {
+            throw new InvalidPageContextException(INVALID_CURSOR, cursor.encode());
+        }
+
+        return cursor.getId();
+    }
+
+    public boolean isBackward() {
+        return cursor != null && cursor.isBackward();
+    }
+
+    public <T> CursorPage<T> toCursorPage(List<T> rows, ToLongFunction<T> idExtractor) {
+        return toCursorPage(rows, ID_SORT_KEY, row -> null, idExtractor);
+    }
+
+    /**
+     * Build a page of keyset pagination from rows fetched with {@link #getKeysetLimit()}.
+     *
+     * @param rows fetched rows in scroll order
+     * @param sortKey key of active ordering
+     * @param sortValueExtractor function that extracts string representation of sort value from row
+     * @param idExtractor function that extracts id from row
+     * @param <T> type of rows
+     * @return {@link CursorPage} object
+     */
+    public <T> CursorPage<T> toCursorPage(List<T> rows, String sortKey, Function<T, String> sortValueExtractor,
+                ToLongFunction<T> idExtractor) {
+        boolean backward = isBackward();
+        boolean hasMore = rows.size() > pageSize;
+        List<T> content = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+
+        if (backward) {
+            // rows were read in reversed order
+            Collections.reverse(content);
+        }
+
+        // when scrolling backward there is always the page we came from
+        boolean hasNext = backward || hasMore;
+        boolean hasPrevious = backward ? hasMore : cursor != null;
+        String nextCursor = null;
+        String previousCursor = null;
+
+        if (!content.isEmpty()) {
+            T first = content.get(0);
+            T last = content.get(content.size() - 1);
+
+            if (hasNext) {
+                nextCursor = new PageCursor(sortKey, sortValueExtractor.apply(last), idExtractor.applyAsLong(last),
+                        false).encode();
+            }
+
+            if (hasPrevious) {
+                previousCursor = new PageCursor(sortKey, sortValueExtractor.apply(first), idExtractor.applyAsLong(first),
+                        true).encode();
+            }
+        }
+
+        return new CursorPage<>(content, pageSize, nextCursor, previousCursor);
+    }
+
+    private Comparable<?> parseSortValue(String sortValue, Function<String, ? extends Comparable<?>> parser) {
+        try {
+            return parser.apply(sortValue);
+        } catch (RuntimeException e) {
+            throw new InvalidPageContextException(INVALID_CURSOR, cursor.encode());
+        }
+    }
 }
@@ -0,0 +1,64 @@
+package com.epam.esm.pagination;
+
+import com.epam.esm.exception.InvalidPageContextException;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static com.epam.esm.exception.InvalidPageContextException.ErrorType.INVALID_CURSOR;
+
+/**
+ * Opaque cursor of keyset pagination. Encodes the sort key the cursor was issued for, the sort value
+ * and id of the boundary row and the scroll direction as a URL-safe string.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class PageCursor {
+    private static final String SEPARATOR = "|";
+    private static final String SEPARATOR_REGEX = "\\|";
+    private static final String FORWARD = "f";
+    private static final String BACKWARD = "b";
+    private static final int PARTS_COUNT = 4;
+
+    private final String sortKey;
+    private final String sortValue;
+    private final long id;
+    private final boolean backward;
+
+    public String encode() {
+        // sort value goes last: it is the only part which may contain separator
+        String rawCursor = String.join(SEPARATOR,
+                backward ? BACKWARD : FORWARD,
+                sortKey,
+                String.valueOf(id),
+                sortValue != null ? sortValue : "");
+
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(rawCursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String rawCursor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = rawCursor.split(SEPARATOR_REGEX, PARTS_COUNT);
+
+            if (parts.length != PARTS_COUNT || !(FORWARD.equals(parts[0]) || BACKWARD.equals(parts[0]))) {
+                throw new InvalidPageContextException(INVALID_CURSOR, cursor);
+            }
+
+            boolean backward = BACKWARD.equals(parts[0]);
+            long id = Long.parseLong(parts[2]);
+            String sortValue = parts[3].isEmpty() ? null : parts[3];
+
+            return new PageCursor(parts[1], sortValue, id, backward);
+        } catch (IllegalArgumentException e) {
+            // covers both malformed base64 and NumberFormatException
+            throw new InvalidPageContextException(INVALID_CURSOR, cursor);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.epam.esm.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Source of keys that verify signatures of access tokens, the key set of the authorization server
+ * is kept in memory and in a local file.
+ *
+ * At startup keys are loaded from the file, so tokens are verified without waiting for the server.
+ * The key set is refreshed in the background on schedule, and as soon as a token is signed with an unknown key
+ * (refreshes of that kind are rate limited). A fetched key set replaces the cached one and is written to the file,
+ * a failed refresh is logged and cached keys are used until a refresh succeeds. Only when there are no keys
+ * at all (the first start), the key set is fetched by the verifying thread.
+ *
+ * The key set URI may be a {@code file:} URI, a local file then stands in for the authorization server.
+ *
+ * @author Dmitry Karnyshov
+ */
+@Component
+public class CachedJwkSource implements JWKSource<SecurityContext> {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final String REFRESH_THREAD_NAME = "jwk-set-refresh";
+    private static final String FILE_PROTOCOL = "file";
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    private volatile JWKSet jwkSet = new JWKSet();
+    // guarded by refresh lock
+    private long lastRefreshNanos;
+    private boolean refreshed;
+    private boolean stopped;
+    private final Object refreshLock = new Object();
+    private final AtomicBoolean refreshRequested = new AtomicBoolean();
+    private ExecutorService refreshExecutor;
+    private ResourceRetriever resourceRetriever;
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
+    private String jwkSetUri;
+
+    @Value("${auth.jwk-cache.path:${java.io.tmpdir}/certificates-jwk-set.json}")
+    private String cachePath;
+
+    @Value("${auth.jwk-cache.min-refresh-interval-ms:30000}")
+    private long minRefreshIntervalMs;
+
+    // a hanging server must not stall the first start for long
+    @Value("${auth.jwk-cache.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${auth.jwk-cache.read-timeout-ms:2000}")
+    private int readTimeoutMs;
+
+    @PostConstruct
+    protected void start() {
+        resourceRetriever = new DefaultResourceRetriever(connectTimeoutMs, readTimeoutMs);
+        refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, REFRESH_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Path path = Path.of(cachePath);
+
+        if (Files.exists(path)) {
+            try {
+                jwkSet = JWKSet.parse(Files.readString(path, StandardCharsets.UTF_8));
+                logger.info("JWK set loaded from {}: {} keys", path, jwkSet.getKeys().size());
+            } catch (IOException | ParseException e) {
+                logger.warn("Unable to load JWK set from {}, it is fetched from {}", path, jwkSetUri, e);
+            }
+        }
+
+        // keys loaded from the file may be outdated
+        requestRefresh();
+    }
+
+    @PreDestroy
+    protected void stop() {
+        refreshExecutor.shutdownNow();
+
+        // waits for a running refresh, so the file is not written after the source has stopped
+        synchronized (refreshLock) {
+            stopped = true;
+        }
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        List<JWK> keys = jwkSelector.select(jwkSet);
+
+        if (!keys.isEmpty()) {
+            return keys;
+        }
+
+        if (jwkSet.getKeys().isEmpty()) {
+            refreshIfDue();
+            return jwkSelector.select(jwkSet);
+        }
+
+        // the server may have rotated its keys, the token is rejected if it is not signed with a cached one
+        requestRefresh();
+        return keys;
+    }
+
+    /**
+     * Fetch the key set from the authorization server. Cached keys are kept if it fails.
+     */
+    @Scheduled(fixedDelayString = "${auth.jwk-cache.refresh-interval-ms:300000}",
+            initialDelayString = "${auth.jwk-cache.refresh-interval-ms:300000}")
+    public void refresh() {
+        synchronized (refreshLock) {
+            if (stopped) {
+                return;
+            }
+
+            lastRefreshNanos = System.nanoTime();
+            refreshed = true;
+
+            try {
+                String content = fetch();
+                JWKSet fetchedJwkSet = JWKSet.parse(content);
+
+                if (fetchedJwkSet.getKeys().isEmpty()) {
+                    logger.warn("JWK set fetched from {} is empty, cached keys are used", jwkSetUri);
+                    return;
+                }
+
+                // the file is written first, so keys in use are already persisted unless writing failed
+                save(fetchedJwkSet);
+                jwkSet = fetchedJwkSet;
+            } catch (IOException | ParseException | URISyntaxException e) {
+                logger.warn("Unable to fetch JWK set from {}, cached keys are used", jwkSetUri, e);
+            }
+        }
+    }
+
+    /**
+     * @return currently used key set
+     */
+    public JWKSet getJwkSet() {
+        return jwkSet;
+    }
+
+    private void requestRefresh() {
+        // refresh is not queued again while it is waiting to be run
+        if (refreshRequested.compareAndSet(false, true)) {
+            try {
+                refreshExecutor.execute(() -> {
+                    refreshRequested.set(false);
+                    refreshIfDue();
+                });
+            } catch (RejectedExecutionException e) {
+                // the source has stopped, cached keys are used till the end
+                refreshRequested.set(false);
+            }
+        }
+    }
+
+    private void refreshIfDue() {
+        synchronized (refreshLock) {
+            // concurrent callers waiting for the lock do not repeat the refresh that has just been made
+            long minRefreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minRefreshIntervalMs);
+
+            if (refreshed && System.nanoTime() - lastRefreshNanos < minRefreshIntervalNanos) {
+                return;
+            }
+
+            refresh();
+        }
+    }
+
+    private String fetch() throws IOException, URISyntaxException {
+        URL url = new URL(jwkSetUri);
+
+        if (FILE_PROTOCOL.equals(url.getProtocol())) {
+            return Files.readString(Path.of(url.toURI()), StandardCharsets.UTF_8);
+        }
+
+        return resourceRetriever.retrieveResource(url).getContent();
+    }
+
+    private void save(JWKSet fetchedJwkSet) {
+        Path path = Path.of(cachePath);
+        Path temporaryPath = Path.of(cachePath + TEMPORARY_FILE_SUFFIX);
+
+        try {
+            // the file is replaced at once, so a crash does not leave a partially written key set
+            Files.writeString(temporaryPath, fetchedJwkSet.toString(), StandardCharsets.UTF_8);
+            Files.move(temporaryPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Unable to save JWK set to {}", path, e);
+        }
+    }
+}
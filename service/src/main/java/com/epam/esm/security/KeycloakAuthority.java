@@ -12,6 +12,7 @@ public class KeycloakAuthority {
     public static final String ORDERS_SAVE_BY_OWNER = "orders:save_by_owner";
     public static final String USERS_GET = "users:get";
     public static final String USERS_GET_BY_OWNER = "users:get_by_owner";
+    public static final String AUDIT_GET = "audit:get";
 
     private KeycloakAuthority() {
 
@@ -0,0 +1,97 @@
+package com.epam.esm.service;
+
+import com.epam.esm.repository.AuditRollupRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static java.time.ZoneOffset.UTC;
+
+/**
+ * Scheduled maintenance of {@code audit_table}:
+ * <ul>
+ *     <li>partitions are created in advance for the next days;</li>
+ *     <li>recent completed days are rolled up into daily counters (days are recounted for a few runs,
+ *     so events written late by the batching writer are counted too);</li>
+ *     <li>raw events older than retention period are rolled up for the last time and removed
+ *     (partitions of their days are dropped).</li>
+ * </ul>
+ * Every day is processed in a separate transaction, so a failure of one day does not affect the others
+ * and the day is processed again by the next run.
+ *
+ * @author Dmitry Karnyshov
+ */
+@Component
+@ConditionalOnProperty(name = "audit.sink", havingValue = "table", matchIfMissing = true)
+public class AuditRollupJob {
+    private static final Logger logger = LogManager.getLogger();
+
+    private AuditRollupRepository rollupRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${audit.rollup.lookback-days:2}")
+    private int lookbackDays;
+
+    @Value("${audit.rollup.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${audit.rollup.partition-premake-days:7}")
+    private int partitionPremakeDays;
+
+    public AuditRollupJob(AuditRollupRepository rollupRepository, PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Run maintenance of the current day (UTC). Partitions are created on start as well, so events
+     * are not written to the default partition.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${audit.rollup.cron:0 15 * * * *}", zone = "UTC")
+    public void run() {
+        run(LocalDate.now(UTC));
+    }
+
+    void run(LocalDate today) {
+        for (int i = 0; i <= partitionPremakeDays; i++) {
+            LocalDate day = today.plusDays(i);
+            runForDay("partition creation", day, () -> rollupRepository.createPartition(day));
+        }
+
+        for (int i = lookbackDays; i > 0; i--) {
+            LocalDate day = today.minusDays(i);
+            runForDay("rollup", day, () -> rollupRepository.rollUp(day));
+        }
+
+        LocalDate retentionStart = today.minusDays(retentionDays);
+
+        List<LocalDate> expiredDays = transactionTemplate.execute(status ->
+                rollupRepository.findRawEventDays(retentionStart));
+
+        for (LocalDate day : expiredDays) {
+            runForDay("expiration", day, () -> {
+                rollupRepository.rollUp(day);
+                rollupRepository.deleteRawEvents(day);
+            });
+        }
+    }
+
+    private void runForDay(String action, LocalDate day, Runnable dayAction) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> dayAction.run());
+        } catch (RuntimeException e) {
+            logger.error("Audit maintenance ({}) of {} failed, it is retried on the next run", action, day, e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.epam.esm.service;
+
+import com.epam.esm.dto.AuditEventDto;
+import com.epam.esm.repository.audit.AuditLogReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * This service class provides access to audit events written to the memory-mapped audit log.
+ *
+ * @author Dmitry Karnyshov
+ */
+@Service
+@ConditionalOnProperty(name = "audit.sink", havingValue = "mapped-log")
+public class AuditService {
+    private AuditLogReader auditLogReader;
+
+    @Value("${audit.mapped-log.max-read-limit:10000}")
+    private int maxReadLimit;
+
+    public AuditService(AuditLogReader auditLogReader) {
+        this.auditLogReader = auditLogReader;
+    }
+
+    /**
+     * Retrieve audit events of the specified time range in the order they were written.
+     *
+     * @param from start of time range (inclusive)
+     * @param to end of time range (exclusive)
+     * @param limit max amount of events (is reduced to configured max value)
+     * @return list of {@link AuditEventDto} objects
+     */
+    public List<AuditEventDto> findEvents(LocalDateTime from, LocalDateTime to, int limit) {
+        if (!from.isBefore(to) || limit <= 0) {
+            return List.of();
+        }
+
+        return auditLogReader.read(from, to, Math.min(limit, maxReadLimit)).stream()
+                .map(AuditEventDto::fromEvent)
+                .toList();
+    }
+}
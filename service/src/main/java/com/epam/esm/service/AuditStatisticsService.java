@@ -0,0 +1,62 @@
+package com.epam.esm.service;
+
+import com.epam.esm.dto.AuditStatisticsDto;
+import com.epam.esm.dto.AuditWriterStatsDto;
+import com.epam.esm.entity.audit.AuditRollup;
+import com.epam.esm.repository.AuditRollupRepository;
+import com.epam.esm.repository.audit.BatchingAuditWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * This service class provides daily audit statistics of {@code audit_table}. Statistics are read from rollups
+ * maintained by {@link AuditRollupJob}, so raw events are never scanned. Counters of the background writer
+ * are provided too.
+ *
+ * @author Dmitry Karnyshov
+ */
+@Service
+@ConditionalOnProperty(name = "audit.sink", havingValue = "table", matchIfMissing = true)
+public class AuditStatisticsService {
+    private AuditRollupRepository rollupRepository;
+    private BatchingAuditWriter auditWriter;
+
+    public AuditStatisticsService(AuditRollupRepository rollupRepository, BatchingAuditWriter auditWriter) {
+        this.rollupRepository = rollupRepository;
+        this.auditWriter = auditWriter;
+    }
+
+    /**
+     * Retrieve daily counters of audit events of the specified date range. Days that are not rolled up yet
+     * (the current one at least) are not included.
+     *
+     * @param from first day (inclusive)
+     * @param to last day (exclusive)
+     * @param entityName name of audited entity or {@code null} to retrieve counters of all entities
+     * @return list of {@link AuditStatisticsDto} objects ordered by date, entity name and operation
+     */
+    public List<AuditStatisticsDto> findStatistics(LocalDate from, LocalDate to, String entityName) {
+        if (!from.isBefore(to)) {
+            return List.of();
+        }
+
+        List<AuditRollup> rollups = entityName != null
+                ? rollupRepository.findByDateRangeAndEntityName(from, to, entityName)
+                : rollupRepository.findByDateRange(from, to);
+
+        return rollups.stream()
+                .map(AuditStatisticsDto::fromRollup)
+                .toList();
+    }
+
+    /**
+     * @return pending, dropped, spilled and rejected counters of the background writer of audit events
+     */
+    public AuditWriterStatsDto findWriterStats() {
+        return new AuditWriterStatsDto(auditWriter.getPendingCount(), auditWriter.getDroppedCount(),
+                auditWriter.getSpilledCount(), auditWriter.getRejectedCount());
+    }
+}
@@ -0,0 +1,220 @@
+package com.epam.esm.service;
+
+import com.epam.esm.cache.CertificateSearchCache;
+import com.epam.esm.cache.TagDictionary;
+import com.epam.esm.dto.CertificateImportErrorDto;
+import com.epam.esm.dto.CertificateImportResultDto;
+import com.epam.esm.dto.GiftCertificateDto;
+import com.epam.esm.dto.mapping.CertificateImportReader;
+import com.epam.esm.entity.GiftCertificate;
+import com.epam.esm.entity.Tag;
+import com.epam.esm.index.CertificateTagIndex;
+import com.epam.esm.index.CertificateTextIndex;
+import com.epam.esm.repository.GiftCertificateRepository;
+import com.epam.esm.repository.TagRepository;
+import com.epam.esm.validator.GiftCertificateValidator;
+import com.epam.esm.validator.TagValidator;
+import com.epam.esm.validator.ValidationError;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.epam.esm.validator.ValidationError.MALFORMED_DATA;
+import static com.epam.esm.validator.ValidationError.SAVE_FAILED;
+import static java.time.ZoneOffset.UTC;
+
+/**
+ * This service class encapsulates bulk import of {@link GiftCertificate} entities.
+ *
+ * @author Dmitry Karnyshov
+ */
+@Service
+public class CertificateImportService {
+    private static final Logger logger = LogManager.getLogger();
+
+    private GiftCertificateRepository certificateRepository;
+    private TagRepository tagRepository;
+    private GiftCertificateValidator certificateValidator;
+    private TagValidator tagValidator;
+    private CertificateTagIndex tagIndex;
+    private CertificateTextIndex textIndex;
+    private TagDictionary tagDictionary;
+    private CertificateSearchCache searchCache;
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${certificates.import.chunk-size:500}")
+    private int chunkSize;
+
+    public CertificateImportService(
+            GiftCertificateRepository certificateRepository,
+            TagRepository tagRepository,
+            GiftCertificateValidator certificateValidator,
+            TagValidator tagValidator,
+            CertificateTagIndex tagIndex,
+            CertificateTextIndex textIndex,
+            TagDictionary tagDictionary,
+            CertificateSearchCache searchCache,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.certificateRepository = certificateRepository;
+        this.tagRepository = tagRepository;
+        this.certificateValidator = certificateValidator;
+        this.tagValidator = tagValidator;
+        this.tagIndex = tagIndex;
+        this.textIndex = textIndex;
+        this.tagDictionary = tagDictionary;
+        this.searchCache = searchCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Import certificates read from the specified reader.
+     * Every row is validated in the same way as a certificate created one by one, invalid and malformed rows
+     * are skipped and reported. Valid rows are inserted in chunks: tags of a chunk are resolved (and created)
+     * with a few set-based queries, certificates and their links to tags are inserted with JDBC batches.
+     * Every chunk is committed in its own transaction, so a failed chunk does not revert previous ones.
+     * Rows of a chunk that failed in the database are reported as not saved, the following chunks are still imported.
+     *
+     * @param reader {@link CertificateImportReader} instance
+     * @return {@link CertificateImportResultDto} object with amount of imported certificates and rejected rows
+     */
+    public CertificateImportResultDto importCertificates(CertificateImportReader reader) {
+        CertificateImportResultDto result = new CertificateImportResultDto();
+        List<GiftCertificateDto> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkRowNumbers = new ArrayList<>(chunkSize);
+
+        while (reader.hasNext()) {
+            CertificateImportReader.Row row = reader.next();
+            Optional<CertificateImportErrorDto> error = validate(row);
+
+            if (error.isPresent()) {
+                result.getErrors().add(error.get());
+                continue;
+            }
+
+            chunk.add(row.getCertificate());
+            chunkRowNumbers.add(row.getNumber());
+
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, chunkRowNumbers, result);
+                chunk.clear();
+                chunkRowNumbers.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, chunkRowNumbers, result);
+        }
+
+        // rows of failed chunks are reported after invalid rows that were read later
+        result.getErrors().sort(Comparator.comparingLong(CertificateImportErrorDto::getRow));
+        return result;
+    }
+
+    private Optional<CertificateImportErrorDto> validate(CertificateImportReader.Row row) {
+        if (row.isMalformed()) {
+            return Optional.of(new CertificateImportErrorDto(row.getNumber(), GiftCertificate.class.getSimpleName(),
+                    List.of(MALFORMED_DATA)));
+        }
+
+        GiftCertificateDto certificateDto = row.getCertificate();
+        List<ValidationError> validationErrors = certificateValidator.validate(certificateDto.toCertificate(),
+                false);
+
+        if (!validationErrors.isEmpty()) {
+            return Optional.of(new CertificateImportErrorDto(row.getNumber(), GiftCertificate.class.getSimpleName(),
+                    validationErrors));
+        }
+
+        List<String> tagNames = certificateDto.getTags() != null ? certificateDto.getTags() : List.of();
+
+        return tagNames.stream()
+                .map(tagValidator::validate)
+                .filter(tagValidationErrors -> !tagValidationErrors.isEmpty())
+                .findFirst()
+                .map(tagValidationErrors -> new CertificateImportErrorDto(row.getNumber(), Tag.class.getSimpleName(),
+                        tagValidationErrors));
+    }
+
+    private void importChunk(List<GiftCertificateDto> certificateDtos, List<Long> rowNumbers,
+                CertificateImportResultDto result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertChunk(certificateDtos));
+            result.setImportedCount(result.getImportedCount() + certificateDtos.size());
+        } catch (DataAccessException | TransactionException e) {
+            logger.error("Rows {} - {} were not imported", rowNumbers.get(0), rowNumbers.get(rowNumbers.size() - 1), e);
+            rowNumbers.forEach(rowNumber -> result.getErrors().add(new CertificateImportErrorDto(rowNumber,
+                    GiftCertificate.class.getSimpleName(), List.of(SAVE_FAILED))));
+        }
+    }
+
+    private void insertChunk(List<GiftCertificateDto> certificateDtos) {
+        Set<String> tagNames = certificateDtos.stream()
+                .filter(certificateDto -> certificateDto.getTags() != null)
+                .flatMap(certificateDto -> certificateDto.getTags().stream())
+                .collect(Collectors.toCollection(HashSet::new));
+        // rows are inserted with JDBC, so ids of known tags from the dictionary are enough
+        Map<String, Tag> tags = new HashMap<>();
+        tagDictionary.findExistingIds(tagNames).forEach((tagName, tagId) -> tags.put(tagName, new Tag(tagId, tagName)));
+        tagNames.removeAll(tags.keySet());
+
+        if (!tagNames.isEmpty()) {
+            List<Tag> createdTags = tagRepository.findOrCreateAllByName(tagNames);
+            createdTags.forEach(tag -> tags.put(tag.getName(), tag));
+            tagDictionary.putAll(createdTags);
+        }
+
+        LocalDateTime createDate = LocalDateTime.now(UTC);
+
+        List<GiftCertificate> certificates = certificateDtos.stream()
+                .map(certificateDto -> {
+                    GiftCertificate certificate = certificateDto.toCertificate();
+                    // ids of imported certificates are always allocated from the sequence
+                    certificate.setId(0);
+                    certificate.setCreateDate(createDate);
+                    certificate.setLastUpdateDate(createDate);
+
+                    if (certificateDto.getTags() != null) {
+                        List<Tag> certificateTags = certificateDto.getTags().stream()
+                                .distinct()
+                                .map(tags::get)
+                                .collect(Collectors.toCollection(ArrayList::new));
+                        certificate.setTags(certificateTags);
+                    }
+
+                    return certificate;
+                })
+                .toList();
+
+        certificateRepository.insertAll(certificates);
+
+        // indexes are updated after the chunk is committed
+        certificates.forEach(textIndex::putCertificate);
+        List<Long> taggedCertificateIds = certificates.stream()
+                .filter(certificate -> !certificate.getTags().isEmpty())
+                .map(GiftCertificate::getId)
+                .toList();
+
+        if (!taggedCertificateIds.isEmpty()) {
+            tagIndex.putCertificates(taggedCertificateIds);
+        }
+
+        searchCache.invalidateAll();
+    }
+}
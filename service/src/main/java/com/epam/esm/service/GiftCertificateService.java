@@ -1,29 +1,50 @@
 package com.epam.esm.service;
 
+import com.epam.esm.cache.CertificateCache;
+import com.epam.esm.cache.CertificateSearchCache;
+import com.epam.esm.cache.TagDictionary;
+import com.epam.esm.dto.CacheStatsDto;
 import com.epam.esm.dto.GiftCertificateDto;
 import com.epam.esm.dto.GiftCertificateSearchParamsDto;
 import com.epam.esm.entity.GiftCertificate;
 import com.epam.esm.entity.Tag;
 import com.epam.esm.exception.InvalidEntityException;
 import com.epam.esm.exception.EntityNotFoundException;
+import com.epam.esm.exception.InvalidPageContextException;
+import com.epam.esm.index.CertificateTagIndex;
+import com.epam.esm.index.CertificateTextIndex;
+import com.epam.esm.pagination.CursorPage;
+import com.epam.esm.repository.Keyset;
 import com.epam.esm.repository.OrderingType;
 import com.epam.esm.pagination.PageContext;
 import com.epam.esm.repository.GiftCertificateRepository;
 import com.epam.esm.repository.GiftCertificateSpecificationBuilder;
+import com.epam.esm.repository.GiftCertificateView;
+import com.epam.esm.repository.OrderRepository;
 import com.epam.esm.repository.TagRepository;
 import com.epam.esm.validator.GiftCertificateValidator;
 import com.epam.esm.validator.TagValidator;
 import com.epam.esm.validator.ValidationError;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.time.ZoneOffset.UTC;
@@ -35,63 +56,236 @@ import static java.time.ZoneOffset.UTC;
  */
 @Service
 public class GiftCertificateService {
+    private static final String NAME_SORT_KEY = "name";
+    private static final String CREATE_DATE_SORT_KEY = "createDate";
+    private static final String SORT_KEY_FORMAT = "%s.%s";
+    private static final String PAGE_RESULT_TYPE = "page";
+    private static final String SLICE_RESULT_TYPE = "slice";
+    private static final String CURSOR_PAGE_RESULT_TYPE = "cursorPage";
+
     private GiftCertificateRepository certificateRepository;
     private TagRepository tagRepository;
+    private OrderRepository orderRepository;
     private GiftCertificateValidator certificateValidator;
     private TagValidator tagValidator;
+    private CertificateTagIndex tagIndex;
+    private CertificateTextIndex textIndex;
+    private CertificateCache certificateCache;
+    private TagDictionary tagDictionary;
+    private CertificateSearchCache searchCache;
+
+    @Value("${certificates.export.fetch-size:500}")
+    private int exportFetchSize;
 
     public GiftCertificateService(
             GiftCertificateRepository certificateRepository,
             TagRepository tagRepository,
+            OrderRepository orderRepository,
             GiftCertificateValidator certificateValidator,
-            TagValidator tagValidator
+            TagValidator tagValidator,
+            CertificateTagIndex tagIndex,
+            CertificateTextIndex textIndex,
+            CertificateCache certificateCache,
+            TagDictionary tagDictionary,
+            CertificateSearchCache searchCache
     ) {
         this.certificateRepository = certificateRepository;
         this.tagRepository = tagRepository;
+        this.orderRepository = orderRepository;
         this.certificateValidator = certificateValidator;
         this.tagValidator = tagValidator;
+        this.tagIndex = tagIndex;
+        this.textIndex = textIndex;
+        this.certificateCache = certificateCache;
+        this.tagDictionary = tagDictionary;
+        this.searchCache = searchCache;
     }
 
     /**
      * Retrieve certificates according to specified parameters encapsulated in DTO object.
      * All parameters are optional, so if they are not present, all certificates will be retrieved.
+     * Ordering by relevance is applied only when name or description search is answered by text index.
      *
      * @param searchParamsDto {@link GiftCertificateSearchParamsDto} object with specified search parameters
      * @param pageContext {@link PageContext} object with pagination logic
      * @return {@link Page<GiftCertificate>} object
      */
     public Page<GiftCertificateDto> find(GiftCertificateSearchParamsDto searchParamsDto, PageContext pageContext) {
-        List<String> tagNames = searchParamsDto.getTagNames();
-        String certificateName = searchParamsDto.getCertificateName();
-        String certificateDescription = searchParamsDto.getCertificateDescription();
+        GiftCertificateSearchParamsDto normalizedParams = searchParamsDto.normalize();
+        return searchCache.get(PAGE_RESULT_TYPE, normalizedParams, pageContext,
+                () -> findPage(normalizedParams, pageContext));
+    }
+
+    /**
+     * Retrieve certificates according to specified parameters without counting total amount of them.
+     * Only one extra row is fetched to find out whether the next page exists, so no COUNT query is issued.
+     *
+     * @param searchParamsDto {@link GiftCertificateSearchParamsDto} object with specified search parameters
+     * @param pageContext {@link PageContext} object with pagination logic
+     * @return {@link Slice<GiftCertificateDto>} object
+     */
+    public Slice<GiftCertificateDto> findSlice(GiftCertificateSearchParamsDto searchParamsDto,
+                PageContext pageContext) {
+        GiftCertificateSearchParamsDto normalizedParams = searchParamsDto.normalize();
+        return searchCache.get(SLICE_RESULT_TYPE, normalizedParams, pageContext,
+                () -> findSlicePage(normalizedParams, pageContext));
+    }
+
+    /**
+     * Retrieve certificates according to specified parameters using keyset pagination.
+     * Rows are sought by the active sort attribute and id, so the cost of a page does not depend on its depth.
+     *
+     * @param searchParamsDto {@link GiftCertificateSearchParamsDto} object with specified search parameters
+     * @param pageContext {@link PageContext} object in keyset mode
+     * @throws InvalidPageContextException in case when cursor is malformed or was issued for another ordering
+     * @return {@link CursorPage<GiftCertificateDto>} object
+     */
+    public CursorPage<GiftCertificateDto> scroll(GiftCertificateSearchParamsDto searchParamsDto,
+                PageContext pageContext) {
+        GiftCertificateSearchParamsDto normalizedParams = searchParamsDto.normalize();
+        return searchCache.get(CURSOR_PAGE_RESULT_TYPE, normalizedParams, pageContext,
+                () -> scrollPage(normalizedParams, pageContext));
+    }
+
+    private Page<GiftCertificateDto> findPage(GiftCertificateSearchParamsDto searchParamsDto,
+                PageContext pageContext) {
+        Optional<List<Long>> rankedIds = textIndex.search(searchParamsDto.getCertificateName(),
+                searchParamsDto.getCertificateDescription());
+        Specification<GiftCertificate> specification = createSpecificationBuilder(searchParamsDto, rankedIds)
+                .build();
+        PageRequest pageRequest = pageContext.toPageRequest();
+
+        if (searchParamsDto.isOrderByRelevance() && rankedIds.isPresent()) {
+            return findOrderedByRelevance(specification, rankedIds.get(), pageRequest);
+        }
+
+        List<GiftCertificateView> certificates = certificateRepository.findViewRange(specification,
+                pageRequest.getOffset(), pageRequest.getPageSize());
+
+        // count query is skipped when the total is known from the content (e.g. the last page)
+        return PageableExecutionUtils.getPage(certificates, pageRequest,
+                        () -> certificateRepository.count(specification))
+                .map(GiftCertificateDto::fromView);
+    }
+
+    private Slice<GiftCertificateDto> findSlicePage(GiftCertificateSearchParamsDto searchParamsDto,
+                PageContext pageContext) {
+        Specification<GiftCertificate> specification = createSpecificationBuilder(searchParamsDto).build();
+        PageRequest pageRequest = pageContext.toPageRequest();
+        int pageSize = pageRequest.getPageSize();
+        List<GiftCertificateView> certificates = certificateRepository.findViewRange(specification,
+                pageRequest.getOffset(), pageSize + 1);
+
+        boolean hasNext = certificates.size() > pageSize;
+        List<GiftCertificateView> content = hasNext ? certificates.subList(0, pageSize) : certificates;
+
+        return new SliceImpl<>(content, pageRequest, hasNext)
+                .map(GiftCertificateDto::fromView);
+    }
+
+    private CursorPage<GiftCertificateDto> scrollPage(GiftCertificateSearchParamsDto searchParamsDto,
+                PageContext pageContext) {
         OrderingType nameOrderingType = searchParamsDto.getOrderByName();
         OrderingType createDateOrderingType = searchParamsDto.getOrderByCreateDate();
+        String sortKey;
+        Function<String, ? extends Comparable<?>> sortValueParser;
+        Function<GiftCertificateView, String> sortValueExtractor;
+
+        // ordering by create date is applied last by specification builder, so it takes precedence
+        if (createDateOrderingType != null) {
+            sortKey = String.format(SORT_KEY_FORMAT, CREATE_DATE_SORT_KEY, createDateOrderingType);
+            sortValueParser = LocalDateTime::parse;
+            sortValueExtractor = certificate -> certificate.getCreateDate().toString();
+        } else if (nameOrderingType != null) {
+            sortKey = String.format(SORT_KEY_FORMAT, NAME_SORT_KEY, nameOrderingType);
+            sortValueParser = Function.identity();
+            sortValueExtractor = GiftCertificateView::getName;
+        } else {
+            sortKey = PageContext.ID_SORT_KEY;
+            sortValueParser = Function.identity();
+            sortValueExtractor = certificate -> null;
+        }
 
-        Specification<GiftCertificate> specification = new GiftCertificateSpecificationBuilder()
-                .certificateName(certificateName)
-                .certificateDescription(certificateDescription)
-                .tagNames(tagNames)
-                .orderByCertificateName(nameOrderingType)
-                .orderByCreateDate(createDateOrderingType)
+        Keyset keyset = pageContext.toKeyset(sortKey, sortValueParser);
+        Specification<GiftCertificate> specification = createSpecificationBuilder(searchParamsDto)
+                .keyset(keyset)
+                .build();
+        List<GiftCertificateView> certificates = certificateRepository.findViewRange(specification, 0,
+                pageContext.getKeysetLimit());
+
+        return pageContext.toCursorPage(certificates, sortKey, sortValueExtractor, GiftCertificateView::getId)
+                .map(GiftCertificateDto::fromView);
+    }
+
+    /**
+     * Retrieve all certificates according to specified parameters without pagination.
+     * Rows are read through a database cursor ordered by the active sort attribute and id
+     * and passed to the consumer in chunks, so memory consumption does not depend on the size of catalog.
+     *
+     * @param searchParamsDto {@link GiftCertificateSearchParamsDto} object with specified search parameters
+     * @param chunkConsumer consumer of {@link GiftCertificateDto} chunks
+     */
+    @Transactional(readOnly = true)
+    public void export(GiftCertificateSearchParamsDto searchParamsDto,
+                Consumer<List<GiftCertificateDto>> chunkConsumer) {
+        Specification<GiftCertificate> specification = createSpecificationBuilder(searchParamsDto.normalize())
+                .keyset(Keyset.first())
                 .build();
-        PageRequest pageRequest = pageContext.toPageRequest();
 
-        return certificateRepository.findAll(specification, pageRequest)
-                .map(GiftCertificateDto::fromCertificate);
+        certificateRepository.streamViews(specification, exportFetchSize, certificates -> chunkConsumer.accept(
+                certificates.stream()
+                        .map(GiftCertificateDto::fromView)
+                        .toList()
+        ));
     }
 
     /**
-     * Retrieve certificate by its unique id.
+     * Retrieve certificate by its unique id. Certificates are served from {@link CertificateCache} when possible.
      *
      * @param id certificate id
      * @throws EntityNotFoundException in case when certificate with this id does not exist
      * @return {@link GiftCertificateDto} object
      */
     public GiftCertificateDto findById(long id) {
-        GiftCertificate certificate = certificateRepository.findById(id).orElseThrow(() ->
-                new EntityNotFoundException(id, GiftCertificate.class));
+        return certificateCache.get(id, certificateId -> {
+            GiftCertificate certificate = certificateRepository.findById(certificateId).orElseThrow(() ->
+                    new EntityNotFoundException(certificateId, GiftCertificate.class));
+
+            return GiftCertificateDto.fromCertificate(certificate);
+        });
+    }
+
+    /**
+     * Retrieve last update date of certificate without loading the certificate. The date is taken
+     * from {@link CertificateCache} when the certificate is cached, otherwise only this column is selected.
+     *
+     * @param id certificate id
+     * @throws EntityNotFoundException in case when certificate with this id does not exist
+     * @return last update date
+     */
+    public LocalDateTime findLastUpdateDate(long id) {
+        return certificateCache.getIfPresent(id)
+                .map(GiftCertificateDto::getLastUpdateDate)
+                .or(() -> certificateRepository.findLastUpdateDateById(id))
+                .orElseThrow(() -> new EntityNotFoundException(id, GiftCertificate.class));
+    }
 
-        return GiftCertificateDto.fromCertificate(certificate);
+    /**
+     * Retrieve version of the whole catalog, it is changed by every certificate or tag write.
+     *
+     * @return opaque version string
+     */
+    public String findCatalogVersion() {
+        return searchCache.getCatalogVersionTag();
+    }
+
+    /**
+     * Retrieve counters of certificate cache.
+     *
+     * @return {@link CacheStatsDto} object
+     */
+    public CacheStatsDto findCacheStats() {
+        return certificateCache.getStats();
     }
 
     /**
@@ -117,13 +311,18 @@ public class GiftCertificateService {
         certificate.setLastUpdateDate(createDate);
 
         GiftCertificate createdCertificate = certificateRepository.save(certificate);
+        textIndex.putCertificate(createdCertificate);
 
         // we do not update tags if it is not specified in request (i.e. tagNames == null)
         if (tagNames != null) {
             List<Tag> tags = processTags(certificateDto.getTags());
             certificate.setTags(tags);
+            tagIndex.putCertificate(createdCertificate.getId());
         }
 
+        // registered after index modifications, so pages loaded with the new catalog version see them
+        searchCache.invalidateAll();
+
         return GiftCertificateDto.fromCertificate(createdCertificate);
     }
 
@@ -170,10 +369,22 @@ public class GiftCertificateService {
         // we do not update tags if it is not specified in request (i.e. tagNames == null)
         if (tagNames != null) {
             List<Tag> tags = processTags(certificateDto.getTags());
+            // orders of the certificate are moved from usage of old tags to usage of new ones
+            orderRepository.removeCertificateFromStatistics(certificateId);
             certificate.setTags(tags);
+            tagIndex.putCertificate(certificateId);
         }
 
         GiftCertificate updatedCertificate = certificateRepository.save(certificate);
+
+        if (tagNames != null) {
+            orderRepository.addCertificateToStatistics(certificateId);
+        }
+
+        textIndex.putCertificate(updatedCertificate);
+        certificateCache.invalidate(certificateId);
+        searchCache.invalidateAll();
+
         return GiftCertificateDto.fromCertificate(updatedCertificate);
     }
 
@@ -183,34 +394,110 @@ public class GiftCertificateService {
      * @param id certificate id
      * @throws EntityNotFoundException in case when certificate with this id does not exist
      */
+    @Transactional
     public void delete(long id) {
         GiftCertificate certificate = certificateRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(id, GiftCertificate.class));
+        // links to orders are deleted together with the certificate
+        orderRepository.removeCertificateFromStatistics(id);
         certificateRepository.delete(certificate);
+        tagIndex.removeCertificate(id);
+        textIndex.removeCertificate(id);
+        certificateCache.invalidate(id);
+        searchCache.invalidateAll();
+    }
+
+    private Page<GiftCertificateDto> findOrderedByRelevance(Specification<GiftCertificate> specification,
+                List<Long> rankedIds, PageRequest pageRequest) {
+        Map<Long, Integer> ranks = new HashMap<>();
+
+        for (int i = 0; i < rankedIds.size(); i++) {
+            ranks.put(rankedIds.get(i), i);
+        }
+
+        // the amount of candidates is limited by text index, so they can be ranked in memory
+        List<GiftCertificateView> certificates = certificateRepository.findViewRange(specification, 0,
+                        rankedIds.size()).stream()
+                .sorted(Comparator.comparing(certificate -> ranks.get(certificate.getId())))
+                .toList();
+        int fromIndex = (int) Math.min(pageRequest.getOffset(), certificates.size());
+        int toIndex = Math.min(fromIndex + pageRequest.getPageSize(), certificates.size());
+
+        return new PageImpl<>(certificates.subList(fromIndex, toIndex), pageRequest, certificates.size())
+                .map(GiftCertificateDto::fromView);
+    }
+
+    private GiftCertificateSpecificationBuilder createSpecificationBuilder(
+                GiftCertificateSearchParamsDto searchParamsDto) {
+        Optional<List<Long>> textCandidateIds = textIndex.search(searchParamsDto.getCertificateName(),
+                searchParamsDto.getCertificateDescription());
+        return createSpecificationBuilder(searchParamsDto, textCandidateIds);
+    }
+
+    private GiftCertificateSpecificationBuilder createSpecificationBuilder(
+                GiftCertificateSearchParamsDto searchParamsDto, Optional<List<Long>> textCandidateIds) {
+        List<String> tagNames = searchParamsDto.getTagNames();
+        String certificateName = searchParamsDto.getCertificateName();
+        String certificateDescription = searchParamsDto.getCertificateDescription();
+        OrderingType nameOrderingType = searchParamsDto.getOrderByName();
+        OrderingType createDateOrderingType = searchParamsDto.getOrderByCreateDate();
+
+        boolean ignoreCase = searchParamsDto.isIgnoreCase();
+
+        GiftCertificateSpecificationBuilder specificationBuilder = new GiftCertificateSpecificationBuilder()
+                .certificateName(certificateName, ignoreCase)
+                .certificateDescription(certificateDescription, ignoreCase);
+
+        // tag filter is answered by in-memory index when possible, SQL join remains as a fallback
+        Optional<List<Long>> certificateIds = tagNames != null
+                ? tagIndex.findCertificatesWithAllTags(tagNames)
+                : Optional.empty();
+
+        if (certificateIds.isPresent()) {
+            specificationBuilder.certificateIds(certificateIds.get());
+        } else {
+            specificationBuilder.tagNames(tagNames);
+        }
+
+        // text index narrows LIKE predicates down to candidate rows instead of a full table scan
+        textCandidateIds.ifPresent(specificationBuilder::certificateIds);
+
+        return specificationBuilder
+                .orderByCertificateName(nameOrderingType)
+                .orderByCreateDate(createDateOrderingType);
     }
 
     private List<Tag> processTags(List<String> tagNames) {
-        return tagNames.stream()
-                .map(tagName -> {
-                    List<ValidationError> validationErrors = tagValidator.validate(tagName);
-
-                    if (!validationErrors.isEmpty()) {
-                        throw new InvalidEntityException(validationErrors, Tag.class);
-                    }
-
-                    Optional<Tag> optionalTag = tagRepository.findByName(tagName);
-                    Tag tag;
-
-                    if (optionalTag.isEmpty()) {
-                        tag = new Tag();
-                        tag.setName(tagName);
-                        tagRepository.save(tag);
-                    } else {
-                        tag = optionalTag.get();
-                    }
-
-                    return tag;
-                })
+        List<String> distinctTagNames = tagNames.stream()
+                .distinct()
+                .toList();
+
+        for (String tagName : distinctTagNames) {
+            List<ValidationError> validationErrors = tagValidator.validate(tagName);
+
+            if (!validationErrors.isEmpty()) {
+                throw new InvalidEntityException(validationErrors, Tag.class);
+            }
+        }
+
+        // known tags are resolved with dictionary lookups checked by one query, detached tags are enough
+        // to write join rows
+        Map<String, Tag> tags = new HashMap<>();
+        tagDictionary.findExistingIds(distinctTagNames)
+                .forEach((tagName, tagId) -> tags.put(tagName, new Tag(tagId, tagName)));
+        List<String> newTagNames = distinctTagNames.stream()
+                .filter(tagName -> !tags.containsKey(tagName))
+                .toList();
+
+        // new tags are resolved with a constant number of queries regardless of their amount
+        if (!newTagNames.isEmpty()) {
+            List<Tag> createdTags = tagRepository.findOrCreateAllByName(newTagNames);
+            createdTags.forEach(tag -> tags.put(tag.getName(), tag));
+            tagDictionary.putAll(createdTags);
+        }
+
+        return distinctTagNames.stream()
+                .map(tags::get)
                 // it's important to make an ArrayList object: Hibernate requires MODIFIABLE collection
                 // so .toList() is erroneous solution!
                 .collect(Collectors.toCollection(ArrayList::new));
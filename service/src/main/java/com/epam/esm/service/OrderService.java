@@ -1,5 +1,6 @@
 package com.epam.esm.service;
 
+import com.epam.esm.dto.OrderBatchItemDto;
 import com.epam.esm.dto.OrderDto;
 import com.epam.esm.dto.TagDto;
 import com.epam.esm.entity.GiftCertificate;
@@ -7,17 +8,38 @@ import com.epam.esm.entity.Order;
 import com.epam.esm.entity.User;
 import com.epam.esm.exception.EmptyOrderException;
 import com.epam.esm.exception.EntityNotFoundException;
+import com.epam.esm.exception.InvalidEntityException;
+import com.epam.esm.exception.InvalidPageContextException;
+import com.epam.esm.pagination.CursorPage;
 import com.epam.esm.pagination.PageContext;
 import com.epam.esm.repository.GiftCertificateRepository;
+import com.epam.esm.repository.OrderCertificateLink;
 import com.epam.esm.repository.OrderRepository;
+import com.epam.esm.repository.OrderView;
 import com.epam.esm.repository.UserRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
 
+import static com.epam.esm.validator.ValidationError.TOO_MANY_ITEMS;
 import static java.time.ZoneOffset.UTC;
 
 /**
@@ -27,17 +49,29 @@ import static java.time.ZoneOffset.UTC;
  */
 @Service
 public class OrderService {
+    private static final Logger logger = LogManager.getLogger();
+
     private OrderRepository orderRepository;
     private UserRepository userRepository;
     private GiftCertificateRepository certificateRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${orders.batch.chunk-size:100}")
+    private int chunkSize;
+
+    // a batch holds a pooled connection for the whole request, so its size is limited
+    @Value("${orders.batch.max-size:1000}")
+    private int maxBatchSize;
 
     public OrderService(
             OrderRepository orderRepository,
             UserRepository userRepository,
-            GiftCertificateRepository certificateRepository) {
+            GiftCertificateRepository certificateRepository,
+            PlatformTransactionManager transactionManager) {
         this.orderRepository = orderRepository;
         this.userRepository = userRepository;
         this.certificateRepository = certificateRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -47,8 +81,8 @@ public class OrderService {
      * @return {@link Page<OrderDto>} object
      */
     public Page<OrderDto> findAll(PageContext pageContext) {
-        return orderRepository.findAll(pageContext.toPageRequest())
-                .map(OrderDto::fromOrder);
+        Page<OrderView> orders = orderRepository.findAllViews(pageContext.toPageRequest());
+        return orders.map(createViewMapper(orders.getContent()));
     }
 
 
@@ -60,8 +94,44 @@ public class OrderService {
      * @return {@link Page<OrderDto>} object
      */
     public Page<OrderDto> findByUser(long userId, PageContext pageContext) {
-        return orderRepository.findByUserId(userId, pageContext.toPageRequest())
-                .map(OrderDto::fromOrder);
+        Page<OrderView> orders = orderRepository.findViewsByUserId(userId, pageContext.toPageRequest());
+        return orders.map(createViewMapper(orders.getContent()));
+    }
+
+    /**
+     * Retrieve all orders using keyset pagination.
+     *
+     * @param pageContext {@link PageContext} object in keyset mode
+     * @throws InvalidPageContextException in case when cursor is malformed
+     * @return {@link CursorPage<OrderDto>} object
+     */
+    public CursorPage<OrderDto> scrollAll(PageContext pageContext) {
+        long keysetId = pageContext.getKeysetId();
+        List<OrderView> orders = pageContext.isBackward()
+                ? orderRepository.findViewsByIdLessThan(keysetId, pageContext.toKeysetPageRequest())
+                : orderRepository.findViewsByIdGreaterThan(keysetId, pageContext.toKeysetPageRequest());
+
+        return pageContext.toCursorPage(orders, OrderView::getId)
+                .map(createViewMapper(orders));
+    }
+
+    /**
+     * Retrieve all orders of specified user using keyset pagination.
+     *
+     * @param userId user id
+     * @param pageContext {@link PageContext} object in keyset mode
+     * @throws InvalidPageContextException in case when cursor is malformed
+     * @return {@link CursorPage<OrderDto>} object
+     */
+    public CursorPage<OrderDto> scrollByUser(long userId, PageContext pageContext) {
+        long keysetId = pageContext.getKeysetId();
+        List<OrderView> orders = pageContext.isBackward()
+                ? orderRepository.findViewsByUserIdAndIdLessThan(userId, keysetId, pageContext.toKeysetPageRequest())
+                : orderRepository.findViewsByUserIdAndIdGreaterThan(userId, keysetId,
+                        pageContext.toKeysetPageRequest());
+
+        return pageContext.toCursorPage(orders, OrderView::getId)
+                .map(createViewMapper(orders));
     }
 
     /**
@@ -79,12 +149,16 @@ public class OrderService {
 
     /**
      * Make an order.
+     * All ordered certificates are retrieved with one query, so the cost is computed from prices of the same
+     * snapshot. A certificate which id is repeated is ordered (and paid) the corresponding number of times.
+     * Aggregates of user orders are updated in the same transaction.
      *
      * @param orderDto {@link OrderDto} instance (only {@code userId} and {@code certificateId} are required)
      * @throws EmptyOrderException in case when passed list of certificate ids is empty
      * @throws EntityNotFoundException in case when user or (and) certificate with specified ids do not exist
      * @return {@link OrderDto} object that represents created order
      */
+    @Transactional
     public OrderDto makeOrder(OrderDto orderDto) {
         long userId = orderDto.getUserId();
         List<Long> certificateIds = orderDto.getCertificateIds();
@@ -95,17 +169,152 @@ public class OrderService {
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException(userId, User.class));
-        List<GiftCertificate> certificates = certificateIds.stream()
-                .map(id -> certificateRepository.findById(id)
-                        .orElseThrow(() -> new EntityNotFoundException(id, GiftCertificate.class)))
-                .toList();
+        Map<Long, GiftCertificate> foundCertificates = findCertificates(Set.copyOf(certificateIds));
 
-        Order preparedOrder = prepareOrder(certificates, user);
+        // certificate_order rows are inserted with one JDBC batch on flush
+        Order preparedOrder = prepareOrder(certificateIds, foundCertificates, user);
         Order createdOrder = orderRepository.save(preparedOrder);
+        orderRepository.addToStatistics(List.of(createdOrder));
         return OrderDto.fromOrder(createdOrder);
     }
 
-    private Order prepareOrder(List<GiftCertificate> certificates, User user) {
+    /**
+     * Make several orders at once.
+     * Orders are processed in chunks, every chunk is committed in its own transaction: users and certificates
+     * of the whole chunk are retrieved with two queries, orders and their links to certificates are inserted
+     * with JDBC batches, aggregates of user orders are updated in the same transaction. Chunks are processed
+     * one by one, so only one connection is used at a time.
+     * Orders that cannot be made are skipped and reported in result, they do not affect other orders.
+     * When a chunk fails in the database, its orders are reported as failed and the following chunks are still
+     * processed, so the result tells exactly which orders were made.
+     *
+     * @param orderDtos list of {@link OrderDto} instances (only {@code userId} and {@code certificateId}
+     *                  are required)
+     * @param userAccessChecker predicate that tells if orders of user with specified id can be made by caller
+     * @throws InvalidEntityException in case when the batch contains more orders than allowed
+     * @return list of {@link OrderBatchItemDto} objects with result of every order in the same order as passed
+     */
+    public List<OrderBatchItemDto> makeOrders(List<OrderDto> orderDtos, LongPredicate userAccessChecker) {
+        if (orderDtos.size() > maxBatchSize) {
+            throw new InvalidEntityException(List.of(TOO_MANY_ITEMS), Order.class);
+        }
+
+        List<OrderBatchItemDto> results = new ArrayList<>(orderDtos.size());
+
+        for (int from = 0; from < orderDtos.size(); from += chunkSize) {
+            int offset = from;
+            List<OrderDto> chunk = orderDtos.subList(from, Math.min(from + chunkSize, orderDtos.size()));
+
+            try {
+                results.addAll(transactionTemplate.execute(status ->
+                        makeChunkOrders(chunk, offset, userAccessChecker)));
+            } catch (DataAccessException | TransactionException e) {
+                logger.error("Orders {} - {} were not made", offset, offset + chunk.size() - 1, e);
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(OrderBatchItemDto.failed(offset + i));
+                }
+            }
+        }
+
+        return results;
+    }
+
+    private Function<OrderView, OrderDto> createViewMapper(List<OrderView> orders) {
+        List<Long> orderIds = orders.stream()
+                .map(OrderView::getId)
+                .toList();
+
+        // certificate ids of the whole page are retrieved with one query
+        Map<Long, List<Long>> certificateIds = !orderIds.isEmpty()
+                ? orderRepository.findCertificateLinks(orderIds).stream()
+                        .collect(Collectors.groupingBy(OrderCertificateLink::getOrderId,
+                                Collectors.mapping(OrderCertificateLink::getCertificateId, Collectors.toList())))
+                : Map.of();
+
+        return order -> OrderDto.fromView(order, certificateIds.getOrDefault(order.getId(), List.of()));
+    }
+
+    private List<OrderBatchItemDto> makeChunkOrders(List<OrderDto> orderDtos, int offset,
+                LongPredicate userAccessChecker) {
+        List<OrderBatchItemDto> results = new ArrayList<>(orderDtos.size());
+        List<OrderDto> acceptedOrderDtos = new ArrayList<>();
+
+        for (int i = 0; i < orderDtos.size(); i++) {
+            OrderDto orderDto = orderDtos.get(i);
+
+            if (!userAccessChecker.test(orderDto.getUserId())) {
+                results.add(OrderBatchItemDto.rejected(offset + i, OrderBatchItemDto.Status.ACCESS_DENIED));
+            } else if (orderDto.getCertificateIds() == null || orderDto.getCertificateIds().isEmpty()) {
+                results.add(OrderBatchItemDto.rejected(offset + i, OrderBatchItemDto.Status.EMPTY_ORDER));
+            } else {
+                // placeholder is replaced when the order is made
+                results.add(null);
+                acceptedOrderDtos.add(orderDto);
+            }
+        }
+
+        Set<Long> userIds = acceptedOrderDtos.stream()
+                .map(OrderDto::getUserId)
+                .collect(Collectors.toSet());
+        Set<Long> certificateIds = acceptedOrderDtos.stream()
+                .flatMap(orderDto -> orderDto.getCertificateIds().stream())
+                .collect(Collectors.toSet());
+        Map<Long, User> users = !userIds.isEmpty()
+                ? userRepository.findAllById(userIds).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()))
+                : Map.of();
+        Map<Long, GiftCertificate> certificates = !certificateIds.isEmpty()
+                ? findCertificates(certificateIds)
+                : Map.of();
+
+        List<Order> preparedOrders = new ArrayList<>(acceptedOrderDtos.size());
+        List<Integer> preparedOrderPositions = new ArrayList<>(acceptedOrderDtos.size());
+
+        for (int i = 0; i < orderDtos.size(); i++) {
+            if (results.get(i) != null) {
+                continue;
+            }
+
+            OrderDto orderDto = orderDtos.get(i);
+            long userId = orderDto.getUserId();
+
+            try {
+                User user = Optional.ofNullable(users.get(userId))
+                        .orElseThrow(() -> new EntityNotFoundException(userId, User.class));
+                preparedOrders.add(prepareOrder(orderDto.getCertificateIds(), certificates, user));
+                preparedOrderPositions.add(i);
+            } catch (EntityNotFoundException e) {
+                results.set(i, OrderBatchItemDto.notFound(offset + i, e));
+            }
+        }
+
+        // orders and certificate_order rows are inserted with JDBC batches when aggregates are updated
+        List<Order> createdOrders = orderRepository.saveAll(preparedOrders);
+        orderRepository.addToStatistics(createdOrders);
+
+        for (int i = 0; i < createdOrders.size(); i++) {
+            int position = preparedOrderPositions.get(i);
+            results.set(position, OrderBatchItemDto.created(offset + position,
+                    OrderDto.fromOrder(createdOrders.get(i))));
+        }
+
+        return results;
+    }
+
+    private Map<Long, GiftCertificate> findCertificates(Set<Long> certificateIds) {
+        // all certificates are retrieved with one query, so their prices are taken from the same snapshot
+        return certificateRepository.findAllById(certificateIds).stream()
+                .collect(Collectors.toMap(GiftCertificate::getId, Function.identity()));
+    }
+
+    private Order prepareOrder(List<Long> certificateIds, Map<Long, GiftCertificate> foundCertificates,
+                User user) {
+        // the same certificate may be ordered several times
+        List<GiftCertificate> certificates = certificateIds.stream()
+                .map(id -> Optional.ofNullable(foundCertificates.get(id))
+                        .orElseThrow(() -> new EntityNotFoundException(id, GiftCertificate.class)))
+                .collect(Collectors.toCollection(ArrayList::new));
         LocalDateTime purchaseDate = LocalDateTime.now(UTC);
         BigDecimal cost = certificates.stream()
                 .map(GiftCertificate::getPrice)
@@ -1,19 +1,34 @@
 package com.epam.esm.service;
 
+import com.epam.esm.cache.CertificateCache;
+import com.epam.esm.cache.CertificateSearchCache;
+import com.epam.esm.cache.TagDictionary;
+import com.epam.esm.cache.TagDictionarySnapshot;
+import com.epam.esm.dto.MostUsedTagCheckDto;
 import com.epam.esm.dto.TagDto;
 import com.epam.esm.entity.Tag;
 import com.epam.esm.exception.EntityAlreadyExistsException;
 import com.epam.esm.exception.EntityNotFoundException;
 import com.epam.esm.exception.InvalidEntityException;
+import com.epam.esm.exception.InvalidPageContextException;
+import com.epam.esm.index.CertificateTagIndex;
+import com.epam.esm.pagination.CursorPage;
 import com.epam.esm.pagination.PageContext;
+import com.epam.esm.repository.GiftCertificateRepository;
+import com.epam.esm.repository.OrderRepository;
 import com.epam.esm.repository.TagRepository;
 import com.epam.esm.validator.TagValidator;
 import com.epam.esm.validator.ValidationError;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static java.time.ZoneOffset.UTC;
+
 /**
  * This service class encapsulated business logic related to {@link Tag} entity.
  *
@@ -22,11 +37,25 @@ import java.util.List;
 @Service
 public class TagService {
     private TagRepository tagRepository;
+    private GiftCertificateRepository certificateRepository;
+    private OrderRepository orderRepository;
     private TagValidator tagValidator;
+    private CertificateTagIndex tagIndex;
+    private CertificateCache certificateCache;
+    private TagDictionary tagDictionary;
+    private CertificateSearchCache searchCache;
 
-    public TagService(TagRepository tagRepository, TagValidator tagValidator) {
+    public TagService(TagRepository tagRepository, GiftCertificateRepository certificateRepository,
+                OrderRepository orderRepository, TagValidator tagValidator, CertificateTagIndex tagIndex,
+                CertificateCache certificateCache, TagDictionary tagDictionary, CertificateSearchCache searchCache) {
         this.tagRepository = tagRepository;
+        this.certificateRepository = certificateRepository;
+        this.orderRepository = orderRepository;
         this.tagValidator = tagValidator;
+        this.tagIndex = tagIndex;
+        this.certificateCache = certificateCache;
+        this.tagDictionary = tagDictionary;
+        this.searchCache = searchCache;
     }
 
     /**
@@ -40,6 +69,33 @@ public class TagService {
                 .map(TagDto::fromTag);
     }
 
+    /**
+     * Retrieve all tags at once as a serialized snapshot of the tag dictionary.
+     * The snapshot is reused until a tag is created or deleted.
+     *
+     * @return {@link TagDictionarySnapshot} object
+     */
+    public TagDictionarySnapshot findDictionarySnapshot() {
+        return tagDictionary.getSnapshot();
+    }
+
+    /**
+     * Retrieve all tags using keyset pagination.
+     *
+     * @param pageContext {@link PageContext} object in keyset mode
+     * @throws InvalidPageContextException in case when cursor is malformed
+     * @return {@link CursorPage<TagDto>} object
+     */
+    public CursorPage<TagDto> scrollAll(PageContext pageContext) {
+        long keysetId = pageContext.getKeysetId();
+        List<Tag> tags = pageContext.isBackward()
+                ? tagRepository.findByIdLessThan(keysetId, pageContext.toKeysetPageRequest())
+                : tagRepository.findByIdGreaterThan(keysetId, pageContext.toKeysetPageRequest());
+
+        return pageContext.toCursorPage(tags, Tag::getId)
+                .map(TagDto::fromTag);
+    }
+
     /**
      * Retrieve tag by its unique id.
      *
@@ -55,16 +111,44 @@ public class TagService {
 
     /**
      * Retrieve the most widely used tag of a user with the highest cost of all orders.
+     * The tag is read from order aggregates, which are updated when orders are made, so orders are not scanned.
      *
      * @throws EntityNotFoundException in case when such tag does not exist
      * @return {@link TagDto} object
      */
     public TagDto findMostWidelyUsedTag() {
-        Tag tag = tagRepository.findMostWidelyUsedTag()
+        Tag tag = tagRepository.findMostWidelyUsedTagByStatistics()
                 .orElseThrow(() -> new EntityNotFoundException(Tag.class));
         return TagDto.fromTag(tag);
     }
 
+    /**
+     * Compare the most widely used tag read from order aggregates with the one computed from all orders.
+     * The computation scans all orders, so it is meant for occasional consistency checks only.
+     * It breaks ties between users or tags arbitrarily, so the tags may also differ when there is a tie.
+     *
+     * @return {@link MostUsedTagCheckDto} object
+     */
+    @Transactional(readOnly = true)
+    public MostUsedTagCheckDto checkMostWidelyUsedTag() {
+        TagDto statisticsTag = tagRepository.findMostWidelyUsedTagByStatistics()
+                .map(TagDto::fromTag)
+                .orElse(null);
+        TagDto queryTag = tagRepository.findMostWidelyUsedTag()
+                .map(TagDto::fromTag)
+                .orElse(null);
+
+        return MostUsedTagCheckDto.of(statisticsTag, queryTag);
+    }
+
+    /**
+     * Rebuild order aggregates of all users from orders. Orders cannot be made while aggregates are rebuilt.
+     */
+    @Transactional
+    public void rebuildStatistics() {
+        orderRepository.rebuildStatistics();
+    }
+
     /**
      * Create a new tag.
      *
@@ -82,23 +166,45 @@ public class TagService {
         }
 
         String name = tag.getName();
-        if (tagRepository.findByName(name).isPresent()) {
+        // the dictionary can only confirm that a tag exists, tags created elsewhere may be unknown to it yet
+        boolean tagExists = tagDictionary.isLoaded() && tagDictionary.findId(name).isPresent()
+                || tagRepository.findByName(name).isPresent();
+
+        if (tagExists) {
             throw new EntityAlreadyExistsException();
         }
 
-        Tag createdTag = tagRepository.save(tag);
+        Tag createdTag;
+
+        try {
+            createdTag = tagRepository.save(tag);
+        } catch (DataIntegrityViolationException e) {
+            // the same tag was created concurrently after the check
+            throw new EntityAlreadyExistsException();
+        }
+
+        tagDictionary.putAll(List.of(createdTag));
+        searchCache.invalidateAll();
+
         return TagDto.fromTag(createdTag);
     }
 
     /**
-     * Delete an existing tag.
+     * Delete an existing tag. Certificates having the tag are updated, since they do not list it anymore.
      *
      * @param id tag id
      * @throws EntityNotFoundException in case when tag with this id does not exist
      */
+    @Transactional
     public void delete(long id) {
         Tag tag = tagRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(id, Tag.class));
+        certificateRepository.updateLastUpdateDateByTagId(id, LocalDateTime.now(UTC));
         tagRepository.delete(tag);
+        tagIndex.removeTag(tag.getName());
+        tagDictionary.remove(tag.getName());
+        // cached certificates still list the deleted tag
+        certificateCache.invalidateTag(tag.getName());
+        searchCache.invalidateAll();
     }
 }
@@ -1,13 +1,24 @@
 package com.epam.esm.service;
 
+import com.epam.esm.cache.AuthenticationCache;
+import com.epam.esm.dto.CacheStatsDto;
 import com.epam.esm.dto.TokenDto;
 import com.epam.esm.dto.UserDto;
+import com.epam.esm.dto.UserStatsDto;
 import com.epam.esm.exception.EntityAlreadyExistsException;
 import com.epam.esm.exception.InvalidEntityException;
+import com.epam.esm.exception.InvalidPageContextException;
+import com.epam.esm.pagination.CursorPage;
 import com.epam.esm.pagination.PageContext;
 import com.epam.esm.entity.User;
 import com.epam.esm.exception.EntityNotFoundException;
+import com.epam.esm.repository.Keyset;
+import com.epam.esm.repository.OrderingType;
 import com.epam.esm.repository.UserRepository;
+import com.epam.esm.repository.UserStatsRepository;
+import com.epam.esm.repository.UserStatsSortType;
+import com.epam.esm.repository.UserStatsView;
+import com.epam.esm.repository.UserView;
 import com.epam.esm.security.KeycloakUtil;
 import com.epam.esm.validator.UserValidator;
 import com.epam.esm.validator.ValidationError;
@@ -18,7 +29,10 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * This service class encapsulated business logic related to {@link User} entity.
@@ -27,21 +41,29 @@ import java.util.List;
  */
 @Service
 public class UserService {
+    private static final String SORT_KEY_FORMAT = "%s.%s";
+
     private UserRepository userRepository;
+    private UserStatsRepository userStatsRepository;
     private UserValidator userValidator;
     private KeycloakUtil keycloakUtil;
     private PasswordEncoder passwordEncoder;
+    private AuthenticationCache authenticationCache;
 
     public UserService(
             UserRepository userRepository,
+            UserStatsRepository userStatsRepository,
             UserValidator userValidator,
             KeycloakUtil keycloakUtil,
-            PasswordEncoder passwordEncoder
+            PasswordEncoder passwordEncoder,
+            AuthenticationCache authenticationCache
     ) {
         this.userRepository = userRepository;
+        this.userStatsRepository = userStatsRepository;
         this.userValidator = userValidator;
         this.keycloakUtil = keycloakUtil;
         this.passwordEncoder = passwordEncoder;
+        this.authenticationCache = authenticationCache;
     }
 
     /**
@@ -51,12 +73,68 @@ public class UserService {
      * @return {@link Page<UserDto>} object
      */
     public Page<UserDto> findAll(PageContext pageContext) {
-        return userRepository.findAll(pageContext.toPageRequest())
-                .map(UserDto::fromUser);
+        return userRepository.findViewsBy(pageContext.toPageRequest())
+                .map(UserDto::fromView);
+    }
+
+    /**
+     * Retrieve all users using keyset pagination.
+     *
+     * @param pageContext {@link PageContext} object in keyset mode
+     * @throws InvalidPageContextException in case when cursor is malformed
+     * @return {@link CursorPage<UserDto>} object
+     */
+    public CursorPage<UserDto> scrollAll(PageContext pageContext) {
+        long keysetId = pageContext.getKeysetId();
+        List<UserView> users = pageContext.isBackward()
+                ? userRepository.findViewsByIdLessThan(keysetId, pageContext.toKeysetPageRequest())
+                : userRepository.findViewsByIdGreaterThan(keysetId, pageContext.toKeysetPageRequest());
+
+        return pageContext.toCursorPage(users, UserView::getId)
+                .map(UserDto::fromView);
     }
 
     /**
-     * Retrieve user by its unique id.
+     * Retrieve spending and order statistics of users using keyset pagination.
+     * Only users that have made at least one order are listed.
+     *
+     * @param sortType attribute to order statistics by
+     * @param orderingType ordering direction
+     * @param pageContext {@link PageContext} object in keyset mode
+     * @throws InvalidPageContextException in case when cursor is malformed or was issued for another ordering
+     * @return {@link CursorPage<UserDto>} object with statistics of users
+     */
+    public CursorPage<UserDto> scrollStats(UserStatsSortType sortType, OrderingType orderingType,
+                PageContext pageContext) {
+        String sortKey = String.format(SORT_KEY_FORMAT, sortType.getAttributeName(), orderingType);
+        Function<String, ? extends Comparable<?>> sortValueParser;
+        Function<UserStatsView, String> sortValueExtractor;
+
+        switch (sortType) {
+            case ORDER_COUNT -> {
+                sortValueParser = Long::valueOf;
+                sortValueExtractor = stats -> String.valueOf(stats.getOrderCount());
+            }
+            case LAST_PURCHASE_DATE -> {
+                sortValueParser = LocalDateTime::parse;
+                sortValueExtractor = stats -> stats.getLastPurchaseDate().toString();
+            }
+            default -> {
+                sortValueParser = BigDecimal::new;
+                sortValueExtractor = stats -> stats.getTotalCost().toPlainString();
+            }
+        }
+
+        Keyset keyset = pageContext.toKeyset(sortKey, sortValueParser);
+        List<UserStatsView> stats = userStatsRepository.findViewRange(sortType, orderingType, keyset,
+                pageContext.getKeysetLimit());
+
+        return pageContext.toCursorPage(stats, sortKey, sortValueExtractor, UserStatsView::getUserId)
+                .map(UserDto::fromStatsView);
+    }
+
+    /**
+     * Retrieve user by its unique id together with spending and order statistics.
      *
      * @param id user id
      * @throws EntityNotFoundException in case when user with this id does not exist
@@ -65,7 +143,14 @@ public class UserService {
     public UserDto findById(long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(id, User.class));
-        return UserDto.fromUser(user);
+        UserDto userDto = UserDto.fromUser(user);
+
+        // statistics row is created with the first order of user
+        userDto.setStats(userStatsRepository.findById(id)
+                .map(UserStatsDto::fromStats)
+                .orElseGet(UserStatsDto::empty));
+
+        return userDto;
     }
 
     /**
@@ -96,6 +181,15 @@ public class UserService {
         return buildTokenDto(createdUser);
     }
 
+    /**
+     * Retrieve counters of the cache of validated access tokens.
+     *
+     * @return {@link CacheStatsDto} object
+     */
+    public CacheStatsDto findAuthenticationCacheStats() {
+        return authenticationCache.getStats();
+    }
+
     /**
      * Authenticate with provided credentials.
      *
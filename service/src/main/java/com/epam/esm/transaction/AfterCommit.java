@@ -0,0 +1,34 @@
+package com.epam.esm.transaction;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs actions after commit of the current transaction, so in-memory structures never see changes
+ * that are rolled back. Actions called outside a transaction are run at once.
+ *
+ * @author Dmitry Karnyshov
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Run the action after commit of the current transaction or at once when there is no transaction.
+     *
+     * @param action action to run
+     */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
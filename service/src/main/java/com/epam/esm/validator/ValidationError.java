@@ -6,5 +6,9 @@ public enum ValidationError {
     INVALID_PRICE,
     INVALID_DURATION,
     INVALID_USERNAME,
-    INVALID_PASSWORD
+    INVALID_PASSWORD,
+    MALFORMED_DATA,
+    // valid data that could not be saved (e.g. because of a database failure), saving may be retried
+    SAVE_FAILED,
+    TOO_MANY_ITEMS
 }
@@ -0,0 +1,100 @@
+package com.epam.esm.cache;
+
+import com.epam.esm.dto.CacheStatsDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthenticationCacheTest {
+    private AuthenticationCache authenticationCache;
+    private AtomicInteger authenticationCount;
+
+    @BeforeEach
+    void setUp() {
+        authenticationCache = new AuthenticationCache();
+        ReflectionTestUtils.setField(authenticationCache, "enabled", true);
+        ReflectionTestUtils.setField(authenticationCache, "maxSize", 100L);
+        authenticationCache.init();
+
+        authenticationCount = new AtomicInteger();
+    }
+
+    @Test
+    void testGet() {
+        Function<String, JwtAuthenticationToken> authenticator = provideAuthenticator(Instant.now().plusSeconds(60));
+
+        JwtAuthenticationToken authentication = authenticationCache.get("token1", authenticator);
+        JwtAuthenticationToken cachedAuthentication = authenticationCache.get("token1", authenticator);
+        authenticationCache.get("token2", authenticator);
+
+        CacheStatsDto stats = authenticationCache.getStats();
+        assertNotSame(authentication, cachedAuthentication);
+        assertSame(authentication.getToken(), cachedAuthentication.getToken());
+        assertEquals(authentication.getAuthorities(), cachedAuthentication.getAuthorities());
+        assertEquals(2, authenticationCount.get());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+    }
+
+    @Test
+    void testGetWhenDetailsSet() {
+        Function<String, JwtAuthenticationToken> authenticator = provideAuthenticator(Instant.now().plusSeconds(60));
+
+        authenticationCache.get("token", authenticator).setDetails("first request");
+        JwtAuthenticationToken cachedAuthentication = authenticationCache.get("token", authenticator);
+
+        assertNull(cachedAuthentication.getDetails());
+        assertTrue(cachedAuthentication.isAuthenticated());
+    }
+
+    @Test
+    void testGetWhenTokenExpired() {
+        Function<String, JwtAuthenticationToken> authenticator = provideAuthenticator(Instant.now().minusSeconds(1));
+
+        authenticationCache.get("token", authenticator);
+        authenticationCache.get("token", authenticator);
+
+        assertEquals(2, authenticationCount.get());
+    }
+
+    @Test
+    void testGetWhenTokenInvalid() {
+        Function<String, JwtAuthenticationToken> authenticator = token -> {
+            authenticationCount.incrementAndGet();
+            throw new OAuth2AuthenticationException(new OAuth2Error("invalid_token"));
+        };
+
+        assertThrows(OAuth2AuthenticationException.class, () -> authenticationCache.get("token", authenticator));
+        assertThrows(OAuth2AuthenticationException.class, () -> authenticationCache.get("token", authenticator));
+        assertEquals(2, authenticationCount.get());
+    }
+
+    private Function<String, JwtAuthenticationToken> provideAuthenticator(Instant expiresAt) {
+        return token -> {
+            authenticationCount.incrementAndGet();
+            Jwt jwt = Jwt.withTokenValue(token)
+                    .header("alg", "RS256")
+                    .claim("app_user_id", "1")
+                    .issuedAt(expiresAt.minusSeconds(300))
+                    .expiresAt(expiresAt)
+                    .build();
+
+            return new JwtAuthenticationToken(jwt);
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.epam.esm.cache;
+
+import com.epam.esm.dto.CacheStatsDto;
+import com.epam.esm.dto.GiftCertificateDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class CertificateCacheTest {
+    private CertificateCache certificateCache;
+    private AtomicInteger loadCount;
+    private LongFunction<GiftCertificateDto> loader;
+
+    @BeforeEach
+    void setUp() {
+        certificateCache = new CertificateCache();
+        ReflectionTestUtils.setField(certificateCache, "enabled", true);
+        ReflectionTestUtils.setField(certificateCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(certificateCache, "ttlSeconds", 60L);
+        certificateCache.init();
+
+        loadCount = new AtomicInteger();
+        // odd certificates have the first tag, even ones have the second tag
+        loader = id -> {
+            loadCount.incrementAndGet();
+            return provideCertificateDto(id, id % 2 == 1 ? "tag1" : "tag2");
+        };
+    }
+
+    @Test
+    void testGet() {
+        certificateCache.get(1, loader);
+        certificateCache.get(1, loader);
+        certificateCache.get(2, loader);
+
+        CacheStatsDto stats = certificateCache.getStats();
+        assertEquals(2, loadCount.get());
+        assertEquals(new CacheStatsDto(true, 2, 1, 2, 1.0 / 3, 0), stats);
+    }
+
+    @Test
+    void testInvalidate() {
+        certificateCache.get(1, loader);
+        certificateCache.get(2, loader);
+        certificateCache.get(3, loader);
+
+        certificateCache.invalidate(2);
+        certificateCache.invalidateTag("tag1");
+        certificateCache.get(1, loader);
+        certificateCache.get(2, loader);
+        certificateCache.get(3, loader);
+
+        assertEquals(6, loadCount.get());
+    }
+
+    @Test
+    void testGetWhenDisabled() {
+        ReflectionTestUtils.setField(certificateCache, "enabled", false);
+
+        certificateCache.get(1, loader);
+        certificateCache.get(1, loader);
+
+        assertEquals(2, loadCount.get());
+        assertFalse(certificateCache.getStats().isEnabled());
+    }
+
+    private GiftCertificateDto provideCertificateDto(long id, String tagName) {
+        GiftCertificateDto certificateDto = new GiftCertificateDto();
+        certificateDto.setId(id);
+        certificateDto.setName("certificate" + id);
+        certificateDto.setTags(List.of(tagName));
+
+        return certificateDto;
+    }
+}
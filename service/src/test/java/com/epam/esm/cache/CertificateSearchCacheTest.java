@@ -0,0 +1,88 @@
+package com.epam.esm.cache;
+
+import com.epam.esm.dto.GiftCertificateSearchParamsDto;
+import com.epam.esm.pagination.PageContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class CertificateSearchCacheTest {
+    private CertificateSearchCache searchCache;
+    private AtomicInteger loadCount;
+    private Supplier<List<Long>> loader;
+
+    @BeforeEach
+    void setUp() {
+        searchCache = new CertificateSearchCache();
+        ReflectionTestUtils.setField(searchCache, "enabled", true);
+        ReflectionTestUtils.setField(searchCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(searchCache, "ttlSeconds", 60L);
+        searchCache.init();
+
+        loadCount = new AtomicInteger();
+        loader = () -> List.of((long) loadCount.incrementAndGet());
+    }
+
+    @Test
+    void testGet() {
+        PageContext pageContext = PageContext.of(1, 10);
+
+        List<Long> firstPage = searchCache.get("page", provideSearchParamsDto("tag1", "tag2"), pageContext, loader);
+        List<Long> secondPage = searchCache.get("page", provideSearchParamsDto("tag2", "tag1", "tag2"),
+                PageContext.of(1, 10), loader);
+        searchCache.get("slice", provideSearchParamsDto("tag1", "tag2"), pageContext, loader);
+        searchCache.get("page", provideSearchParamsDto("tag1", "tag2"), PageContext.of(2, 10), loader);
+
+        assertEquals(firstPage, secondPage);
+        assertEquals(3, loadCount.get());
+    }
+
+    @Test
+    void testInvalidateAll() {
+        PageContext pageContext = PageContext.of(1, 10);
+
+        searchCache.get("page", provideSearchParamsDto("tag1"), pageContext, loader);
+        searchCache.invalidateAll();
+        List<Long> page = searchCache.get("page", provideSearchParamsDto("tag1"), pageContext, loader);
+
+        assertEquals(List.of(2L), page);
+        assertEquals(1, searchCache.getCatalogVersion());
+    }
+
+    @Test
+    void testGetWhenDisabled() {
+        ReflectionTestUtils.setField(searchCache, "enabled", false);
+        PageContext pageContext = PageContext.of(1, 10);
+
+        searchCache.get("page", provideSearchParamsDto("tag1"), pageContext, loader);
+        searchCache.get("page", provideSearchParamsDto("tag1"), pageContext, loader);
+
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    void testInvalidateAllWhenDisabled() {
+        ReflectionTestUtils.setField(searchCache, "enabled", false);
+        String versionTag = searchCache.getCatalogVersionTag();
+
+        searchCache.invalidateAll();
+
+        assertEquals(1, searchCache.getCatalogVersion());
+        assertNotEquals(versionTag, searchCache.getCatalogVersionTag());
+    }
+
+    private GiftCertificateSearchParamsDto provideSearchParamsDto(String... tagNames) {
+        GiftCertificateSearchParamsDto searchParamsDto = new GiftCertificateSearchParamsDto();
+        searchParamsDto.setTagNames(List.of(tagNames));
+        searchParamsDto.setCertificateName("certificate");
+
+        return searchParamsDto.normalize();
+    }
+}
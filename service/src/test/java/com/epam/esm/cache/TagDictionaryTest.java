@@ -0,0 +1,140 @@
+package com.epam.esm.cache;
+
+import com.epam.esm.entity.Tag;
+import com.epam.esm.repository.TagRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TagDictionaryTest {
+    @Mock
+    private TagRepository tagRepository;
+
+    private TagDictionary tagDictionary;
+
+    @BeforeEach
+    void setUp() {
+        tagDictionary = new TagDictionary(tagRepository, new ObjectMapper());
+        ReflectionTestUtils.setField(tagDictionary, "enabled", true);
+    }
+
+    @Test
+    void testFindIds() {
+        assertEquals(Map.of(), tagDictionary.findIds(List.of("tag1")));
+
+        loadDictionary();
+
+        assertTrue(tagDictionary.isLoaded());
+        assertEquals(Map.of("tag1", 1L), tagDictionary.findIds(List.of("tag1", "tag3")));
+        assertEquals(Optional.of(2L), tagDictionary.findId("tag2"));
+    }
+
+    @Test
+    void testFindExistingIdsWhenTagDeleted() {
+        loadDictionary();
+        when(tagRepository.findExistingIds(any())).thenReturn(List.of(2L));
+
+        Map<String, Long> existingIds = tagDictionary.findExistingIds(List.of("tag1", "tag2", "tag3"));
+
+        assertEquals(Map.of("tag2", 2L), existingIds);
+        assertEquals(Optional.empty(), tagDictionary.findId("tag1"));
+    }
+
+    @Test
+    void testPutAllAndRemove() {
+        loadDictionary();
+        when(tagRepository.findByNameIn(List.of("tag3"))).thenReturn(List.of(new Tag(3, "tag3")));
+        when(tagRepository.findByNameIn(List.of("tag1"))).thenReturn(List.of());
+
+        tagDictionary.putAll(List.of(new Tag(3, "tag3")));
+        tagDictionary.remove("tag1");
+
+        assertEquals(Map.of("tag2", 2L, "tag3", 3L), tagDictionary.findIds(List.of("tag1", "tag2", "tag3")));
+    }
+
+    @Test
+    void testRemoveWhenTagCreatedAgain() {
+        loadDictionary();
+        // the tag was created again before the callback of its deletion runs
+        when(tagRepository.findByNameIn(List.of("tag1"))).thenReturn(List.of(new Tag(4, "tag1")));
+
+        tagDictionary.remove("tag1");
+
+        assertEquals(Optional.of(4L), tagDictionary.findId("tag1"));
+    }
+
+    @Test
+    void testFindIdsWhenDisabled() {
+        ReflectionTestUtils.setField(tagDictionary, "enabled", false);
+
+        tagDictionary.load();
+
+        assertFalse(tagDictionary.isLoaded());
+        assertEquals(Optional.empty(), tagDictionary.findId("tag1"));
+    }
+
+    @Test
+    void testGetSnapshot() throws IOException {
+        loadDictionary();
+
+        when(tagRepository.findByNameIn(List.of("tag2"))).thenReturn(List.of(new Tag(2, "tag2")));
+        when(tagRepository.findByNameIn(List.of("tag1"))).thenReturn(List.of());
+
+        TagDictionarySnapshot snapshot = tagDictionary.getSnapshot();
+        tagDictionary.putAll(List.of(new Tag(2, "tag2")));
+        TagDictionarySnapshot unchangedSnapshot = tagDictionary.getSnapshot();
+        tagDictionary.remove("tag1");
+        TagDictionarySnapshot changedSnapshot = tagDictionary.getSnapshot();
+
+        assertSame(snapshot, unchangedSnapshot);
+        assertEquals("[{\"name\":\"tag1\",\"id\":1},{\"name\":\"tag2\",\"id\":2}]",
+                new String(snapshot.getJson(), StandardCharsets.UTF_8));
+        assertEquals("[{\"name\":\"tag2\",\"id\":2}]", new String(changedSnapshot.getJson(), StandardCharsets.UTF_8));
+        assertNotEquals(snapshot.getDigest(), changedSnapshot.getDigest());
+
+        byte[] gzippedJson = changedSnapshot.getGzippedJson();
+
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(gzippedJson))) {
+            assertEquals(1, changedSnapshot.getSize());
+            assertEquals(new String(changedSnapshot.getJson(), StandardCharsets.UTF_8),
+                    new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testGetSnapshotWhenNotLoaded() {
+        when(tagRepository.findAll()).thenReturn(List.of(new Tag(2, "tag2"), new Tag(1, "tag1")));
+
+        TagDictionarySnapshot snapshot = tagDictionary.getSnapshot();
+
+        assertEquals("[{\"name\":\"tag1\",\"id\":1},{\"name\":\"tag2\",\"id\":2}]",
+                new String(snapshot.getJson(), StandardCharsets.UTF_8));
+    }
+
+    private void loadDictionary() {
+        when(tagRepository.findAll()).thenReturn(List.of(new Tag(1, "tag1"), new Tag(2, "tag2")));
+        tagDictionary.load();
+    }
+}
@@ -0,0 +1,135 @@
+package com.epam.esm.index;
+
+import com.epam.esm.repository.CertificateTagLink;
+import com.epam.esm.repository.GiftCertificateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CertificateTagIndexTest {
+    @Mock
+    private GiftCertificateRepository certificateRepository;
+
+    private CertificateTagIndex tagIndex;
+
+    @BeforeEach
+    void setUp() {
+        tagIndex = new CertificateTagIndex(certificateRepository);
+        ReflectionTestUtils.setField(tagIndex, "enabled", true);
+        ReflectionTestUtils.setField(tagIndex, "maxCandidates", 100L);
+
+        when(certificateRepository.findAllTagLinks()).thenReturn(List.of(
+                provideLink(1, "tag1"),
+                provideLink(1, "tag2"),
+                provideLink(2, "tag1"),
+                provideLink(3, "tag2")
+        ));
+        tagIndex.rebuild();
+    }
+
+    @Test
+    void testFindCertificatesWithAllTags() {
+        assertEquals(Optional.of(List.of(1L)), tagIndex.findCertificatesWithAllTags(List.of("tag1", "tag2")));
+        assertEquals(Optional.of(List.of(1L, 2L)), tagIndex.findCertificatesWithAllTags(List.of("tag1")));
+        assertEquals(Optional.of(List.of()), tagIndex.findCertificatesWithAllTags(List.of("tag1", "tag3")));
+    }
+
+    @Test
+    void testPutCertificate() {
+        when(certificateRepository.findTagLinksByCertificateIds(List.of(2L)))
+                .thenReturn(List.of(provideLink(2, "tag2"), provideLink(2, "tag3")));
+
+        tagIndex.putCertificate(2);
+
+        assertEquals(Optional.of(List.of(1L)), tagIndex.findCertificatesWithAllTags(List.of("tag1")));
+        assertEquals(Optional.of(List.of(2L)), tagIndex.findCertificatesWithAllTags(List.of("tag3")));
+    }
+
+    @Test
+    void testPutCertificateWhenCallbacksReordered() {
+        // the second update replaced tag3 with tag4, its callback runs before the one of the first update
+        when(certificateRepository.findTagLinksByCertificateIds(List.of(2L)))
+                .thenReturn(List.of(provideLink(2, "tag4")));
+
+        tagIndex.putCertificate(2);
+        tagIndex.putCertificate(2);
+
+        assertEquals(Optional.of(List.of(2L)), tagIndex.findCertificatesWithAllTags(List.of("tag4")));
+        assertEquals(Optional.of(List.of()), tagIndex.findCertificatesWithAllTags(List.of("tag3")));
+    }
+
+    @Test
+    void testRemoveCertificateAndTag() {
+        when(certificateRepository.findTagLinksByCertificateIds(List.of(1L))).thenReturn(List.of());
+        when(certificateRepository.findTagLinksByTagName("tag1")).thenReturn(List.of());
+
+        tagIndex.removeCertificate(1);
+        tagIndex.removeTag("tag1");
+
+        assertEquals(Optional.of(List.of(3L)), tagIndex.findCertificatesWithAllTags(List.of("tag2")));
+        assertEquals(Optional.of(List.of()), tagIndex.findCertificatesWithAllTags(List.of("tag1")));
+    }
+
+    @Test
+    void testRemoveTagWhenCreatedAgain() {
+        when(certificateRepository.findTagLinksByTagName("tag1")).thenReturn(List.of(provideLink(5, "tag1")));
+
+        tagIndex.removeTag("tag1");
+
+        assertEquals(Optional.of(List.of(5L)), tagIndex.findCertificatesWithAllTags(List.of("tag1")));
+    }
+
+    @Test
+    void testRebuildWhenCertificatePutConcurrently() throws InterruptedException {
+        when(certificateRepository.findTagLinksByCertificateIds(List.of(4L)))
+                .thenReturn(List.of(provideLink(4, "tag3")));
+        Thread putThread = new Thread(() -> tagIndex.putCertificate(4));
+        when(certificateRepository.findAllTagLinks()).thenAnswer(invocation -> {
+            // the change is committed after the links were read
+            putThread.start();
+
+            while (putThread.getState() != Thread.State.WAITING && putThread.getState() != Thread.State.TERMINATED) {
+                Thread.onSpinWait();
+            }
+
+            return List.of(provideLink(1, "tag1"));
+        });
+
+        tagIndex.rebuild();
+        putThread.join();
+
+        assertEquals(Optional.of(List.of(4L)), tagIndex.findCertificatesWithAllTags(List.of("tag3")));
+        assertEquals(Optional.of(List.of(1L)), tagIndex.findCertificatesWithAllTags(List.of("tag1")));
+    }
+
+    @Test
+    void testFindWhenTooManyCandidates() {
+        ReflectionTestUtils.setField(tagIndex, "maxCandidates", 1L);
+        assertTrue(tagIndex.findCertificatesWithAllTags(List.of("tag1")).isEmpty());
+    }
+
+    private CertificateTagLink provideLink(long certificateId, String tagName) {
+        return new CertificateTagLink() {
+            @Override
+            public long getCertificateId() {
+                return certificateId;
+            }
+
+            @Override
+            public String getTagName() {
+                return tagName;
+            }
+        };
+    }
+}
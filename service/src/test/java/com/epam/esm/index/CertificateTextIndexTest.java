@@ -0,0 +1,100 @@
+package com.epam.esm.index;
+
+import com.epam.esm.entity.GiftCertificate;
+import com.epam.esm.repository.GiftCertificateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CertificateTextIndexTest {
+    @Mock
+    private GiftCertificateRepository certificateRepository;
+
+    @TempDir
+    Path indexPath;
+
+    private CertificateTextIndex textIndex;
+
+    @BeforeEach
+    void setUp() {
+        textIndex = new CertificateTextIndex(certificateRepository);
+        ReflectionTestUtils.setField(textIndex, "enabled", true);
+        ReflectionTestUtils.setField(textIndex, "indexPath", indexPath.toString());
+        ReflectionTestUtils.setField(textIndex, "maxCandidates", 100);
+        textIndex.openIndex();
+
+        when(certificateRepository.findRange(ArgumentMatchers.<Specification<GiftCertificate>>any(), anyLong(),
+                anyInt())).thenReturn(List.of(
+                provideCertificate(1, "Spa weekend", "Relaxing spa day for two"),
+                provideCertificate(2, "Spa", "Massage"),
+                provideCertificate(3, "Cinema", "Two tickets to any movie"),
+                provideCertificate(4, "Spaghetti dinner", "Pasta for one")
+        ));
+        textIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        textIndex.closeIndex();
+    }
+
+    @Test
+    void testSearchBySubstring() {
+        assertEquals(Optional.of(List.of(3L)), textIndex.search("inem", null));
+        assertEquals(Optional.of(List.of(1L)), textIndex.search("spa", "two"));
+        assertEquals(Optional.of(List.of()), textIndex.search("theatre", null));
+    }
+
+    @Test
+    void testSearchRanksWholeWordsHigher() {
+        assertEquals(Optional.of(List.of(2L, 1L, 4L)), textIndex.search("spa", null));
+    }
+
+    @Test
+    void testPutAndRemoveCertificate() {
+        textIndex.putCertificate(provideCertificate(2, "Theatre", "Massage"));
+        textIndex.removeCertificate(3);
+
+        assertEquals(Optional.of(List.of(2L)), textIndex.search("theatre", null));
+        assertEquals(Optional.of(List.of()), textIndex.search("cinema", null));
+    }
+
+    @Test
+    void testSearchWhenQueryTooShort() {
+        assertTrue(textIndex.search("sp", null).isEmpty());
+    }
+
+    @Test
+    void testSearchWhenQueryHasWildcards() {
+        assertTrue(textIndex.search("sp_", null).isEmpty());
+        assertTrue(textIndex.search(null, "t%o").isEmpty());
+    }
+
+    private GiftCertificate provideCertificate(long id, String name, String description) {
+        GiftCertificate certificate = new GiftCertificate();
+        certificate.setId(id);
+        certificate.setName(name);
+        certificate.setDescription(description);
+
+        return certificate;
+    }
+}
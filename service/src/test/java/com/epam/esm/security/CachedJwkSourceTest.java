@@ -0,0 +1,143 @@
+package com.epam.esm.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachedJwkSourceTest {
+    private static final long REFRESH_TIMEOUT_MS = 5000;
+
+    @TempDir
+    Path directory;
+
+    private Path serverPath;
+    private Path cachePath;
+    private CachedJwkSource jwkSource;
+
+    @BeforeEach
+    void setUp() {
+        serverPath = directory.resolve("certs.json");
+        cachePath = directory.resolve("cache.json");
+
+        jwkSource = new CachedJwkSource();
+        ReflectionTestUtils.setField(jwkSource, "jwkSetUri", serverPath.toUri().toString());
+        ReflectionTestUtils.setField(jwkSource, "cachePath", cachePath.toString());
+        ReflectionTestUtils.setField(jwkSource, "minRefreshIntervalMs", 0L);
+        ReflectionTestUtils.setField(jwkSource, "connectTimeoutMs", 1000);
+        ReflectionTestUtils.setField(jwkSource, "readTimeoutMs", 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // waits for the refresh requested at startup, so it does not write to the directory being deleted
+        jwkSource.stop();
+    }
+
+    @Test
+    void testGetWhenCacheFileExists() throws Exception {
+        RSAKey key = provideKey("k1");
+        Files.writeString(cachePath, new JWKSet(key).toString(), StandardCharsets.UTF_8);
+
+        jwkSource.start();
+        List<JWK> keys = jwkSource.get(provideSelector("k1"), null);
+
+        assertEquals(1, keys.size());
+        assertEquals(key.toPublicJWK(), keys.get(0));
+    }
+
+    @Test
+    void testGetWhenCacheFileMissing() throws Exception {
+        RSAKey key = provideKey("k1");
+        writeServerKeys(key);
+
+        jwkSource.start();
+        List<JWK> keys = jwkSource.get(provideSelector("k1"), null);
+
+        assertEquals(1, keys.size());
+        assertTrue(Files.exists(cachePath));
+        assertEquals(1, JWKSet.load(cachePath.toFile()).getKeys().size());
+    }
+
+    @Test
+    void testRefreshWhenServerUnavailable() throws Exception {
+        RSAKey key = provideKey("k1");
+        writeServerKeys(key);
+        jwkSource.start();
+        jwkSource.refresh();
+
+        Files.delete(serverPath);
+        jwkSource.refresh();
+        List<JWK> keys = jwkSource.get(provideSelector("k1"), null);
+
+        assertEquals(1, keys.size());
+    }
+
+    @Test
+    void testGetWhenKeyUnknown() throws Exception {
+        writeServerKeys(provideKey("k1"));
+        jwkSource.start();
+        jwkSource.refresh();
+
+        writeServerKeys(provideKey("k1"), provideKey("k2"));
+        List<JWK> keys = jwkSource.get(provideSelector("k2"), null);
+
+        assertTrue(keys.isEmpty());
+        assertTrue(awaitKey("k2"));
+    }
+
+    @Test
+    void testRefreshWhenStopped() throws Exception {
+        jwkSource.start();
+        jwkSource.stop();
+
+        writeServerKeys(provideKey("k1"));
+        jwkSource.refresh();
+
+        assertTrue(jwkSource.get(provideSelector("k1"), null).isEmpty());
+        assertTrue(Files.notExists(cachePath));
+    }
+
+    private boolean awaitKey(String keyId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + REFRESH_TIMEOUT_MS;
+
+        while (System.currentTimeMillis() < deadline) {
+            if (jwkSource.getJwkSet().getKeyByKeyId(keyId) != null) {
+                return true;
+            }
+
+            Thread.sleep(10);
+        }
+
+        return false;
+    }
+
+    private void writeServerKeys(RSAKey... keys) throws IOException {
+        Files.writeString(serverPath, new JWKSet(List.of(keys)).toString(), StandardCharsets.UTF_8);
+    }
+
+    private RSAKey provideKey(String keyId) throws JOSEException {
+        return new RSAKeyGenerator(2048).keyID(keyId).generate();
+    }
+
+    private JWKSelector provideSelector(String keyId) {
+        return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+    }
+}
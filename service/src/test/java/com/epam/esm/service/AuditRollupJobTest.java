@@ -0,0 +1,77 @@
+package com.epam.esm.service;
+
+import com.epam.esm.repository.AuditRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditRollupJobTest {
+    private static final LocalDate TODAY = LocalDate.of(2021, 10, 20);
+
+    @InjectMocks
+    private AuditRollupJob rollupJob;
+
+    @Mock
+    private AuditRollupRepository rollupRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(rollupJob, "lookbackDays", 2);
+        ReflectionTestUtils.setField(rollupJob, "retentionDays", 10);
+        ReflectionTestUtils.setField(rollupJob, "partitionPremakeDays", 1);
+    }
+
+    @Test
+    void testRun() {
+        LocalDate expiredDay = LocalDate.of(2021, 10, 5);
+        when(rollupRepository.findRawEventDays(LocalDate.of(2021, 10, 10))).thenReturn(List.of(expiredDay));
+
+        rollupJob.run(TODAY);
+
+        verify(rollupRepository).createPartition(TODAY);
+        verify(rollupRepository).createPartition(LocalDate.of(2021, 10, 21));
+        verify(rollupRepository).rollUp(LocalDate.of(2021, 10, 18));
+        verify(rollupRepository).rollUp(LocalDate.of(2021, 10, 19));
+        verify(rollupRepository, never()).rollUp(TODAY);
+
+        InOrder inOrder = inOrder(rollupRepository);
+        inOrder.verify(rollupRepository).rollUp(expiredDay);
+        inOrder.verify(rollupRepository).deleteRawEvents(expiredDay);
+    }
+
+    @Test
+    void testRunWhenDayFailed() {
+        LocalDate failedDay = LocalDate.of(2021, 10, 1);
+        LocalDate expiredDay = LocalDate.of(2021, 10, 2);
+        when(rollupRepository.findRawEventDays(any())).thenReturn(List.of(failedDay, expiredDay));
+        doThrow(new QueryTimeoutException("timeout")).when(rollupRepository).rollUp(failedDay);
+
+        rollupJob.run(TODAY);
+
+        verify(rollupRepository, never()).deleteRawEvents(failedDay);
+        verify(rollupRepository).deleteRawEvents(expiredDay);
+        verify(rollupRepository, times(2)).createPartition(any());
+    }
+}
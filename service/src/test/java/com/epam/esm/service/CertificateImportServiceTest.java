@@ -0,0 +1,222 @@
+package com.epam.esm.service;
+
+import com.epam.esm.cache.CertificateSearchCache;
+import com.epam.esm.cache.TagDictionary;
+import com.epam.esm.dto.CertificateImportErrorDto;
+import com.epam.esm.dto.CertificateImportResultDto;
+import com.epam.esm.dto.mapping.CertificateImportReader;
+import com.epam.esm.entity.GiftCertificate;
+import com.epam.esm.entity.Tag;
+import com.epam.esm.exception.InvalidEntityException;
+import com.epam.esm.index.CertificateTagIndex;
+import com.epam.esm.index.CertificateTextIndex;
+import com.epam.esm.repository.GiftCertificateRepository;
+import com.epam.esm.repository.TagRepository;
+import com.epam.esm.validator.GiftCertificateValidator;
+import com.epam.esm.validator.TagValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static com.epam.esm.validator.ValidationError.INVALID_NAME;
+import static com.epam.esm.validator.ValidationError.MALFORMED_DATA;
+import static com.epam.esm.validator.ValidationError.SAVE_FAILED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CertificateImportServiceTest {
+    private static final String CSV_HEADER = "name,description,price,duration,tags\n";
+    private static final String VALID_JSON_ROW = """
+        {"name": "imported", "description": "imported certificate", "price": 10, "duration": 5, "tags": ["tag1"]}
+    """;
+
+    @InjectMocks
+    private CertificateImportService importService;
+
+    @Mock
+    private GiftCertificateRepository certificateRepository;
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private GiftCertificateValidator certificateValidator;
+
+    @Mock
+    private TagValidator tagValidator;
+
+    @Mock
+    private CertificateTagIndex tagIndex;
+
+    @Mock
+    private CertificateTextIndex textIndex;
+
+    @Mock
+    private TagDictionary tagDictionary;
+
+    @Mock
+    private CertificateSearchCache searchCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<List<GiftCertificate>> certificatesCaptor;
+
+    @BeforeAll
+    static void setUp() {
+        MockitoAnnotations.openMocks(CertificateImportServiceTest.class);
+    }
+
+    @BeforeEach
+    void setChunkSize() {
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+    }
+
+    @Test
+    void testImportCertificates() throws IOException {
+        mockTagRepository();
+        when(certificateValidator.validate(any(GiftCertificate.class), eq(false))).thenReturn(List.of());
+        when(tagValidator.validate(anyString())).thenReturn(List.of());
+
+        String csv = CSV_HEADER + """
+            first,first certificate,10,5,tag1;tag2
+            second,"second, certificate",20,10,
+            third,third certificate,not a price,15,tag1
+            fourth,fourth certificate,30,20,tag2
+        """;
+        CertificateImportResultDto result = importService.importCertificates(
+                CertificateImportReader.ofCsv(toInputStream(csv)));
+
+        verify(certificateRepository, times(2)).insertAll(certificatesCaptor.capture());
+        List<List<GiftCertificate>> chunks = certificatesCaptor.getAllValues();
+        GiftCertificate firstCertificate = chunks.get(0).get(0);
+
+        assertEquals(3, result.getImportedCount());
+        assertEquals(List.of(new CertificateImportErrorDto(3, GiftCertificate.class.getSimpleName(),
+                List.of(MALFORMED_DATA))), result.getErrors());
+        assertEquals(List.of(2, 1), chunks.stream().map(List::size).toList());
+        assertEquals(List.of("tag1", "tag2"), firstCertificate.getTags().stream().map(Tag::getName).toList());
+        assertEquals("second, certificate", chunks.get(0).get(1).getDescription());
+        verify(tagRepository).findOrCreateAllByName(Set.of("tag1", "tag2"));
+        verify(tagRepository).findOrCreateAllByName(Set.of("tag2"));
+        verify(textIndex, times(3)).putCertificate(any(GiftCertificate.class));
+        verify(searchCache, times(2)).invalidateAll();
+    }
+
+    @Test
+    void testImportCertificatesFromJson() throws IOException {
+        when(tagRepository.findOrCreateAllByName(Set.of("tag1"))).thenReturn(List.of(provideTag("tag1")));
+        when(certificateValidator.validate(any(GiftCertificate.class), eq(false))).thenReturn(List.of());
+        when(tagValidator.validate(anyString())).thenReturn(List.of());
+
+        String json = "[" + VALID_JSON_ROW + ", \"not a certificate\", " + VALID_JSON_ROW + "]";
+        CertificateImportResultDto result = importService.importCertificates(
+                CertificateImportReader.ofJson(toInputStream(json), new ObjectMapper()));
+
+        assertEquals(2, result.getImportedCount());
+        assertEquals(List.of(new CertificateImportErrorDto(2, GiftCertificate.class.getSimpleName(),
+                List.of(MALFORMED_DATA))), result.getErrors());
+    }
+
+    @Test
+    void testImportCertificatesWhenChunkFailed() throws IOException {
+        when(tagRepository.findOrCreateAllByName(Set.of("tag1"))).thenReturn(List.of(provideTag("tag1")));
+        when(certificateValidator.validate(any(GiftCertificate.class), eq(false))).thenReturn(List.of());
+        when(tagValidator.validate(anyString())).thenReturn(List.of());
+        doNothing()
+                .doThrow(new DataIntegrityViolationException("chunk failed"))
+                .doNothing()
+                .when(certificateRepository).insertAll(any());
+
+        String json = "[" + String.join(", ", Collections.nCopies(5, VALID_JSON_ROW)) + "]";
+        CertificateImportResultDto result = importService.importCertificates(
+                CertificateImportReader.ofJson(toInputStream(json), new ObjectMapper()));
+
+        assertEquals(3, result.getImportedCount());
+        assertEquals(List.of(
+                new CertificateImportErrorDto(3, GiftCertificate.class.getSimpleName(), List.of(SAVE_FAILED)),
+                new CertificateImportErrorDto(4, GiftCertificate.class.getSimpleName(), List.of(SAVE_FAILED))
+        ), result.getErrors());
+    }
+
+    @Test
+    void testImportCertificatesWhenRowsAreInvalid() throws IOException {
+        when(certificateValidator.validate(any(GiftCertificate.class), eq(false)))
+                .thenReturn(List.of(INVALID_NAME))
+                .thenReturn(List.of());
+        when(tagValidator.validate(anyString())).thenReturn(List.of(INVALID_NAME));
+
+        String csv = CSV_HEADER + """
+            a,first certificate,10,5,
+            second,second certificate,20,10,#
+        """;
+        CertificateImportResultDto result = importService.importCertificates(
+                CertificateImportReader.ofCsv(toInputStream(csv)));
+
+        assertEquals(0, result.getImportedCount());
+        assertEquals(List.of(
+                new CertificateImportErrorDto(1, GiftCertificate.class.getSimpleName(), List.of(INVALID_NAME)),
+                new CertificateImportErrorDto(2, Tag.class.getSimpleName(), List.of(INVALID_NAME))
+        ), result.getErrors());
+        verify(certificateRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void testImportCertificatesWhenDataIsInvalid() {
+        assertThrows(InvalidEntityException.class, () -> CertificateImportReader.ofJson(
+                toInputStream(VALID_JSON_ROW), new ObjectMapper()));
+        assertThrows(InvalidEntityException.class, () -> CertificateImportReader.ofCsv(
+                toInputStream("name,description\n")));
+    }
+
+    private void mockTagRepository() {
+        when(tagRepository.findOrCreateAllByName(any())).thenAnswer(invocation -> {
+            Collection<String> tagNames = invocation.getArgument(0);
+            return tagNames.stream()
+                    .map(this::provideTag)
+                    .toList();
+        });
+    }
+
+    private Tag provideTag(String name) {
+        Tag tag = new Tag();
+        tag.setId(name.hashCode());
+        tag.setName(name);
+
+        return tag;
+    }
+
+    private InputStream toInputStream(String data) {
+        return new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,12 +1,19 @@
 package com.epam.esm.service;
 
+import com.epam.esm.cache.CertificateCache;
+import com.epam.esm.cache.CertificateSearchCache;
+import com.epam.esm.cache.TagDictionary;
 import com.epam.esm.dto.GiftCertificateDto;
 import com.epam.esm.dto.GiftCertificateSearchParamsDto;
 import com.epam.esm.entity.GiftCertificate;
 import com.epam.esm.entity.Tag;
 import com.epam.esm.exception.EntityNotFoundException;
 import com.epam.esm.exception.InvalidEntityException;
+import com.epam.esm.index.CertificateTagIndex;
+import com.epam.esm.index.CertificateTextIndex;
 import com.epam.esm.repository.GiftCertificateRepository;
+import com.epam.esm.repository.GiftCertificateView;
+import com.epam.esm.repository.OrderRepository;
 import com.epam.esm.repository.OrderingType;
 import com.epam.esm.pagination.PageContext;
 import com.epam.esm.repository.TagRepository;
@@ -22,25 +29,35 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static com.epam.esm.validator.ValidationError.INVALID_NAME;
 import static java.time.ZoneOffset.UTC;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -57,12 +74,30 @@ class GiftCertificateServiceTest {
     @Mock
     private TagRepository tagRepository;
 
+    @Mock
+    private OrderRepository orderRepository;
+
     @Mock
     private GiftCertificateValidator certificateValidator;
 
     @Mock
     private TagValidator tagValidator;
 
+    @Mock
+    private CertificateTagIndex tagIndex;
+
+    @Mock
+    private CertificateTextIndex textIndex;
+
+    @Spy
+    private CertificateCache certificateCache = provideCertificateCache();
+
+    @Mock
+    private TagDictionary tagDictionary;
+
+    @Spy
+    private CertificateSearchCache searchCache = provideSearchCache();
+
     @Captor
     private ArgumentCaptor<GiftCertificate> certificateCaptor;
 
@@ -73,8 +108,8 @@ class GiftCertificateServiceTest {
 
     @Test
     void testFind() {
-        List<GiftCertificate> certificateList = new ArrayList<>() {{
-            add(provideCertificate());
+        List<GiftCertificateView> certificateList = new ArrayList<>() {{
+            add(provideCertificateView(1));
         }};
 
         List<GiftCertificateDto> certificateDtoList = new ArrayList<>() {{
@@ -84,18 +119,138 @@ class GiftCertificateServiceTest {
         PageContext pageContext = PageContext.of(null, null);
         PageRequest pageRequest = pageContext.toPageRequest();
 
-        Page<GiftCertificate> resultPage = new PageImpl<>(certificateList);
-        when(certificateRepository.findAll(ArgumentMatchers.<Specification<GiftCertificate>>any(), eq(pageRequest)))
-                .thenReturn(resultPage);
+        when(certificateRepository.findViewRange(ArgumentMatchers.<Specification<GiftCertificate>>any(),
+                eq(pageRequest.getOffset()), eq(pageRequest.getPageSize())))
+                .thenReturn(certificateList);
 
         GiftCertificateSearchParamsDto searchParamsDto = provideSearchParamsDto();
         List<GiftCertificateDto> actualDtoList = certificateService.find(searchParamsDto, pageContext).getContent();
 
-        verify(certificateRepository).findAll(ArgumentMatchers.<Specification<GiftCertificate>>any(), eq(pageRequest));
+        verify(certificateRepository).findViewRange(ArgumentMatchers.<Specification<GiftCertificate>>any(),
+                eq(pageRequest.getOffset()), eq(pageRequest.getPageSize()));
+        verify(certificateRepository, never()).findAll(ArgumentMatchers.<Specification<GiftCertificate>>any(),
+                any(PageRequest.class));
 
         assertEquals(certificateDtoList, actualDtoList);
     }
 
+    @Test
+    void testFindWhenPageCached() {
+        PageContext pageContext = PageContext.of(null, null);
+        PageRequest pageRequest = pageContext.toPageRequest();
+
+        when(certificateRepository.findViewRange(ArgumentMatchers.<Specification<GiftCertificate>>any(),
+                eq(pageRequest.getOffset()), eq(pageRequest.getPageSize())))
+                .thenReturn(List.of(provideCertificateView(1)));
+
+        GiftCertificateSearchParamsDto searchParamsDto = provideSearchParamsDto();
+        Page<GiftCertificateDto> firstPage = certificateService.find(searchParamsDto, pageContext);
+        // the same tags in another order and with a duplicate select the same certificates
+        searchParamsDto.setTagNames(List.of("tag2", "tag1", "tag2"));
+        Page<GiftCertificateDto> secondPage = certificateService.find(searchParamsDto, pageContext);
+        when(certificateRepository.findById(1L)).thenReturn(Optional.of(provideCertificate()));
+        certificateService.delete(1);
+        certificateService.find(searchParamsDto, pageContext);
+
+        assertSame(firstPage, secondPage);
+        verify(certificateRepository, times(2)).findViewRange(ArgumentMatchers.<Specification<GiftCertificate>>any(),
+                eq(pageRequest.getOffset()), eq(pageRequest.getPageSize()));
+    }
+
+    @Test
+    void testFindWhenTagIndexUsed() {
+        PageContext pageContext = PageContext.of(null, null);
+        PageRequest pageRequest = pageContext.toPageRequest();
+        GiftCertificateSearchParamsDto searchParamsDto = provideSearchParamsDto();
+
+        when(tagIndex.findCertificatesWithAllTags(searchParamsDto.getTagNames())).thenReturn(Optional.of(List.of(1L)));
+        when(certificateRepository.findViewRange(ArgumentMatchers.<Specification<GiftCertificate>>any(),
+                eq(pageRequest.getOffset()), eq(pageRequest.getPageSize())))
+                .thenReturn(List.of(provideCertificateView(1)));
+
+        certificateService.find(searchParamsDto, pageContext);
+
+        verify(tagIndex).findCertificatesWithAllTags(searchParamsDto.getTagNames());
+    }
+
+    @Test
+    void testFindOrderedByRelevance() {
+        PageContext pageContext = PageContext.of(null, null);
+        GiftCertificateSearchParamsDto searchParamsDto = provideSearchParamsDto();
+        searchParamsDto.setOrderByRelevance(true);
+
+        when(textIndex.search(searchParamsDto.getCertificateName(), searchParamsDto.getCertificateDescription()))
+                .thenReturn(Optional.of(List.of(2L, 1L)));
+        when(certificateRepository.findViewRange(ArgumentMatchers.<Specification<GiftCertificate>>any(), eq(0L),
+                eq(2)))
+                .thenReturn(List.of(provideCertificateView(1), provideCertificateView(2)));
+
+        Page<GiftCertificateDto> page = certificateService.find(searchParamsDto, pageContext);
+        List<Long> actualIds = page.getContent().stream()
+                .map(GiftCertificateDto::getId)
+                .toList();
+
+        assertEquals(List.of(2L, 1L), actualIds);
+        assertEquals(2, page.getTotalElements());
+        verify(certificateRepository, never()).count(ArgumentMatchers.<Specification<GiftCertificate>>any());
+    }
+
+    @Test
+    void testFindSlice() {
+        List<GiftCertificateView> certificateList = new ArrayList<>() {{
+            add(provideCertificateView(1));
+        }};
+
+        List<GiftCertificateDto> certificateDtoList = new ArrayList<>() {{
+            add(provideCertificateDto());
+        }};
+
+        PageContext pageContext = PageContext.of(null, null);
+        PageRequest pageRequest = pageContext.toPageRequest();
+
+        when(certificateRepository.findViewRange(ArgumentMatchers.<Specification<GiftCertificate>>any(),
+                eq(pageRequest.getOffset()), eq(pageRequest.getPageSize() + 1)))
+                .thenReturn(certificateList);
+
+        GiftCertificateSearchParamsDto searchParamsDto = provideSearchParamsDto();
+        Slice<GiftCertificateDto> actualSlice = certificateService.findSlice(searchParamsDto, pageContext);
+
+        verify(certificateRepository, never()).count(ArgumentMatchers.<Specification<GiftCertificate>>any());
+
+        assertEquals(certificateDtoList, actualSlice.getContent());
+        assertFalse(actualSlice.hasNext());
+    }
+
+    @Test
+    void testExport() {
+        GiftCertificateSearchParamsDto searchParamsDto = provideSearchParamsDto();
+        ReflectionTestUtils.setField(certificateService, "exportFetchSize", 2);
+
+        doAnswer(invocation -> {
+            Consumer<List<GiftCertificateView>> chunkConsumer = invocation.getArgument(2);
+            chunkConsumer.accept(List.of(provideCertificateView(1), provideCertificateView(1)));
+            chunkConsumer.accept(List.of(provideCertificateView(1)));
+            return null;
+        }).when(certificateRepository).streamViews(ArgumentMatchers.<Specification<GiftCertificate>>any(), eq(2),
+                any());
+
+        List<GiftCertificateDto> exported = new ArrayList<>();
+        certificateService.export(searchParamsDto, exported::addAll);
+
+        assertEquals(List.of(provideCertificateDto(), provideCertificateDto(), provideCertificateDto()), exported);
+    }
+
+    @Test
+    void testExportWhenTagNamesDuplicated() {
+        GiftCertificateSearchParamsDto searchParamsDto = provideSearchParamsDto();
+        searchParamsDto.setTagNames(List.of("tag2", "tag1", "tag2"));
+
+        certificateService.export(searchParamsDto, certificates -> {
+        });
+
+        verify(tagIndex).findCertificatesWithAllTags(List.of("tag1", "tag2"));
+    }
+
     @Test
     void testFindById() {
         long certificateId = 1;
@@ -104,9 +259,42 @@ class GiftCertificateServiceTest {
         when(certificateRepository.findById(certificateId)).thenReturn(Optional.of(certificate));
 
         GiftCertificateDto actualCertificateDto = certificateService.findById(certificateId);
+        GiftCertificateDto cachedCertificateDto = certificateService.findById(certificateId);
 
         verify(certificateRepository).findById(certificateId);
         assertEquals(expectedCertificateDto, actualCertificateDto);
+        assertSame(actualCertificateDto, cachedCertificateDto);
+    }
+
+    @Test
+    void testFindLastUpdateDate() {
+        long certificateId = 1;
+        when(certificateRepository.findLastUpdateDateById(certificateId)).thenReturn(Optional.of(INITIAL_DATE));
+
+        LocalDateTime lastUpdateDate = certificateService.findLastUpdateDate(certificateId);
+
+        assertEquals(INITIAL_DATE, lastUpdateDate);
+        verify(certificateRepository, never()).findById(certificateId);
+    }
+
+    @Test
+    void testFindLastUpdateDateWhenCertificateCached() {
+        long certificateId = 1;
+        when(certificateRepository.findById(certificateId)).thenReturn(Optional.of(provideCertificate()));
+
+        certificateService.findById(certificateId);
+        LocalDateTime lastUpdateDate = certificateService.findLastUpdateDate(certificateId);
+
+        assertEquals(INITIAL_DATE, lastUpdateDate);
+        verify(certificateRepository, never()).findLastUpdateDateById(certificateId);
+    }
+
+    @Test
+    void testFindLastUpdateDateWhenCertificateNotFound() {
+        long certificateId = 1;
+        when(certificateRepository.findLastUpdateDateById(certificateId)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> certificateService.findLastUpdateDate(certificateId));
     }
 
     @Test
@@ -149,25 +337,46 @@ class GiftCertificateServiceTest {
     @Test
     void testUpdate() {
         long certificateId = 1;
-        String tagName = "tag1";
+        List<String> tagNames = provideTagNames();
+        List<Tag> tags = provideTags();
         GiftCertificate certificate = provideCertificate();
         GiftCertificateDto updatedCertificateDto = provideCertificateDto();
         updatedCertificateDto.setId(certificateId);
-
-        Tag newTag = new Tag();
-        newTag.setName(tagName);
+        // duplicated tag names are resolved once
+        updatedCertificateDto.getTags().add(tagNames.get(0));
 
         when(certificateRepository.findById(certificateId)).thenReturn(Optional.of(certificate));
         when(certificateRepository.save(certificate)).thenReturn(certificate);
-        when(tagRepository.findByName(tagName)).thenReturn(Optional.empty());
-        when(tagRepository.save(newTag)).thenReturn(newTag);
+        when(tagRepository.findOrCreateAllByName(tagNames)).thenReturn(tags);
 
         certificateService.update(updatedCertificateDto);
 
         verify(certificateValidator).validate(certificateCaptor.capture(), eq(true));
         verify(certificateRepository).save(certificateCaptor.getValue());
-        verify(tagValidator).validate(tagName);
-        verify(tagRepository).findByName(tagName);
+        tagNames.forEach(tagName -> verify(tagValidator).validate(tagName));
+        verify(tagRepository).findOrCreateAllByName(tagNames);
+        verify(certificateCache).invalidate(certificateId);
+        verify(orderRepository).removeCertificateFromStatistics(certificateId);
+        verify(orderRepository).addCertificateToStatistics(certificateId);
+        assertEquals(tags, certificateCaptor.getValue().getTags());
+    }
+
+    @Test
+    void testUpdateWhenTagsAreKnown() {
+        long certificateId = 1;
+        List<String> tagNames = provideTagNames();
+        GiftCertificate certificate = provideCertificate();
+        GiftCertificateDto updatedCertificateDto = provideCertificateDto();
+        updatedCertificateDto.setId(certificateId);
+
+        when(certificateRepository.findById(certificateId)).thenReturn(Optional.of(certificate));
+        when(certificateRepository.save(certificate)).thenReturn(certificate);
+        when(tagDictionary.findExistingIds(tagNames)).thenReturn(Map.of(tagNames.get(0), 1L, tagNames.get(1), 2L));
+
+        certificateService.update(updatedCertificateDto);
+
+        verify(tagRepository, never()).findOrCreateAllByName(any());
+        assertEquals(List.of(new Tag(1, tagNames.get(0)), new Tag(2, tagNames.get(1))), certificate.getTags());
     }
 
     @Test
@@ -215,7 +424,12 @@ class GiftCertificateServiceTest {
         when(certificateRepository.findById(certificateId)).thenReturn(Optional.of(certificate));
 
         certificateService.delete(certificateId);
+        verify(orderRepository).removeCertificateFromStatistics(certificateId);
         verify(certificateRepository).delete(certificate);
+        verify(tagIndex).removeCertificate(certificateId);
+        verify(textIndex).removeCertificate(certificateId);
+        verify(certificateCache).invalidate(certificateId);
+        verify(searchCache).invalidateAll();
     }
 
     @Test
@@ -226,6 +440,26 @@ class GiftCertificateServiceTest {
         assertThrows(EntityNotFoundException.class, () -> certificateService.delete(certificateId));
     }
 
+    private static CertificateCache provideCertificateCache() {
+        CertificateCache certificateCache = new CertificateCache();
+        ReflectionTestUtils.setField(certificateCache, "enabled", true);
+        ReflectionTestUtils.setField(certificateCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(certificateCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.invokeMethod(certificateCache, "init");
+
+        return certificateCache;
+    }
+
+    private static CertificateSearchCache provideSearchCache() {
+        CertificateSearchCache searchCache = new CertificateSearchCache();
+        ReflectionTestUtils.setField(searchCache, "enabled", true);
+        ReflectionTestUtils.setField(searchCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(searchCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.invokeMethod(searchCache, "init");
+
+        return searchCache;
+    }
+
     private GiftCertificate provideCertificate() {
         GiftCertificate certificate = new GiftCertificate();
 
@@ -256,6 +490,11 @@ class GiftCertificateServiceTest {
         return certificateDto;
     }
 
+    private GiftCertificateView provideCertificateView(long id) {
+        return new GiftCertificateView(id, "certificate", "description", BigDecimal.ONE, Duration.ofDays(1),
+                INITIAL_DATE, INITIAL_DATE, provideTagNames());
+    }
+
     private GiftCertificateSearchParamsDto provideSearchParamsDto() {
         GiftCertificateSearchParamsDto searchParamsDto = new GiftCertificateSearchParamsDto();
 
@@ -1,15 +1,20 @@
 package com.epam.esm.service;
 
+import com.epam.esm.dto.OrderBatchItemDto;
 import com.epam.esm.dto.OrderDto;
 import com.epam.esm.entity.GiftCertificate;
 import com.epam.esm.entity.Order;
 import com.epam.esm.entity.User;
 import com.epam.esm.exception.EntityNotFoundException;
+import com.epam.esm.exception.InvalidEntityException;
 import com.epam.esm.pagination.PageContext;
 import com.epam.esm.repository.GiftCertificateRepository;
+import com.epam.esm.repository.OrderCertificateLink;
 import com.epam.esm.repository.OrderRepository;
+import com.epam.esm.repository.OrderView;
 import com.epam.esm.repository.UserRepository;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -18,19 +23,26 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -48,20 +60,33 @@ class OrderServiceTest {
     @Mock
     private GiftCertificateRepository certificateRepository;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Captor
     private ArgumentCaptor<Order> orderCaptor;
 
+    @Captor
+    private ArgumentCaptor<List<Order>> ordersCaptor;
+
     @BeforeAll
     static void setUp() {
         MockitoAnnotations.openMocks(OrderServiceTest.class);
     }
 
+    @BeforeEach
+    void setChunkSize() {
+        ReflectionTestUtils.setField(orderService, "chunkSize", 2);
+        ReflectionTestUtils.setField(orderService, "maxBatchSize", 10);
+    }
+
     @Test
     void testFindAll() {
         PageContext pageContext = PageContext.of(null, null);
         PageRequest pageRequest = pageContext.toPageRequest();
-        Page<Order> resultPage = new PageImpl<>(provideOrders());
-        when(orderRepository.findAll(pageRequest)).thenReturn(resultPage);
+        Page<OrderView> resultPage = new PageImpl<>(provideOrderViews());
+        when(orderRepository.findAllViews(pageRequest)).thenReturn(resultPage);
+        when(orderRepository.findCertificateLinks(List.of(1L, 2L, 3L))).thenReturn(provideCertificateLinks());
 
         List<OrderDto> expectedDtoList = provideOrderDtoList();
         List<OrderDto> actualDtoList = orderService.findAll(pageContext).getContent();
@@ -75,8 +100,9 @@ class OrderServiceTest {
         PageRequest pageRequest = pageContext.toPageRequest();
         long userId = 1;
 
-        Page<Order> resultPage = new PageImpl<>(provideOrders());
-        when(orderRepository.findByUserId(userId, pageRequest)).thenReturn(resultPage);
+        Page<OrderView> resultPage = new PageImpl<>(provideOrderViews());
+        when(orderRepository.findViewsByUserId(userId, pageRequest)).thenReturn(resultPage);
+        when(orderRepository.findCertificateLinks(List.of(1L, 2L, 3L))).thenReturn(provideCertificateLinks());
 
         List<OrderDto> expectedDtoList = provideOrderDtoList();
         List<OrderDto> actualDtoList = orderService.findByUser(userId, pageContext).getContent();
@@ -106,19 +132,43 @@ class OrderServiceTest {
     @Test
     void testMakeOrder() {
         User user = provideUser();
-        GiftCertificate certificate = provideCertificates().get(0);
         OrderDto orderDto = provideOrderDtoList().get(0);
         Order order = provideOrders().get(0);
 
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(certificateRepository.findById(anyLong())).thenReturn(Optional.of(certificate));
+        when(certificateRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(provideCertificates());
         when(orderRepository.save(any(Order.class))).thenReturn(order);
 
         orderService.makeOrder(orderDto);
 
         verify(orderRepository).save(orderCaptor.capture());
+        verify(orderRepository).addToStatistics(List.of(order));
         Order capturedOrder = orderCaptor.getValue();
-        assertTrue(capturedOrder.getCost() != null && capturedOrder.getPurchaseDate() != null);
+        assertTrue(capturedOrder.getPurchaseDate() != null);
+        assertEquals(new BigDecimal(30), capturedOrder.getCost());
+        assertEquals(provideCertificates(), capturedOrder.getCertificates());
+    }
+
+    @Test
+    void testMakeOrderWithRepeatedCertificates() {
+        User user = provideUser();
+        OrderDto orderDto = provideOrderDtoList().get(0);
+        orderDto.setCertificateIds(List.of(1L, 2L, 1L));
+        Order order = provideOrders().get(0);
+
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(certificateRepository.findAllById(Set.of(1L, 2L))).thenReturn(provideCertificates().subList(0, 2));
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+
+        orderService.makeOrder(orderDto);
+
+        verify(orderRepository).save(orderCaptor.capture());
+        Order capturedOrder = orderCaptor.getValue();
+        List<Long> orderedIds = capturedOrder.getCertificates().stream()
+                .map(GiftCertificate::getId)
+                .toList();
+        assertEquals(new BigDecimal(30), capturedOrder.getCost());
+        assertEquals(List.of(1L, 2L, 1L), orderedIds);
     }
 
     @Test
@@ -136,9 +186,94 @@ class OrderServiceTest {
         OrderDto orderDto = provideOrderDtoList().get(0);
 
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(certificateRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(certificateRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(provideCertificates().subList(0, 1));
 
-        assertThrows(EntityNotFoundException.class, () -> orderService.makeOrder(orderDto));
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> orderService.makeOrder(orderDto));
+        assertEquals(2L, exception.getEntityId());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void testMakeOrders() {
+        List<OrderDto> orderDtos = new ArrayList<>(provideOrderDtoList());
+        orderDtos.get(1).setUserId(2);
+        orderDtos.get(2).setCertificateIds(List.of(1L, 4L));
+
+        OrderDto emptyOrderDto = new OrderDto();
+        emptyOrderDto.setUserId(1);
+        emptyOrderDto.setCertificateIds(List.of());
+        orderDtos.add(emptyOrderDto);
+
+        when(userRepository.findAllById(Set.of(1L))).thenReturn(List.of(provideUser()));
+        when(certificateRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(provideCertificates());
+        when(certificateRepository.findAllById(Set.of(1L, 4L))).thenReturn(provideCertificates().subList(0, 1));
+        when(orderRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<OrderBatchItemDto> results = orderService.makeOrders(orderDtos, userId -> userId == 1);
+
+        verify(orderRepository, times(2)).saveAll(ordersCaptor.capture());
+        List<Integer> savedOrderCounts = ordersCaptor.getAllValues().stream()
+                .map(List::size)
+                .toList();
+        List<OrderBatchItemDto.Status> statuses = results.stream()
+                .map(OrderBatchItemDto::getStatus)
+                .toList();
+
+        assertEquals(List.of(1, 0), savedOrderCounts);
+        assertEquals(List.of(OrderBatchItemDto.Status.CREATED, OrderBatchItemDto.Status.ACCESS_DENIED,
+                OrderBatchItemDto.Status.ENTITY_NOT_FOUND, OrderBatchItemDto.Status.EMPTY_ORDER), statuses);
+        assertEquals(List.of(0, 1, 2, 3), results.stream().map(OrderBatchItemDto::getIndex).toList());
+        assertEquals(new BigDecimal(30), results.get(0).getOrder().getCost());
+        assertEquals(4L, results.get(2).getEntityId());
+        assertEquals(GiftCertificate.class.getSimpleName(), results.get(2).getEntityName());
+    }
+
+    @Test
+    void testMakeOrdersWhenUserNotFound() {
+        List<OrderDto> orderDtos = provideOrderDtoList().subList(0, 1);
+
+        when(userRepository.findAllById(Set.of(1L))).thenReturn(List.of());
+        when(certificateRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(provideCertificates());
+
+        List<OrderBatchItemDto> results = orderService.makeOrders(orderDtos, userId -> true);
+
+        assertEquals(OrderBatchItemDto.Status.ENTITY_NOT_FOUND, results.get(0).getStatus());
+        assertEquals(User.class.getSimpleName(), results.get(0).getEntityName());
+        verify(orderRepository).saveAll(List.of());
+    }
+
+    @Test
+    void testMakeOrdersWhenBatchTooLarge() {
+        List<OrderDto> orderDtos = new ArrayList<>();
+
+        for (int i = 0; i < 11; i++) {
+            orderDtos.add(provideOrderDtoList().get(0));
+        }
+
+        assertThrows(InvalidEntityException.class, () -> orderService.makeOrders(orderDtos, userId -> true));
+        verify(orderRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testMakeOrdersWhenChunkFailed() {
+        List<OrderDto> orderDtos = new ArrayList<>(provideOrderDtoList());
+        orderDtos.add(provideOrderDtoList().get(0));
+
+        when(userRepository.findAllById(Set.of(1L))).thenReturn(List.of(provideUser()));
+        when(certificateRepository.findAllById(any())).thenReturn(provideCertificates());
+        when(orderRepository.saveAll(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new DataIntegrityViolationException("chunk failed"));
+
+        List<OrderBatchItemDto> results = orderService.makeOrders(orderDtos, userId -> true);
+
+        List<OrderBatchItemDto.Status> statuses = results.stream()
+                .map(OrderBatchItemDto::getStatus)
+                .toList();
+        assertEquals(List.of(OrderBatchItemDto.Status.CREATED, OrderBatchItemDto.Status.CREATED,
+                OrderBatchItemDto.Status.FAILED, OrderBatchItemDto.Status.FAILED), statuses);
+        assertEquals(List.of(0, 1, 2, 3), results.stream().map(OrderBatchItemDto::getIndex).toList());
     }
 
     private List<Order> provideOrders() {
@@ -163,6 +298,51 @@ class OrderServiceTest {
         return List.of(firstOrder, secondOder, thirdOrder);
     }
 
+    private List<OrderView> provideOrderViews() {
+        long userId = provideUser().getId();
+
+        return provideOrders().stream()
+                .map(order -> (OrderView) new OrderView() {
+                    @Override
+                    public long getId() {
+                        return order.getId();
+                    }
+
+                    @Override
+                    public BigDecimal getCost() {
+                        return order.getCost();
+                    }
+
+                    @Override
+                    public LocalDateTime getPurchaseDate() {
+                        return order.getPurchaseDate();
+                    }
+
+                    @Override
+                    public long getUserId() {
+                        return userId;
+                    }
+                })
+                .toList();
+    }
+
+    private List<OrderCertificateLink> provideCertificateLinks() {
+        return provideOrders().stream()
+                .flatMap(order -> order.getCertificates().stream()
+                        .map(certificate -> (OrderCertificateLink) new OrderCertificateLink() {
+                            @Override
+                            public long getOrderId() {
+                                return order.getId();
+                            }
+
+                            @Override
+                            public long getCertificateId() {
+                                return certificate.getId();
+                            }
+                        }))
+                .toList();
+    }
+
     private List<OrderDto> provideOrderDtoList() {
         User user = provideUser();
         List<Long> certificateIds = provideCertificates()
@@ -1,11 +1,21 @@
 package com.epam.esm.service;
 
+import com.epam.esm.cache.CertificateCache;
+import com.epam.esm.cache.CertificateSearchCache;
+import com.epam.esm.cache.TagDictionary;
+import com.epam.esm.dto.MostUsedTagCheckDto;
 import com.epam.esm.dto.TagDto;
 import com.epam.esm.entity.Tag;
 import com.epam.esm.exception.EntityAlreadyExistsException;
 import com.epam.esm.exception.EntityNotFoundException;
 import com.epam.esm.exception.InvalidEntityException;
+import com.epam.esm.index.CertificateTagIndex;
+import com.epam.esm.exception.InvalidPageContextException;
+import com.epam.esm.pagination.CursorPage;
 import com.epam.esm.pagination.PageContext;
+import com.epam.esm.pagination.PageCursor;
+import com.epam.esm.repository.GiftCertificateRepository;
+import com.epam.esm.repository.OrderRepository;
 import com.epam.esm.repository.TagRepository;
 import com.epam.esm.validator.TagValidator;
 import com.epam.esm.validator.ValidationError;
@@ -16,17 +26,25 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static com.epam.esm.validator.ValidationError.INVALID_NAME;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,9 +56,27 @@ class TagServiceTest {
     @Mock
     private TagRepository tagRepository;
 
+    @Mock
+    private GiftCertificateRepository certificateRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
     @Mock
     private TagValidator tagValidator;
 
+    @Mock
+    private CertificateTagIndex tagIndex;
+
+    @Mock
+    private CertificateCache certificateCache;
+
+    @Mock
+    private TagDictionary tagDictionary;
+
+    @Mock
+    private CertificateSearchCache searchCache;
+
     @BeforeAll
     static void setUp() {
         MockitoAnnotations.openMocks(TagServiceTest.class);
@@ -59,6 +95,25 @@ class TagServiceTest {
         assertEquals(expectedDtoList, actualDtoList);
     }
 
+    @Test
+    void testScrollAll() {
+        PageContext pageContext = PageContext.of(null, 2, "");
+        PageRequest pageRequest = pageContext.toKeysetPageRequest();
+        when(tagRepository.findByIdGreaterThan(0, pageRequest)).thenReturn(provideTagsList());
+
+        CursorPage<TagDto> page = tagService.scrollAll(pageContext);
+
+        assertEquals(provideTagDtoList().subList(0, 2), page.getContent());
+        assertNull(page.getPreviousCursor());
+        assertNotNull(page.getNextCursor());
+        assertEquals(0, PageCursor.decode(page.getNextCursor()).getId());
+    }
+
+    @Test
+    void testScrollAllWhenCursorInvalid() {
+        assertThrows(InvalidPageContextException.class, () -> PageContext.of(null, null, "not a cursor"));
+    }
+
     @Test
     void testFindById() {
         long tagId = 1;
@@ -78,6 +133,27 @@ class TagServiceTest {
         assertThrows(EntityNotFoundException.class, () -> tagService.findById(tagId));
     }
 
+    @Test
+    void testFindMostWidelyUsedTag() {
+        Tag tag = provideTagsList().get(0);
+        when(tagRepository.findMostWidelyUsedTagByStatistics()).thenReturn(Optional.of(tag));
+
+        assertEquals(TagDto.fromTag(tag), tagService.findMostWidelyUsedTag());
+    }
+
+    @Test
+    void testCheckMostWidelyUsedTagWhenInconsistent() {
+        List<Tag> tags = provideTagsList();
+        when(tagRepository.findMostWidelyUsedTagByStatistics()).thenReturn(Optional.of(tags.get(0)));
+        when(tagRepository.findMostWidelyUsedTag()).thenReturn(Optional.of(tags.get(1)));
+
+        MostUsedTagCheckDto checkDto = tagService.checkMostWidelyUsedTag();
+
+        assertEquals(TagDto.fromTag(tags.get(0)), checkDto.getStatisticsTag());
+        assertEquals(TagDto.fromTag(tags.get(1)), checkDto.getQueryTag());
+        assertFalse(checkDto.isConsistent());
+    }
+
     @Test
     void testCreate() {
         TagDto tagDto = provideTagDto();
@@ -91,6 +167,8 @@ class TagServiceTest {
         verify(tagValidator).validate(tag.getName());
         verify(tagRepository).findByName(tag.getName());
         verify(tagRepository).save(tag);
+        verify(tagDictionary).putAll(List.of(tag));
+        verify(searchCache).invalidateAll();
     }
 
     @Test
@@ -116,6 +194,28 @@ class TagServiceTest {
         verify(tagValidator).validate(tag.getName());
     }
 
+    @Test
+    void testCreateWhenTagIsInDictionary() {
+        TagDto tagDto = provideTagDto();
+
+        when(tagDictionary.isLoaded()).thenReturn(true);
+        when(tagDictionary.findId(tagDto.getName())).thenReturn(Optional.of(1L));
+        assertThrows(EntityAlreadyExistsException.class, () -> tagService.create(tagDto));
+
+        verify(tagRepository, never()).findByName(tagDto.getName());
+    }
+
+    @Test
+    void testCreateWhenTagCreatedConcurrently() {
+        TagDto tagDto = provideTagDto();
+        Tag tag = provideTag();
+
+        when(tagRepository.save(tag)).thenThrow(new DataIntegrityViolationException("tag_name_key"));
+        assertThrows(EntityAlreadyExistsException.class, () -> tagService.create(tagDto));
+
+        verify(tagDictionary, never()).putAll(any());
+    }
+
     @Test
     void testDelete() {
         Tag tag = provideTag();
@@ -124,7 +224,12 @@ class TagServiceTest {
 
         tagService.delete(tagId);
 
+        verify(certificateRepository).updateLastUpdateDateByTagId(eq(tagId), any(LocalDateTime.class));
         verify(tagRepository).delete(tag);
+        verify(tagIndex).removeTag(tag.getName());
+        verify(certificateCache).invalidateTag(tag.getName());
+        verify(tagDictionary).remove(tag.getName());
+        verify(searchCache).invalidateAll();
     }
 
     @Test
@@ -1,12 +1,22 @@
 package com.epam.esm.service;
 
 import com.epam.esm.dto.UserDto;
+import com.epam.esm.dto.UserStatsDto;
 import com.epam.esm.entity.User;
+import com.epam.esm.entity.UserStats;
 import com.epam.esm.exception.EntityAlreadyExistsException;
 import com.epam.esm.exception.EntityNotFoundException;
 import com.epam.esm.exception.InvalidEntityException;
+import com.epam.esm.exception.InvalidPageContextException;
+import com.epam.esm.pagination.CursorPage;
 import com.epam.esm.pagination.PageContext;
+import com.epam.esm.repository.Keyset;
+import com.epam.esm.repository.OrderingType;
 import com.epam.esm.repository.UserRepository;
+import com.epam.esm.repository.UserStatsRepository;
+import com.epam.esm.repository.UserStatsSortType;
+import com.epam.esm.repository.UserStatsView;
+import com.epam.esm.repository.UserView;
 import com.epam.esm.security.KeycloakUtil;
 import com.epam.esm.validator.UserValidator;
 import com.epam.esm.validator.ValidationError;
@@ -23,12 +33,18 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static com.epam.esm.entity.User.Role.USER;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,6 +56,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserStatsRepository userStatsRepository;
+
     @Mock
     private UserValidator userValidator;
 
@@ -58,8 +77,8 @@ class UserServiceTest {
     void testFindAll() {
         PageContext pageContext = PageContext.of(null, null);
         PageRequest pageRequest = pageContext.toPageRequest();
-        Page<User> resultPage = new PageImpl<>(provideUsers());
-        when(userRepository.findAll(pageRequest)).thenReturn(resultPage);
+        Page<UserView> resultPage = new PageImpl<>(provideUserViews());
+        when(userRepository.findViewsBy(pageRequest)).thenReturn(resultPage);
 
         List<UserDto> expectedDtoList = provideUserDtoList();
         List<UserDto> actualDtoList = userService.findAll(pageContext).getContent();
@@ -71,13 +90,50 @@ class UserServiceTest {
     void testFindById() {
         User user = provideUsers().get(0);
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userStatsRepository.findById(user.getId())).thenReturn(Optional.empty());
 
         UserDto expectedDto = provideUserDtoList().get(0);
+        expectedDto.setStats(UserStatsDto.empty());
         UserDto actualDto = userService.findById(user.getId());
 
         assertEquals(expectedDto, actualDto);
     }
 
+    @Test
+    void testFindByIdWithStats() {
+        User user = provideUsers().get(0);
+        UserStats stats = new UserStats(user.getId(), 2, new BigDecimal("25.50"),
+                LocalDateTime.of(2021, 10, 1, 12, 0));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(userStatsRepository.findById(user.getId())).thenReturn(Optional.of(stats));
+
+        UserDto actualDto = userService.findById(user.getId());
+
+        assertEquals(UserStatsDto.fromStats(stats), actualDto.getStats());
+    }
+
+    @Test
+    void testScrollStats() {
+        PageContext pageContext = PageContext.of(null, 1, "");
+        List<UserStatsView> views = List.of(
+                new UserStatsView(2, "user2", 3, new BigDecimal("30.00"), LocalDateTime.of(2021, 10, 2, 12, 0)),
+                new UserStatsView(1, "user1", 1, new BigDecimal("10.00"), LocalDateTime.of(2021, 10, 1, 12, 0)));
+        when(userStatsRepository.findViewRange(eq(UserStatsSortType.TOTAL_COST), eq(OrderingType.DESC),
+                any(Keyset.class), eq(pageContext.getKeysetLimit()))).thenReturn(views);
+
+        CursorPage<UserDto> page = userService.scrollStats(UserStatsSortType.TOTAL_COST, OrderingType.DESC,
+                pageContext);
+
+        assertEquals(List.of(UserDto.fromStatsView(views.get(0))), page.getContent());
+        assertNotNull(page.getNextCursor());
+        assertNull(page.getPreviousCursor());
+
+        // cursor issued for one ordering is rejected for another one
+        PageContext nextPageContext = PageContext.of(null, 1, page.getNextCursor());
+        assertThrows(InvalidPageContextException.class, () -> userService.scrollStats(UserStatsSortType.ORDER_COUNT,
+                OrderingType.DESC, nextPageContext));
+    }
+
     @Test
     void testFindByIdWhenUserNotFound() {
         long userId = 1;
@@ -188,6 +244,27 @@ class UserServiceTest {
         return List.of(firstUser, secondUser, thirdUser);
     }
 
+    private List<UserView> provideUserViews() {
+        return provideUsers().stream()
+                .map(user -> (UserView) new UserView() {
+                    @Override
+                    public long getId() {
+                        return user.getId();
+                    }
+
+                    @Override
+                    public String getUsername() {
+                        return user.getUsername();
+                    }
+
+                    @Override
+                    public User.Role getRole() {
+                        return user.getRole();
+                    }
+                })
+                .toList();
+    }
+
     private List<UserDto> provideUserDtoList() {
         UserDto firstDto = new UserDto();
         firstDto.setId(1);
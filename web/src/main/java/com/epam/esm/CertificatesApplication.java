@@ -2,8 +2,10 @@ package com.epam.esm;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CertificatesApplication {
     public static void main(String[] args) {
         SpringApplication.run(CertificatesApplication.class, args);
@@ -44,8 +44,12 @@ public class ApplicationExceptionHandler {
     private static final String INVALID_DURATION_MESSAGE = "invalid_entity.duration";
     private static final String INVALID_USERNAME_MESSAGE = "invalid_entity.invalid_username";
     private static final String INVALID_PASSWORD_MESSAGE = "invalid_entity.invalid_password";
+    private static final String MALFORMED_DATA_MESSAGE = "invalid_entity.malformed_data";
+    private static final String SAVE_FAILED_MESSAGE = "invalid_entity.save_failed";
+    private static final String TOO_MANY_ITEMS_MESSAGE = "invalid_entity.too_many_items";
     private static final String INVALID_PAGE_NUMBER_MESSAGE = "invalid_page_number";
     private static final String INVALID_PAGE_SIZE_MESSAGE = "invalid_page_size";
+    private static final String INVALID_CURSOR_MESSAGE = "invalid_cursor";
     private static final String EMPTY_ORDER_MESSAGE = "empty_order";
     private static final String INVALID_CREDENTIALS_MESSAGE = "invalid_credentials";
     private static final String INTERNAL_SERVER_ERROR_MESSAGE = "internal_server_error";
@@ -101,6 +105,9 @@ public class ApplicationExceptionHandler {
                 case INVALID_DURATION -> responseUtil.getErrorMessage(INVALID_DURATION_MESSAGE);
                 case INVALID_USERNAME -> responseUtil.getErrorMessage(INVALID_USERNAME_MESSAGE);
                 case INVALID_PASSWORD -> responseUtil.getErrorMessage(INVALID_PASSWORD_MESSAGE);
+                case MALFORMED_DATA -> responseUtil.getErrorMessage(MALFORMED_DATA_MESSAGE);
+                case SAVE_FAILED -> responseUtil.getErrorMessage(SAVE_FAILED_MESSAGE);
+                case TOO_MANY_ITEMS -> responseUtil.getErrorMessage(TOO_MANY_ITEMS_MESSAGE);
             });
 
             if (iterator.hasNext()) {
@@ -117,11 +124,12 @@ public class ApplicationExceptionHandler {
     @ExceptionHandler(InvalidPageContextException.class)
     public ResponseEntity<Object> handleInvalidPageContext(InvalidPageContextException e) {
         InvalidPageContextException.ErrorType errorType = e.getErrorType();
-        int invalidValue = e.getInvalidValue();
+        Object invalidValue = e.getInvalidValue();
 
         String errorMessage = switch (errorType) {
             case INVALID_PAGE_NUMBER -> responseUtil.getErrorMessage(INVALID_PAGE_NUMBER_MESSAGE);
             case INVALID_PAGE_SIZE -> responseUtil.getErrorMessage(INVALID_PAGE_SIZE_MESSAGE);
+            case INVALID_CURSOR -> responseUtil.getErrorMessage(INVALID_CURSOR_MESSAGE);
         };
 
         return responseUtil.buildErrorResponseEntity(BAD_REQUEST, String.format(errorMessage, invalidValue));
@@ -0,0 +1,57 @@
+package com.epam.esm.controller;
+
+import com.epam.esm.dto.AuditEventDto;
+import com.epam.esm.service.AuditService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.epam.esm.security.KeycloakAuthority.AUDIT_GET;
+import static org.springframework.http.HttpStatus.OK;
+
+/**
+ * This class contains admin REST API endpoints of the memory-mapped audit log.
+ * Endpoints are available only when the log is enabled with {@code audit.sink=mapped-log}.
+ *
+ * @author Dmitry Karnyshov
+ */
+@RestController
+@RequestMapping("/api/audit")
+@ConditionalOnProperty(name = "audit.sink", havingValue = "mapped-log")
+public class AuditController {
+    private static final String DEFAULT_LIMIT = "1000";
+
+    private AuditService auditService;
+
+    public AuditController(AuditService auditService) {
+        this.auditService = auditService;
+    }
+
+    /**
+     * Retrieve audit events of the specified time range (UTC). Segments of the log that are outside
+     * of the range are not scanned.
+     * Access is allowed to users with 'audit:get' authority (admin role).
+     *
+     * @param from start of time range in ISO 8601 format (inclusive)
+     * @param to end of time range in ISO 8601 format (exclusive)
+     * @param limit max amount of events
+     * @return JSON {@link ResponseEntity} object that contains list of {@link AuditEventDto} objects
+     */
+    @GetMapping
+    @PreAuthorize("hasAuthority('" + AUDIT_GET + "')")
+    public ResponseEntity<List<AuditEventDto>> getEvents(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false, defaultValue = DEFAULT_LIMIT) int limit) {
+        List<AuditEventDto> events = auditService.findEvents(from, to, limit);
+        return new ResponseEntity<>(events, OK);
+    }
+}
@@ -0,0 +1,71 @@
+package com.epam.esm.controller;
+
+import com.epam.esm.dto.AuditStatisticsDto;
+import com.epam.esm.dto.AuditWriterStatsDto;
+import com.epam.esm.service.AuditStatisticsService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.epam.esm.security.KeycloakAuthority.AUDIT_GET;
+import static org.springframework.http.HttpStatus.OK;
+
+/**
+ * This class contains admin REST API endpoints of daily audit statistics and of the background audit writer.
+ * Endpoints are available only when audit events are written to {@code audit_table} ({@code audit.sink=table}).
+ *
+ * @author Dmitry Karnyshov
+ */
+@RestController
+@RequestMapping("/api/audit")
+@ConditionalOnProperty(name = "audit.sink", havingValue = "table", matchIfMissing = true)
+public class AuditStatisticsController {
+    private AuditStatisticsService statisticsService;
+
+    public AuditStatisticsController(AuditStatisticsService statisticsService) {
+        this.statisticsService = statisticsService;
+    }
+
+    /**
+     * Retrieve amounts of audit events per day (UTC), entity and operation. Statistics are served from daily
+     * rollups, so they are available for days whose raw events have already expired, and are not available
+     * for the current day.
+     * Access is allowed to users with 'audit:get' authority (admin role).
+     *
+     * @param from first day in ISO 8601 format (inclusive)
+     * @param to last day in ISO 8601 format (exclusive)
+     * @param entityName name of audited entity (e.g. 'GiftCertificate'), all entities if not specified
+     * @return JSON {@link ResponseEntity} object that contains list of {@link AuditStatisticsDto} objects
+     */
+    @GetMapping("/statistics")
+    @PreAuthorize("hasAuthority('" + AUDIT_GET + "')")
+    public ResponseEntity<List<AuditStatisticsDto>> getStatistics(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String entityName) {
+        List<AuditStatisticsDto> statistics = statisticsService.findStatistics(from, to, entityName);
+        return new ResponseEntity<>(statistics, OK);
+    }
+
+    /**
+     * Retrieve counters of the background audit writer: events waiting in the buffer, events dropped because
+     * the buffer was full, events spilled to local disk and events rejected because they can not be written.
+     * Access is allowed to users with 'audit:get' authority (admin role).
+     *
+     * @return JSON {@link ResponseEntity} object that contains {@link AuditWriterStatsDto} object
+     */
+    @GetMapping("/writer/stats")
+    @PreAuthorize("hasAuthority('" + AUDIT_GET + "')")
+    public ResponseEntity<AuditWriterStatsDto> getWriterStats() {
+        AuditWriterStatsDto stats = statisticsService.findWriterStats();
+        return new ResponseEntity<>(stats, OK);
+    }
+}
@@ -3,16 +3,27 @@ package com.epam.esm.controller;
 import com.epam.esm.controller.hateoas.model.HateoasModel;
 import com.epam.esm.controller.hateoas.HateoasProvider;
 import com.epam.esm.controller.hateoas.model.PageHateoasModel;
+import com.epam.esm.dto.CacheStatsDto;
+import com.epam.esm.dto.CertificateImportResultDto;
 import com.epam.esm.dto.GiftCertificateDto;
 import com.epam.esm.dto.GiftCertificateSearchParamsDto;
+import com.epam.esm.dto.mapping.CertificateImportReader;
 import com.epam.esm.entity.GiftCertificate;
 import com.epam.esm.exception.EntityNotFoundException;
 import com.epam.esm.exception.InvalidEntityException;
+import com.epam.esm.pagination.CursorPage;
 import com.epam.esm.pagination.PageContext;
 import com.epam.esm.exception.InvalidPageContextException;
+import com.epam.esm.service.CertificateImportService;
 import com.epam.esm.service.GiftCertificateService;
-
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -25,12 +36,21 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static com.epam.esm.security.KeycloakAuthority.CERTIFICATES_DELETE;
 import static com.epam.esm.security.KeycloakAuthority.CERTIFICATES_SAVE;
+import static java.time.ZoneOffset.UTC;
 import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 import static org.springframework.http.HttpStatus.OK;
 
@@ -42,17 +62,28 @@ import static org.springframework.http.HttpStatus.OK;
 @RestController
 @RequestMapping("/api/certificates")
 public class GiftCertificateController {
+    private static final char NDJSON_LINE_SEPARATOR = '\n';
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String CERTIFICATE_ETAG_FORMAT = "\"%d-%d.%09d\"";
+    private static final String CATALOG_ETAG_FORMAT = "\"%s\"";
+
     private GiftCertificateService certificateService;
+    private CertificateImportService importService;
     private HateoasProvider<GiftCertificateDto> modelHateoasProvider;
     private HateoasProvider<List<GiftCertificateDto>> listHateoasProvider;
+    private ObjectMapper objectMapper;
 
     public GiftCertificateController(
             GiftCertificateService certificateService,
+            CertificateImportService importService,
             HateoasProvider<GiftCertificateDto> modelHateoasProvider,
-            HateoasProvider<List<GiftCertificateDto>> listHateoasProvider) {
+            HateoasProvider<List<GiftCertificateDto>> listHateoasProvider,
+            ObjectMapper objectMapper) {
         this.certificateService = certificateService;
+        this.importService = importService;
         this.modelHateoasProvider = modelHateoasProvider;
         this.listHateoasProvider = listHateoasProvider;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -60,34 +91,171 @@ public class GiftCertificateController {
      * All parameters are optional, so if they are not present, all certificates will be retrieved.
      * Access is allowed to everyone.
      *
+     * If {@code cursor} parameter is present (an empty value starts from the beginning), keyset pagination
+     * is used: response contains links to the next and previous pages instead of page number and totals.
+     * If {@code slice} flag is set, totals are not counted: response contains {@code hasNext} flag instead.
+     *
+     * Response has an ETag of the catalog version, which is changed by every certificate or tag write.
+     * If it matches {@code If-None-Match} header, 304 status is returned without searching certificates.
+     *
      * @param searchParamsDto {@link GiftCertificateSearchParamsDto} instance
-     * @throws InvalidPageContextException if passed page or page size values are invalid
+     * @throws InvalidPageContextException if passed page, page size or cursor values are invalid
      * @return JSON {@link ResponseEntity} object that contains list of {@link PageHateoasModel} objects
      */
     @GetMapping
     public ResponseEntity<PageHateoasModel<GiftCertificateDto>> getCertificates(
             @ModelAttribute GiftCertificateSearchParamsDto searchParamsDto,
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer pageSize
+            @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) boolean slice,
+            WebRequest webRequest
     ) {
-        Page<GiftCertificateDto> certificates = certificateService.find(searchParamsDto, PageContext.of(page, pageSize));
-        PageHateoasModel<GiftCertificateDto> model = PageHateoasModel.build(listHateoasProvider, certificates);
-        return new ResponseEntity<>(model, OK);
+        // the version is read before the page, so the page is never older than its ETag
+        String eTag = String.format(CATALOG_ETAG_FORMAT, certificateService.findCatalogVersion());
+
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+        }
+
+        PageContext pageContext = PageContext.of(page, pageSize, cursor);
+        PageHateoasModel<GiftCertificateDto> model;
+
+        if (pageContext.isKeyset()) {
+            CursorPage<GiftCertificateDto> certificates = certificateService.scroll(searchParamsDto, pageContext);
+            model = PageHateoasModel.build(listHateoasProvider, certificates);
+        } else if (slice) {
+            Slice<GiftCertificateDto> certificates = certificateService.findSlice(searchParamsDto, pageContext);
+            model = PageHateoasModel.build(listHateoasProvider, certificates);
+        } else {
+            Page<GiftCertificateDto> certificates = certificateService.find(searchParamsDto, pageContext);
+            model = PageHateoasModel.build(listHateoasProvider, certificates);
+        }
+
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(model);
+    }
+
+    /**
+     * Export all certificates according to specified parameters as newline-delimited JSON (one certificate per line).
+     * Response is streamed while certificates are being read from the database, so there is no pagination.
+     * Access is allowed to users with 'certificates:save' authority (admin role).
+     *
+     * @param searchParamsDto {@link GiftCertificateSearchParamsDto} instance
+     * @return {@link ResponseEntity} object with streamed NDJSON body
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('" + CERTIFICATES_SAVE + "')")
+    public ResponseEntity<StreamingResponseBody> exportCertificates(
+            @ModelAttribute GiftCertificateSearchParamsDto searchParamsDto
+    ) {
+        ObjectWriter objectWriter = objectMapper.writerFor(GiftCertificateDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody responseBody = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                // lines are separated explicitly
+                generator.setRootValueSeparator(null);
+
+                certificateService.export(searchParamsDto, certificates -> {
+                    try {
+                        for (GiftCertificateDto certificate : certificates) {
+                            objectWriter.writeValue(generator, certificate);
+                            generator.writeRaw(NDJSON_LINE_SEPARATOR);
+                        }
+
+                        // client receives every chunk as soon as it is read
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(responseBody);
+    }
+
+    /**
+     * Import certificates from JSON array. Request body is parsed while certificates are being inserted,
+     * invalid rows are skipped and reported in response.
+     * Access is allowed to users with 'certificates:save' authority (admin role).
+     *
+     * @param inputStream stream of request body
+     * @throws InvalidEntityException in case when request body is not a JSON array
+     * @throws IOException in case when request body cannot be read
+     * @return JSON {@link ResponseEntity} object that contains {@link CertificateImportResultDto} object
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('" + CERTIFICATES_SAVE + "')")
+    public ResponseEntity<CertificateImportResultDto> importCertificatesFromJson(InputStream inputStream)
+                throws IOException {
+        CertificateImportReader reader = CertificateImportReader.ofJson(inputStream, objectMapper);
+        CertificateImportResultDto result = importService.importCertificates(reader);
+        return new ResponseEntity<>(result, OK);
+    }
+
+    /**
+     * Import certificates from CSV data. The first line is a header with {@code name}, {@code description},
+     * {@code price}, {@code duration} and optional {@code tags} columns (tag names are separated by semicolons).
+     * Request body is parsed while certificates are being inserted, invalid rows are skipped and reported in response.
+     * Access is allowed to users with 'certificates:save' authority (admin role).
+     *
+     * @param inputStream stream of request body
+     * @throws InvalidEntityException in case when header lacks required columns
+     * @throws IOException in case when request body cannot be read
+     * @return JSON {@link ResponseEntity} object that contains {@link CertificateImportResultDto} object
+     */
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    @PreAuthorize("hasAuthority('" + CERTIFICATES_SAVE + "')")
+    public ResponseEntity<CertificateImportResultDto> importCertificatesFromCsv(InputStream inputStream)
+                throws IOException {
+        CertificateImportReader reader = CertificateImportReader.ofCsv(inputStream);
+        CertificateImportResultDto result = importService.importCertificates(reader);
+        return new ResponseEntity<>(result, OK);
+    }
+
+    /**
+     * Retrieve hit, miss and eviction counters of the certificate cache.
+     * Access is allowed to users with 'certificates:save' authority (admin role).
+     *
+     * @return JSON {@link ResponseEntity} object that contains {@link CacheStatsDto} object
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasAuthority('" + CERTIFICATES_SAVE + "')")
+    public ResponseEntity<CacheStatsDto> getCacheStats() {
+        CacheStatsDto stats = certificateService.findCacheStats();
+        return new ResponseEntity<>(stats, OK);
     }
 
     /**
      * Retrieve certificate by its unique id.
      * Access is allowed to everyone.
      *
+     * Response has an ETag of id and last update date and Last-Modified header. If they match
+     * {@code If-None-Match} or {@code If-Modified-Since} headers, 304 status is returned
+     * and the certificate is not loaded.
+     *
      * @param id certificate id
      * @throws EntityNotFoundException in case when certificate with this id does not exist
      * @return JSON {@link ResponseEntity} object that contains {@link HateoasModel} object
      */
     @GetMapping("/{id}")
-    public ResponseEntity<HateoasModel<GiftCertificateDto>> getCertificate(@PathVariable("id") long id) {
+    public ResponseEntity<HateoasModel<GiftCertificateDto>> getCertificate(@PathVariable("id") long id,
+                WebRequest webRequest) {
+        LocalDateTime lastUpdateDate = certificateService.findLastUpdateDate(id);
+        Instant lastUpdateInstant = lastUpdateDate.toInstant(UTC);
+        String eTag = String.format(CERTIFICATE_ETAG_FORMAT, id, lastUpdateInstant.getEpochSecond(),
+                lastUpdateInstant.getNano());
+
+        if (webRequest.checkNotModified(eTag, lastUpdateInstant.toEpochMilli())) {
+            return ResponseEntity.status(NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+        }
+
         GiftCertificateDto certificateDto = certificateService.findById(id);
         HateoasModel<GiftCertificateDto> model = HateoasModel.build(modelHateoasProvider, certificateDto);
-        return new ResponseEntity<>(model, OK);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(model);
     }
 
     /**
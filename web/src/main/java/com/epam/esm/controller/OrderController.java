@@ -3,11 +3,13 @@ package com.epam.esm.controller;
 import com.epam.esm.controller.hateoas.model.HateoasModel;
 import com.epam.esm.controller.hateoas.HateoasProvider;
 import com.epam.esm.controller.hateoas.model.PageHateoasModel;
+import com.epam.esm.dto.OrderBatchItemDto;
 import com.epam.esm.dto.OrderDto;
 import com.epam.esm.dto.OrderPartialDto;
 import com.epam.esm.entity.Order;
 import com.epam.esm.exception.EmptyOrderException;
 import com.epam.esm.exception.EntityNotFoundException;
+import com.epam.esm.pagination.CursorPage;
 import com.epam.esm.pagination.PageContext;
 import com.epam.esm.exception.InvalidPageContextException;
 import com.epam.esm.service.OrderService;
@@ -15,6 +17,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -24,6 +28,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.function.LongPredicate;
 
 import static com.epam.esm.security.KeycloakAuthority.ORDERS_GET;
 import static com.epam.esm.security.KeycloakAuthority.ORDERS_GET_BY_OWNER;
@@ -56,8 +61,10 @@ public class OrderController {
      * Access is allowed to users with 'orders:get' authority (admin role) OR
      * to the resource owner (with 'orders:get_by_owner' authority).
      *
+     * Keyset pagination is used if {@code cursor} parameter is present (an empty value starts from the beginning).
+     *
      * @param userId user id (optional)
-     * @throws InvalidPageContextException if passed page or page size values are invalid
+     * @throws InvalidPageContextException if passed page, page size or cursor values are invalid
      * @return JSON {@link ResponseEntity} object that contains list of {@link PageHateoasModel} objects
      */
     @GetMapping
@@ -68,12 +75,22 @@ public class OrderController {
     public ResponseEntity<PageHateoasModel<OrderDto>> getOrders(
             @RequestParam(required = false, defaultValue = "0") long userId,
             @RequestParam(required = false) Integer page,
-            @RequestParam(required = false) Integer pageSize) {
-        PageContext pageContext = PageContext.of(page, pageSize);
-        Page<OrderDto> orders = userId != 0
-                ? orderService.findByUser(userId, pageContext)
-                : orderService.findAll(pageContext);
-        PageHateoasModel<OrderDto> model = PageHateoasModel.build(listHateoasProvider, orders);
+            @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String cursor) {
+        PageContext pageContext = PageContext.of(page, pageSize, cursor);
+        PageHateoasModel<OrderDto> model;
+
+        if (pageContext.isKeyset()) {
+            CursorPage<OrderDto> orders = userId != 0
+                    ? orderService.scrollByUser(userId, pageContext)
+                    : orderService.scrollAll(pageContext);
+            model = PageHateoasModel.build(listHateoasProvider, orders);
+        } else {
+            Page<OrderDto> orders = userId != 0
+                    ? orderService.findByUser(userId, pageContext)
+                    : orderService.findAll(pageContext);
+            model = PageHateoasModel.build(listHateoasProvider, orders);
+        }
 
         return new ResponseEntity<>(model, OK);
     }
@@ -125,4 +142,29 @@ public class OrderController {
         HateoasModel<OrderDto> model = HateoasModel.build(modelHateoasProvider, createdOrderDto);
         return new ResponseEntity<>(model, CREATED);
     }
+
+    /**
+     * Make several orders at once.
+     * Access is allowed to users with 'orders:save' authority (admin role) OR
+     * to users with 'orders:save_by_owner' authority, whose orders are made only if they own them
+     * (other orders are rejected and reported in response).
+     *
+     * @param orderDtos list of {@link OrderDto} instances (only {@code userId} and {@code certificateId} are required)
+     * @param authentication {@link Authentication} object of caller
+     * @return JSON {@link ResponseEntity} object that contains list of {@link OrderBatchItemDto} objects
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyAuthority('" + ORDERS_SAVE + "', '" + ORDERS_SAVE_BY_OWNER + "')")
+    public ResponseEntity<List<OrderBatchItemDto>> makeOrders(@RequestBody List<OrderDto> orderDtos,
+                Authentication authentication) {
+        // authorities are checked once for the whole batch instead of evaluating expression for every order
+        boolean savesAnyOrder = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(ORDERS_SAVE::equals);
+        String username = authentication.getName();
+        LongPredicate userAccessChecker = userId -> savesAnyOrder || username.equals(String.valueOf(userId));
+
+        List<OrderBatchItemDto> results = orderService.makeOrders(orderDtos, userAccessChecker);
+        return new ResponseEntity<>(results, OK);
+    }
 }
@@ -3,15 +3,21 @@ package com.epam.esm.controller;
 import com.epam.esm.controller.hateoas.model.HateoasModel;
 import com.epam.esm.controller.hateoas.HateoasProvider;
 import com.epam.esm.controller.hateoas.model.PageHateoasModel;
+import com.epam.esm.cache.TagDictionarySnapshot;
+import com.epam.esm.dto.MostUsedTagCheckDto;
 import com.epam.esm.dto.TagDto;
 import com.epam.esm.entity.Tag;
 import com.epam.esm.exception.EntityAlreadyExistsException;
 import com.epam.esm.exception.EntityNotFoundException;
 import com.epam.esm.exception.InvalidEntityException;
+import com.epam.esm.pagination.CursorPage;
 import com.epam.esm.pagination.PageContext;
 import com.epam.esm.exception.InvalidPageContextException;
 import com.epam.esm.service.TagService;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -22,6 +28,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -29,6 +36,7 @@ import static com.epam.esm.security.KeycloakAuthority.TAGS_DELETE;
 import static com.epam.esm.security.KeycloakAuthority.TAGS_GET;
 import static com.epam.esm.security.KeycloakAuthority.TAGS_SAVE;
 import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 import static org.springframework.http.HttpStatus.OK;
 
@@ -40,6 +48,11 @@ import static org.springframework.http.HttpStatus.OK;
 @RestController
 @RequestMapping("/api/tags")
 public class TagController {
+    private static final String GZIP_ENCODING = "gzip";
+    private static final String DICTIONARY_ETAG_FORMAT = "\"%s\"";
+    // compressed representation is a different entity, so it has its own strong ETag
+    private static final String GZIPPED_DICTIONARY_ETAG_FORMAT = "\"%s-gzip\"";
+
     private TagService tagService;
     private HateoasProvider<TagDto> modelHateoasProvider;
     private HateoasProvider<List<TagDto>> listHateoasProvider;
@@ -55,18 +68,65 @@ public class TagController {
      * Retrieve all tags.
      * Access is allowed to users with 'tags:get' authority (admin role).
      *
-     * @throws InvalidPageContextException if passed page or page size values are invalid
+     * Keyset pagination is used if {@code cursor} parameter is present (an empty value starts from the beginning).
+     *
+     * @throws InvalidPageContextException if passed page, page size or cursor values are invalid
      * @return JSON {@link ResponseEntity} object that contains list of {@link PageHateoasModel} objects
      */
     @GetMapping
     @PreAuthorize("hasAuthority('" + TAGS_GET + "')")
     public ResponseEntity<PageHateoasModel<TagDto>> getTags(@RequestParam(required = false) Integer page,
-                                                            @RequestParam(required = false) Integer pageSize) {
-        Page<TagDto> tags = tagService.findAll(PageContext.of(page, pageSize));
-        PageHateoasModel<TagDto> model = PageHateoasModel.build(listHateoasProvider, tags);
+                @RequestParam(required = false) Integer pageSize, @RequestParam(required = false) String cursor) {
+        PageContext pageContext = PageContext.of(page, pageSize, cursor);
+        PageHateoasModel<TagDto> model;
+
+        if (pageContext.isKeyset()) {
+            CursorPage<TagDto> tags = tagService.scrollAll(pageContext);
+            model = PageHateoasModel.build(listHateoasProvider, tags);
+        } else {
+            Page<TagDto> tags = tagService.findAll(pageContext);
+            model = PageHateoasModel.build(listHateoasProvider, tags);
+        }
+
         return new ResponseEntity<>(model, OK);
     }
 
+    /**
+     * Retrieve all tags at once as a JSON array of id and name pairs ordered by id, without links.
+     * The array is serialized (and compressed, if {@code Accept-Encoding} header allows gzip) only when tags
+     * are created or deleted. Response has an ETag of its content, if it matches {@code If-None-Match} header,
+     * 304 status is returned.
+     * Access is allowed to users with 'tags:get' authority (admin role).
+     *
+     * @param webRequest current request
+     * @return JSON {@link ResponseEntity} object that contains serialized array of {@link TagDto} objects
+     */
+    @GetMapping("/dictionary")
+    @PreAuthorize("hasAuthority('" + TAGS_GET + "')")
+    public ResponseEntity<byte[]> getTagDictionary(WebRequest webRequest) {
+        TagDictionarySnapshot snapshot = tagService.findDictionarySnapshot();
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzipped = acceptEncoding != null && acceptEncoding.contains(GZIP_ENCODING);
+        String eTag = String.format(gzipped ? GZIPPED_DICTIONARY_ETAG_FORMAT : DICTIONARY_ETAG_FORMAT,
+                snapshot.getDigest());
+
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(NOT_MODIFIED)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        return gzipped
+                ? responseBuilder.header(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING).body(snapshot.getGzippedJson())
+                : responseBuilder.body(snapshot.getJson());
+    }
+
     /**
      * Retrieve tag by its unique id.
      * Access is allowed to users with 'tags:get' authority (admin role).
@@ -98,6 +158,34 @@ public class TagController {
         return new ResponseEntity<>(model, OK);
     }
 
+    /**
+     * Compare the most widely used tag read from order aggregates with the one computed from all orders.
+     * The computation scans all orders, so the endpoint is meant for occasional consistency checks.
+     * Access is allowed to users with 'tags:get' authority (admin role).
+     *
+     * @return JSON {@link ResponseEntity} object that contains {@link MostUsedTagCheckDto} object
+     */
+    @GetMapping("/most_used_tag/check")
+    @PreAuthorize("hasAuthority('" + TAGS_GET + "')")
+    public ResponseEntity<MostUsedTagCheckDto> checkMostWidelyUsedTag() {
+        MostUsedTagCheckDto checkDto = tagService.checkMostWidelyUsedTag();
+        return new ResponseEntity<>(checkDto, OK);
+    }
+
+    /**
+     * Rebuild order aggregates of all users (the most widely used tag is read from them) from orders.
+     * Orders cannot be made while aggregates are rebuilt.
+     * Access is allowed to users with 'tags:save' authority (admin role).
+     *
+     * @return empty {@link ResponseEntity}
+     */
+    @PostMapping("/most_used_tag/rebuild")
+    @PreAuthorize("hasAuthority('" + TAGS_SAVE + "')")
+    public ResponseEntity<Void> rebuildMostWidelyUsedTagStatistics() {
+        tagService.rebuildStatistics();
+        return new ResponseEntity<>(NO_CONTENT);
+    }
+
     /**
      * Create a new tag.
      * Access is allowed to users with 'tags:save' authority (admin role).
@@ -3,13 +3,17 @@ package com.epam.esm.controller;
 import com.epam.esm.controller.hateoas.model.HateoasModel;
 import com.epam.esm.controller.hateoas.HateoasProvider;
 import com.epam.esm.controller.hateoas.model.PageHateoasModel;
+import com.epam.esm.dto.CacheStatsDto;
 import com.epam.esm.dto.TokenDto;
 import com.epam.esm.dto.UserDto;
 import com.epam.esm.exception.EntityAlreadyExistsException;
 import com.epam.esm.exception.EntityNotFoundException;
 import com.epam.esm.exception.InvalidEntityException;
+import com.epam.esm.pagination.CursorPage;
 import com.epam.esm.pagination.PageContext;
 import com.epam.esm.exception.InvalidPageContextException;
+import com.epam.esm.repository.OrderingType;
+import com.epam.esm.repository.UserStatsSortType;
 import com.epam.esm.service.UserService;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
@@ -48,20 +52,70 @@ public class UserController {
      * Retrieve all users.
      * Access is allowed to users with 'users:get' authority (admin role).
      *
-     * @throws InvalidPageContextException if passed page or page size values are invalid
+     * Keyset pagination is used if {@code cursor} parameter is present (an empty value starts from the beginning).
+     *
+     * @throws InvalidPageContextException if passed page, page size or cursor values are invalid
      * @return JSON {@link ResponseEntity} object that contains list of {@link PageHateoasModel} objects
      */
     @GetMapping
     @PreAuthorize("hasAuthority('" + USERS_GET + "')")
     public ResponseEntity<PageHateoasModel<UserDto>> getUsers(@RequestParam(required = false) Integer page,
-                                                              @RequestParam(required = false) Integer pageSize) {
-        Page<UserDto> users = userService.findAll(PageContext.of(page, pageSize));
-        PageHateoasModel<UserDto> model = PageHateoasModel.build(listHateoasProvider, users);
+                @RequestParam(required = false) Integer pageSize, @RequestParam(required = false) String cursor) {
+        PageContext pageContext = PageContext.of(page, pageSize, cursor);
+        PageHateoasModel<UserDto> model;
+
+        if (pageContext.isKeyset()) {
+            CursorPage<UserDto> users = userService.scrollAll(pageContext);
+            model = PageHateoasModel.build(listHateoasProvider, users);
+        } else {
+            Page<UserDto> users = userService.findAll(pageContext);
+            model = PageHateoasModel.build(listHateoasProvider, users);
+        }
+
         return new ResponseEntity<>(model, OK);
     }
 
     /**
-     * Retrieve user by its unique id.
+     * Retrieve spending and order statistics of users that have made at least one order.
+     * Access is allowed to users with 'users:get' authority (admin role).
+     *
+     * Statistics are read from the {@code user_stats} table, which is updated together with orders,
+     * and are always paginated with keyset pagination (an absent or empty cursor starts from the beginning).
+     *
+     * @param sortBy attribute to order by: {@code total_cost}, {@code order_count} or {@code last_purchase_date}
+     * @param order ordering direction, {@code desc} by default
+     * @throws InvalidPageContextException if passed page size or cursor values are invalid
+     * @return JSON {@link ResponseEntity} object that contains list of {@link PageHateoasModel} objects
+     */
+    @GetMapping("/stats")
+    @PreAuthorize("hasAuthority('" + USERS_GET + "')")
+    public ResponseEntity<PageHateoasModel<UserDto>> getUserStats(
+            @RequestParam(required = false, defaultValue = "total_cost") UserStatsSortType sortBy,
+            @RequestParam(required = false, defaultValue = "desc") OrderingType order,
+            @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false, defaultValue = "") String cursor) {
+        PageContext pageContext = PageContext.of(null, pageSize, cursor);
+        CursorPage<UserDto> stats = userService.scrollStats(sortBy, order, pageContext);
+        PageHateoasModel<UserDto> model = PageHateoasModel.build(listHateoasProvider, stats);
+
+        return new ResponseEntity<>(model, OK);
+    }
+
+    /**
+     * Retrieve hit, miss and eviction counters of the cache of validated access tokens.
+     * Access is allowed to users with 'users:get' authority (admin role).
+     *
+     * @return JSON {@link ResponseEntity} object that contains {@link CacheStatsDto} object
+     */
+    @GetMapping("/authentication-cache/stats")
+    @PreAuthorize("hasAuthority('" + USERS_GET + "')")
+    public ResponseEntity<CacheStatsDto> getAuthenticationCacheStats() {
+        CacheStatsDto stats = userService.findAuthenticationCacheStats();
+        return new ResponseEntity<>(stats, OK);
+    }
+
+    /**
+     * Retrieve user by its unique id together with spending and order statistics.
      * Access is allowed to users with 'users:get' authority (admin role) OR
      * to the resource owner (with authority 'users:get_by_owner').
      *
@@ -0,0 +1,13 @@
+package com.epam.esm.controller.converter;
+
+import com.epam.esm.repository.UserStatsSortType;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StringToUserStatsSortTypeConverter implements Converter<String, UserStatsSortType> {
+    @Override
+    public UserStatsSortType convert(String source) {
+        return UserStatsSortType.valueOf(source.toUpperCase());
+    }
+}
@@ -2,10 +2,15 @@ package com.epam.esm.controller.hateoas;
 
 import com.epam.esm.dto.IdentifiableDto;
 import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 
 public class LinkConstructor {
+    private static final String CURSOR_PARAM = "cursor";
+    private static final String PAGE_PARAM = "page";
+
     private LinkConstructor() {
 
     }
@@ -26,4 +31,20 @@ public class LinkConstructor {
                 .slash(id)
                 .withRel(rel);
     }
+
+    public static Link constructPageLink(int page, LinkRelation rel) {
+        String uri = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam(PAGE_PARAM, page)
+                .toUriString();
+        return Link.of(uri, rel);
+    }
+
+    public static Link constructCursorLink(String cursor, LinkRelation rel) {
+        // keep all search parameters of the current request, only the position changes
+        String uri = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam(CURSOR_PARAM, cursor)
+                .replaceQueryParam(PAGE_PARAM)
+                .toUriString();
+        return Link.of(uri, rel);
+    }
 }
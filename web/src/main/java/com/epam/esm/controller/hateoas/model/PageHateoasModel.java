@@ -1,10 +1,15 @@
 package com.epam.esm.controller.hateoas.model;
 
 import com.epam.esm.controller.hateoas.HateoasProvider;
+import com.epam.esm.controller.hateoas.LinkConstructor;
 import com.epam.esm.dto.IdentifiableDto;
+import com.epam.esm.pagination.CursorPage;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.RepresentationModel;
 
@@ -12,12 +17,18 @@ import java.util.List;
 
 @Data
 @EqualsAndHashCode(callSuper = false)
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PageHateoasModel<T extends IdentifiableDto> extends RepresentationModel<PageHateoasModel<T>> {
     private List<T> data;
-    private int pageNumber;
     private int pageSize;
-    private int totalPages;
-    private long totalEntities;
+
+    // offset pagination only
+    private Integer pageNumber;
+    private Integer totalPages;
+    private Long totalEntities;
+
+    // slices only: totals are not counted
+    private Boolean hasNext;
 
     public static <T extends IdentifiableDto> PageHateoasModel<T> build(HateoasProvider<List<T>> hateoasProvider,
                 Page<T> page) {
@@ -34,4 +45,49 @@ public class PageHateoasModel<T extends IdentifiableDto> extends RepresentationM
 
         return pageHateoasModel;
     }
+
+    public static <T extends IdentifiableDto> PageHateoasModel<T> build(HateoasProvider<List<T>> hateoasProvider,
+                Slice<T> slice) {
+        PageHateoasModel<T> pageHateoasModel = new PageHateoasModel<>();
+        int pageNumber = slice.getNumber() + 1; // zero based
+
+        pageHateoasModel.data = slice.getContent();
+        pageHateoasModel.pageNumber = pageNumber;
+        pageHateoasModel.pageSize = slice.getSize();
+        pageHateoasModel.hasNext = slice.hasNext();
+
+        List<Link> links = hateoasProvider.provide(slice.getContent());
+        pageHateoasModel.add(links);
+
+        if (slice.hasNext()) {
+            pageHateoasModel.add(LinkConstructor.constructPageLink(pageNumber + 1, IanaLinkRelations.NEXT));
+        }
+
+        if (slice.hasPrevious()) {
+            pageHateoasModel.add(LinkConstructor.constructPageLink(pageNumber - 1, IanaLinkRelations.PREV));
+        }
+
+        return pageHateoasModel;
+    }
+
+    public static <T extends IdentifiableDto> PageHateoasModel<T> build(HateoasProvider<List<T>> hateoasProvider,
+                CursorPage<T> page) {
+        PageHateoasModel<T> pageHateoasModel = new PageHateoasModel<>();
+
+        pageHateoasModel.data = page.getContent();
+        pageHateoasModel.pageSize = page.getPageSize();
+
+        List<Link> links = hateoasProvider.provide(page.getContent());
+        pageHateoasModel.add(links);
+
+        if (page.getNextCursor() != null) {
+            pageHateoasModel.add(LinkConstructor.constructCursorLink(page.getNextCursor(), IanaLinkRelations.NEXT));
+        }
+
+        if (page.getPreviousCursor() != null) {
+            pageHateoasModel.add(LinkConstructor.constructCursorLink(page.getPreviousCursor(), IanaLinkRelations.PREV));
+        }
+
+        return pageHateoasModel;
+    }
 }
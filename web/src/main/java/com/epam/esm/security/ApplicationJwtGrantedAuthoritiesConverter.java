@@ -7,17 +7,36 @@ import org.springframework.security.oauth2.jwt.Jwt;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ApplicationJwtGrantedAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
     private static final String SCOPE_CLAIM = "scope";
     private static final String WHITESPACE = " ";
+    // scope strings are defined by roles, so there are a few of them, the limit only guards memory
+    private static final int MAX_INTERNED_SCOPES = 1000;
+
+    // tokens with equal scope strings share one immutable list of authorities
+    private final Map<String, List<GrantedAuthority>> authoritiesByScope = new ConcurrentHashMap<>();
 
     @Override
     public Collection<GrantedAuthority> convert(Jwt jwt) {
-        return Arrays.stream(jwt.getClaim(SCOPE_CLAIM)
-                        .toString()
-                        .split(WHITESPACE))
+        String scope = jwt.getClaim(SCOPE_CLAIM).toString();
+        List<GrantedAuthority> authorities = authoritiesByScope.get(scope);
+
+        if (authorities != null) {
+            return authorities;
+        }
+
+        authorities = Arrays.stream(scope.split(WHITESPACE))
                 .map(authority -> (GrantedAuthority) new SimpleGrantedAuthority(authority))
                 .toList();
+
+        if (authoritiesByScope.size() < MAX_INTERNED_SCOPES) {
+            authoritiesByScope.putIfAbsent(scope, authorities);
+        }
+
+        return authorities;
     }
 }
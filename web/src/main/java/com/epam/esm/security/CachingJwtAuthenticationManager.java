@@ -0,0 +1,37 @@
+package com.epam.esm.security;
+
+import com.epam.esm.cache.AuthenticationCache;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.server.resource.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * Authentication manager of bearer tokens that validates every token once and then builds its authentication
+ * from {@link AuthenticationCache} until the token expires. Every request gets its own authentication
+ * with details of that request.
+ *
+ * @author Dmitry Karnyshov
+ */
+public class CachingJwtAuthenticationManager implements AuthenticationManager {
+    private AuthenticationProvider jwtAuthenticationProvider;
+    private AuthenticationCache authenticationCache;
+
+    public CachingJwtAuthenticationManager(AuthenticationProvider jwtAuthenticationProvider,
+                AuthenticationCache authenticationCache) {
+        this.jwtAuthenticationProvider = jwtAuthenticationProvider;
+        this.authenticationCache = authenticationCache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        BearerTokenAuthenticationToken bearer = (BearerTokenAuthenticationToken) authentication;
+        JwtAuthenticationToken jwtAuthentication = authenticationCache.get(bearer.getToken(),
+                token -> (JwtAuthenticationToken) jwtAuthenticationProvider.authenticate(bearer));
+        jwtAuthentication.setDetails(bearer.getDetails());
+
+        return jwtAuthentication;
+    }
+}
@@ -1,10 +1,16 @@
 package com.epam.esm.security;
 
+import com.epam.esm.cache.AuthenticationCache;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -12,7 +18,10 @@ import org.springframework.security.config.annotation.web.configuration.WebSecur
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
 import org.springframework.security.web.AuthenticationEntryPoint;
 
 import static com.epam.esm.security.KeycloakUtil.APP_USER_ID_CLAIM_NAME;
@@ -27,9 +36,14 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     private static final String MAIN_ENTITY_ENDPOINT = "/api/certificates/**";
 
     private AuthenticationEntryPoint authenticationEntryPoint;
+    private CachedJwkSource jwkSource;
+    private AuthenticationCache authenticationCache;
 
-    public SecurityConfig(AuthenticationEntryPoint authenticationEntryPoint) {
+    public SecurityConfig(AuthenticationEntryPoint authenticationEntryPoint, CachedJwkSource jwkSource,
+                AuthenticationCache authenticationCache) {
         this.authenticationEntryPoint = authenticationEntryPoint;
+        this.jwkSource = jwkSource;
+        this.authenticationCache = authenticationCache;
     }
 
     @Override
@@ -50,7 +64,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                     .and()
                 .oauth2ResourceServer(
                         configurer -> configurer.jwt(
-                                jwtConfigurer -> jwtConfigurer.jwtAuthenticationConverter(jwtAuthenticationConverter())
+                                jwtConfigurer -> jwtConfigurer.authenticationManager(jwtAuthenticationManager())
                         )
                 );
     }
@@ -60,6 +74,25 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         return new BCryptPasswordEncoder();
     }
 
+    // tokens are validated once and then authenticated from cache until they expire
+    private AuthenticationManager jwtAuthenticationManager() {
+        JwtAuthenticationProvider jwtAuthenticationProvider = new JwtAuthenticationProvider(jwtDecoder());
+        jwtAuthenticationProvider.setJwtAuthenticationConverter(jwtAuthenticationConverter());
+        return new CachingJwtAuthenticationManager(jwtAuthenticationProvider, authenticationCache);
+    }
+
+    // replaces the decoder configured with jwk-set-uri, keys are taken from the local copy of the key set
+    @Bean
+    public JwtDecoder jwtDecoder() {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // claims are validated by the decoder
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        return new NimbusJwtDecoder(jwtProcessor);
+    }
+
     @Bean
     public Converter<Jwt, AbstractAuthenticationToken> jwtAuthenticationConverter() {
         JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
@@ -1,45 +1,45 @@
-INSERT INTO gift_certificate (name, description, price, duration, create_date, last_update_date) VALUES ('positivisms', 'strangenesses', '62.83935408680485', '25', '2019-08-10 03:19:47.063466', '2019-08-10 03:19:47.063466');
-INSERT INTO gift_certificate (name, description, price, duration, create_date, last_update_date) VALUES ('impulsing', 'thermoremanence', '75.12543044112148', '13', '2019-10-22 08:44:50.571704', '2019-10-22 08:44:50.571704');
-INSERT INTO gift_certificate (name, description, price, duration, create_date, last_update_date) VALUES ('animisms', 'mercerizations', '91.68105449409055', '24', '2020-10-25 23:54:14.212861', '2020-10-25 23:54:14.212861');
-INSERT INTO gift_certificate (name, description, price, duration, create_date, last_update_date) VALUES ('eclampsias', 'syllabified', '36.41583841189624', '30', '2019-02-07 22:52:26.105957', '2019-02-07 22:52:26.105957');
-INSERT INTO gift_certificate (name, description, price, duration, create_date, last_update_date) VALUES ('razored', 'multiregional', '59.65686925369632', '36', '2020-04-26 07:01:05.452659', '2020-04-26 07:01:05.452659');
-INSERT INTO gift_certificate (name, description, price, duration, create_date, last_update_date) VALUES ('ultramontanes', 'sansevieria', '81.31040517636352', '46', '2019-02-27 20:31:46.877748', '2019-02-27 20:31:46.877748');
-INSERT INTO gift_certificate (name, description, price, duration, create_date, last_update_date) VALUES ('ancientness', 'photomosaic', '51.39514807335392', '37', '2019-09-26 08:01:48.924432', '2019-09-26 08:01:48.924432');
-INSERT INTO gift_certificate (name, description, price, duration, create_date, last_update_date) VALUES ('fuji', 'reemphases', '94.59776717498332', '57', '2019-04-29 23:10:16.802889', '2019-04-29 23:10:16.802889');
-INSERT INTO gift_certificate (name, description, price, duration, create_date, last_update_date) VALUES ('synopsized', 'encompasses', '83.76478293560618', '20', '2019-09-13 05:56:24.669603', '2019-09-13 05:56:24.669603');
-INSERT INTO gift_certificate (name, description, price, duration, create_date, last_update_date) VALUES ('gangrene', 'sunscreens', '26.245458405102024', '44', '2019-01-02 19:03:19.956797', '2019-01-02 19:03:19.956797');
-INSERT INTO tag (name) VALUES ('throstles');
-INSERT INTO tag (name) VALUES ('airbrush');
-INSERT INTO tag (name) VALUES ('manometers');
-INSERT INTO tag (name) VALUES ('psychologising');
-INSERT INTO tag (name) VALUES ('masteries');
-INSERT INTO tag (name) VALUES ('wot');
-INSERT INTO tag (name) VALUES ('preschool');
-INSERT INTO tag (name) VALUES ('ahistoric');
-INSERT INTO tag (name) VALUES ('guanosine');
-INSERT INTO tag (name) VALUES ('deemed');
-INSERT INTO app_user (username, password, role) VALUES ('admin_user', '$2a$10$OM3brwSQYsRy6aqRvupaTuaNh8to6rnq0BrlwhvtJGttrZRNZk03O', '1');
-INSERT INTO app_user (username, password, role) VALUES ('plain_user', '$2a$10$OM3brwSQYsRy6aqRvupaTuaNh8to6rnq0BrlwhvtJGttrZRNZk03O', '0');
-INSERT INTO app_user (username, password, role) VALUES ('classify', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
-INSERT INTO app_user (username, password, role) VALUES ('jaguarundi', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
-INSERT INTO app_user (username, password, role) VALUES ('sportswoman', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
-INSERT INTO app_user (username, password, role) VALUES ('lectionaries', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
-INSERT INTO app_user (username, password, role) VALUES ('dismiss', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
-INSERT INTO app_user (username, password, role) VALUES ('thermoregulates', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
-INSERT INTO app_user (username, password, role) VALUES ('connotations', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
-INSERT INTO app_user (username, password, role) VALUES ('rhaphae', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
-INSERT INTO app_user (username, password, role) VALUES ('outdoorsman', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
-INSERT INTO app_user (username, password, role) VALUES ('bravest', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
-INSERT INTO app_order (cost, purchase_date, id_user) VALUES ('77.5050158126396', '2019-02-17 08:52:11.032982', '6');
-INSERT INTO app_order (cost, purchase_date, id_user) VALUES ('29.276884428539134', '2020-10-19 19:36:44.213233', '9');
-INSERT INTO app_order (cost, purchase_date, id_user) VALUES ('99.95255685493582', '2020-08-30 06:57:54.069495', '3');
-INSERT INTO app_order (cost, purchase_date, id_user) VALUES ('36.08531257575955', '2019-04-28 09:38:47.339507', '2');
-INSERT INTO app_order (cost, purchase_date, id_user) VALUES ('93.32705506008969', '2019-09-03 06:33:47.421363', '10');
-INSERT INTO app_order (cost, purchase_date, id_user) VALUES ('95.47714661396134', '2020-04-29 14:54:48.196003', '10');
-INSERT INTO app_order (cost, purchase_date, id_user) VALUES ('20.243117121251522', '2020-04-13 02:01:17.229685', '4');
-INSERT INTO app_order (cost, purchase_date, id_user) VALUES ('92.2613905403742', '2020-01-05 09:05:59.926715', '7');
-INSERT INTO app_order (cost, purchase_date, id_user) VALUES ('52.89153639748055', '2019-05-16 19:00:31.923561', '1');
-INSERT INTO app_order (cost, purchase_date, id_user) VALUES ('14.14408185624961', '2019-07-12 14:04:46.868957', '7');
+INSERT INTO gift_certificate (id, name, description, price, duration, create_date, last_update_date) VALUES ('1', 'positivisms', 'strangenesses', '62.83935408680485', '25', '2019-08-10 03:19:47.063466', '2019-08-10 03:19:47.063466');
+INSERT INTO gift_certificate (id, name, description, price, duration, create_date, last_update_date) VALUES ('2', 'impulsing', 'thermoremanence', '75.12543044112148', '13', '2019-10-22 08:44:50.571704', '2019-10-22 08:44:50.571704');
+INSERT INTO gift_certificate (id, name, description, price, duration, create_date, last_update_date) VALUES ('3', 'animisms', 'mercerizations', '91.68105449409055', '24', '2020-10-25 23:54:14.212861', '2020-10-25 23:54:14.212861');
+INSERT INTO gift_certificate (id, name, description, price, duration, create_date, last_update_date) VALUES ('4', 'eclampsias', 'syllabified', '36.41583841189624', '30', '2019-02-07 22:52:26.105957', '2019-02-07 22:52:26.105957');
+INSERT INTO gift_certificate (id, name, description, price, duration, create_date, last_update_date) VALUES ('5', 'razored', 'multiregional', '59.65686925369632', '36', '2020-04-26 07:01:05.452659', '2020-04-26 07:01:05.452659');
+INSERT INTO gift_certificate (id, name, description, price, duration, create_date, last_update_date) VALUES ('6', 'ultramontanes', 'sansevieria', '81.31040517636352', '46', '2019-02-27 20:31:46.877748', '2019-02-27 20:31:46.877748');
+INSERT INTO gift_certificate (id, name, description, price, duration, create_date, last_update_date) VALUES ('7', 'ancientness', 'photomosaic', '51.39514807335392', '37', '2019-09-26 08:01:48.924432', '2019-09-26 08:01:48.924432');
+INSERT INTO gift_certificate (id, name, description, price, duration, create_date, last_update_date) VALUES ('8', 'fuji', 'reemphases', '94.59776717498332', '57', '2019-04-29 23:10:16.802889', '2019-04-29 23:10:16.802889');
+INSERT INTO gift_certificate (id, name, description, price, duration, create_date, last_update_date) VALUES ('9', 'synopsized', 'encompasses', '83.76478293560618', '20', '2019-09-13 05:56:24.669603', '2019-09-13 05:56:24.669603');
+INSERT INTO gift_certificate (id, name, description, price, duration, create_date, last_update_date) VALUES ('10', 'gangrene', 'sunscreens', '26.245458405102024', '44', '2019-01-02 19:03:19.956797', '2019-01-02 19:03:19.956797');
+INSERT INTO tag (id, name) VALUES ('1', 'throstles');
+INSERT INTO tag (id, name) VALUES ('2', 'airbrush');
+INSERT INTO tag (id, name) VALUES ('3', 'manometers');
+INSERT INTO tag (id, name) VALUES ('4', 'psychologising');
+INSERT INTO tag (id, name) VALUES ('5', 'masteries');
+INSERT INTO tag (id, name) VALUES ('6', 'wot');
+INSERT INTO tag (id, name) VALUES ('7', 'preschool');
+INSERT INTO tag (id, name) VALUES ('8', 'ahistoric');
+INSERT INTO tag (id, name) VALUES ('9', 'guanosine');
+INSERT INTO tag (id, name) VALUES ('10', 'deemed');
+INSERT INTO app_user (id, username, password, role) VALUES ('1', 'admin_user', '$2a$10$OM3brwSQYsRy6aqRvupaTuaNh8to6rnq0BrlwhvtJGttrZRNZk03O', '1');
+INSERT INTO app_user (id, username, password, role) VALUES ('2', 'plain_user', '$2a$10$OM3brwSQYsRy6aqRvupaTuaNh8to6rnq0BrlwhvtJGttrZRNZk03O', '0');
+INSERT INTO app_user (id, username, password, role) VALUES ('3', 'classify', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
+INSERT INTO app_user (id, username, password, role) VALUES ('4', 'jaguarundi', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
+INSERT INTO app_user (id, username, password, role) VALUES ('5', 'sportswoman', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
+INSERT INTO app_user (id, username, password, role) VALUES ('6', 'lectionaries', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
+INSERT INTO app_user (id, username, password, role) VALUES ('7', 'dismiss', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
+INSERT INTO app_user (id, username, password, role) VALUES ('8', 'thermoregulates', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
+INSERT INTO app_user (id, username, password, role) VALUES ('9', 'connotations', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
+INSERT INTO app_user (id, username, password, role) VALUES ('10', 'rhaphae', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
+INSERT INTO app_user (id, username, password, role) VALUES ('11', 'outdoorsman', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
+INSERT INTO app_user (id, username, password, role) VALUES ('12', 'bravest', '$2a$12$xKPnRQjvcaI7otzmjburzuIRu4kGqSXTkAwckVQBY4l7BI6XP1A8S', '0');
+INSERT INTO app_order (id, cost, purchase_date, id_user) VALUES ('1', '77.5050158126396', '2019-02-17 08:52:11.032982', '6');
+INSERT INTO app_order (id, cost, purchase_date, id_user) VALUES ('2', '29.276884428539134', '2020-10-19 19:36:44.213233', '9');
+INSERT INTO app_order (id, cost, purchase_date, id_user) VALUES ('3', '99.95255685493582', '2020-08-30 06:57:54.069495', '3');
+INSERT INTO app_order (id, cost, purchase_date, id_user) VALUES ('4', '36.08531257575955', '2019-04-28 09:38:47.339507', '2');
+INSERT INTO app_order (id, cost, purchase_date, id_user) VALUES ('5', '93.32705506008969', '2019-09-03 06:33:47.421363', '10');
+INSERT INTO app_order (id, cost, purchase_date, id_user) VALUES ('6', '95.47714661396134', '2020-04-29 14:54:48.196003', '10');
+INSERT INTO app_order (id, cost, purchase_date, id_user) VALUES ('7', '20.243117121251522', '2020-04-13 02:01:17.229685', '4');
+INSERT INTO app_order (id, cost, purchase_date, id_user) VALUES ('8', '92.2613905403742', '2020-01-05 09:05:59.926715', '7');
+INSERT INTO app_order (id, cost, purchase_date, id_user) VALUES ('9', '52.89153639748055', '2019-05-16 19:00:31.923561', '1');
+INSERT INTO app_order (id, cost, purchase_date, id_user) VALUES ('10', '14.14408185624961', '2019-07-12 14:04:46.868957', '7');
 INSERT INTO certificate_tag (id_certificate, id_tag) VALUES ('1', '4');
 INSERT INTO certificate_tag (id_certificate, id_tag) VALUES ('1', '5');
 INSERT INTO certificate_tag (id_certificate, id_tag) VALUES ('2', '3');
@@ -66,3 +66,20 @@ INSERT INTO certificate_order (id_order, id_certificate) VALUES ('8', '10');
 INSERT INTO certificate_order (id_order, id_certificate) VALUES ('9', '2');
 INSERT INTO certificate_order (id_order, id_certificate) VALUES ('10', '9');
 INSERT INTO certificate_order (id_order, id_certificate) VALUES ('10', '8');
+
+-- ids of inserted rows are specified explicitly, so sequences start after them
+ALTER SEQUENCE gift_certificate_id_seq RESTART WITH 11;
+ALTER SEQUENCE tag_id_seq RESTART WITH 11;
+ALTER SEQUENCE app_user_id_seq RESTART WITH 13;
+ALTER SEQUENCE app_order_id_seq RESTART WITH 11;
+
+-- orders are inserted explicitly, so their aggregates are computed from them
+INSERT INTO user_stats (id_user, order_count, total_cost, last_purchase_date)
+SELECT id_user, COUNT(*), SUM(cost), MAX(purchase_date) FROM app_order GROUP BY id_user;
+
+INSERT INTO user_tag_usage (id_user, id_tag, usage_count)
+SELECT o.id_user, ct.id_tag, COUNT(*)
+FROM app_order AS o
+INNER JOIN certificate_order AS co ON co.id_order = o.id
+INNER JOIN certificate_tag AS ct ON ct.id_certificate = co.id_certificate
+GROUP BY o.id_user, ct.id_tag;
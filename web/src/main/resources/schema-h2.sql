@@ -0,0 +1,9 @@
+CREATE TABLE audit_table (
+    id BIGINT DEFAULT nextval('audit_table_id_seq') PRIMARY KEY,
+    operation VARCHAR(20),
+    entity_name VARCHAR(50),
+    timestamp TIMESTAMP NOT NULL
+);
+
+CREATE INDEX audit_table_timestamp_idx ON audit_table (timestamp);
+CREATE INDEX audit_table_entity_name_timestamp_idx ON audit_table (entity_name, timestamp);
\ No newline at end of file
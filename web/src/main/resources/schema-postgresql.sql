@@ -0,0 +1,31 @@
+-- audit_table is partitioned by day, so expired raw events are removed by dropping whole partitions
+-- and time range queries scan only partitions of the range (see AuditRollupRepositoryCustom);
+-- partitions are created in advance by the rollup job, rows that do not fit into any of them go to the default one
+CREATE TABLE audit_table (
+    id BIGINT DEFAULT nextval('audit_table_id_seq'),
+    operation VARCHAR(20),
+    entity_name VARCHAR(50),
+    timestamp TIMESTAMP NOT NULL,
+
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE audit_table_default PARTITION OF audit_table DEFAULT;
+
+CREATE INDEX audit_table_entity_name_timestamp_idx ON audit_table (entity_name, timestamp);
+
+-- trigram indexes serve substring search (LIKE '%x%') on certificate name and description,
+-- lower() variants serve case-insensitive search, see GiftCertificateSpecificationBuilder
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS gift_certificate_name_trgm_idx
+    ON gift_certificate USING GIN (name gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS gift_certificate_description_trgm_idx
+    ON gift_certificate USING GIN (description gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS gift_certificate_name_lower_trgm_idx
+    ON gift_certificate USING GIN (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS gift_certificate_description_lower_trgm_idx
+    ON gift_certificate USING GIN (lower(description) gin_trgm_ops);
@@ -1,5 +1,14 @@
+-- ids are allocated by Hibernate from sequences in blocks of 50 (pooled-lo optimizer: a sequence value is the
+-- first id of a block), so increment of sequences must match allocation size of entities;
+-- column defaults take a whole block for a single row and are only meant for ad-hoc inserts
+CREATE SEQUENCE gift_certificate_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE tag_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE app_user_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE app_order_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE audit_table_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE gift_certificate (
-    id BIGSERIAL PRIMARY KEY, -- the same as BIGINT
+    id BIGINT DEFAULT nextval('gift_certificate_id_seq') PRIMARY KEY,
     name VARCHAR(50) NOT NULL,
     description VARCHAR(100) NOT NULL,
     price DECIMAL(10, 2) NOT NULL,
@@ -9,19 +18,19 @@ CREATE TABLE gift_certificate (
 );
 
 CREATE TABLE tag (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT DEFAULT nextval('tag_id_seq') PRIMARY KEY,
     name VARCHAR(50) UNIQUE
 );
 
 CREATE TABLE app_user (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT DEFAULT nextval('app_user_id_seq') PRIMARY KEY,
     username VARCHAR(32) UNIQUE,
     password VARCHAR(60),
     role SMALLINT
 );
 
 CREATE TABLE app_order (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT DEFAULT nextval('app_order_id_seq') PRIMARY KEY,
     cost DECIMAL(10, 2) NOT NULL,
     purchase_date TIMESTAMP NOT NULL,
     id_user BIGINT NOT NULL,
@@ -45,9 +54,41 @@ CREATE TABLE certificate_order (
     CONSTRAINT co_order_fk FOREIGN KEY (id_order) REFERENCES app_order (id)
 );
 
-CREATE TABLE audit_table (
-    id BIGSERIAL PRIMARY KEY,
-    operation VARCHAR(20),
-    entity_name VARCHAR(50),
-    timestamp TIMESTAMP
+-- aggregates of orders are updated in the same transaction as orders are made (see OrderRepositoryCustom),
+-- so the most widely used tag and statistics of users are read without scanning orders
+CREATE TABLE user_stats (
+    id_user BIGINT PRIMARY KEY,
+    order_count BIGINT NOT NULL,
+    total_cost DECIMAL(12, 2) NOT NULL,
+    last_purchase_date TIMESTAMP NOT NULL,
+
+    CONSTRAINT us_user_fk FOREIGN KEY (id_user) REFERENCES app_user (id) ON DELETE CASCADE
+);
+
+-- indexes serve the most widely used tag lookup and keyset pagination of user statistics in both directions
+CREATE INDEX user_stats_total_cost_idx ON user_stats (total_cost, id_user);
+CREATE INDEX user_stats_order_count_idx ON user_stats (order_count, id_user);
+CREATE INDEX user_stats_last_purchase_date_idx ON user_stats (last_purchase_date, id_user);
+
+CREATE TABLE user_tag_usage (
+    id_user BIGINT NOT NULL,
+    id_tag BIGINT NOT NULL,
+    usage_count BIGINT NOT NULL,
+
+    PRIMARY KEY (id_user, id_tag),
+    CONSTRAINT utu_user_fk FOREIGN KEY (id_user) REFERENCES app_user (id) ON DELETE CASCADE,
+    CONSTRAINT utu_tag_fk FOREIGN KEY (id_tag) REFERENCES tag (id) ON DELETE CASCADE
+);
+
+CREATE INDEX user_tag_usage_count_idx ON user_tag_usage (id_user, usage_count DESC, id_tag);
+
+-- audit_table is created by database specific scripts (it is partitioned in PostgreSQL),
+-- its raw events are rolled up into daily counters that are kept after raw events expire
+CREATE TABLE audit_rollup (
+    event_date DATE NOT NULL,
+    entity_name VARCHAR(50) NOT NULL,
+    operation VARCHAR(20) NOT NULL,
+    event_count BIGINT NOT NULL,
+
+    PRIMARY KEY (event_date, entity_name, operation)
 );
\ No newline at end of file